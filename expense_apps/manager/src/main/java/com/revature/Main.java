@@ -1,19 +1,38 @@
 package com.revature;
 
+import com.revature.api.AccessLog;
+import com.revature.api.AdaptiveLimiter;
+import com.revature.api.AdmissionControl;
+import com.revature.api.ApiJsonMapper;
 import com.revature.api.AuthenticationMiddleware;
 import com.revature.api.ExpenseController;
+import com.revature.api.HealthController;
+import com.revature.api.IdempotencyStore;
+import com.revature.api.ProfileController;
+import com.revature.api.RateLimiter;
 import com.revature.api.ReportController;
+import com.revature.api.ResponseCache;
+import com.revature.api.ServerTiming;
+import com.revature.metrics.ExecutionProfiler;
+import com.revature.metrics.LatencyWindow;
+import com.revature.metrics.RouteTimingStats;
 import com.revature.repository.DatabaseConnection;
+import com.revature.repository.IdempotencyRepository;
+import com.revature.repository.SchemaMigrator;
 import com.revature.repository.UserRepository;
 import com.revature.repository.ExpenseRepository;
 import com.revature.repository.User;
 import com.revature.repository.ApprovalRepository;
+import com.revature.repository.ApprovalWriteQueue;
 import com.revature.service.AuthenticationService;
 import com.revature.service.ExpenseService;
 
 import io.javalin.Javalin;
 import io.javalin.http.staticfiles.Location;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -22,24 +41,79 @@ import java.util.Map;
  */
 public class Main {
     private static final int PORT = 5001;
+    private static final int APPROVAL_GROUP_MAX_SIZE = 64;
+    private static final long APPROVAL_GROUP_MAX_DELAY_MS = 2;
+    private static final int IDEMPOTENCY_CACHE_SIZE = 10_000;
+    private static final long IDEMPOTENCY_RETENTION_HOURS = 24;
+    private static final long RESPONSE_CACHE_MAX_BYTES = 32L * 1024 * 1024;
+    private static final int ACCESS_LOG_CAPACITY = 8192;
+    private static final long ACCESS_LOG_MAX_FILE_BYTES = 10L * 1024 * 1024;
+    private static final int ACCESS_LOG_MAX_FILES = 5;
+    private static final long ACCESS_LOG_FLUSH_INTERVAL_MS = 200;
+    private static final long PROFILE_SAMPLING_INTERVAL_MS = 10;
+    private static final int PROFILE_MAX_STACKS = 20_000;
+    private static final int SERVER_MIN_THREADS = 8;
+    private static final int SERVER_MAX_THREADS = 250;
+    private static final int LATENCY_WINDOW_CAPACITY = 4096;
+    private static final long LATENCY_WINDOW_MILLIS = 60_000;
+    private static final int ADMISSION_RETRY_AFTER_SECONDS = 2;
     
     public static void main(String[] args) {
         // Initialize dependencies using constructor dependency injection
         DatabaseConnection databaseConnection = new DatabaseConnection();
+        int schemaVersion = new SchemaMigrator(databaseConnection).migrate();
         
         // Repository layer
         UserRepository userRepository = new UserRepository(databaseConnection);
-        ExpenseRepository expenseRepository = new ExpenseRepository(databaseConnection);
-        ApprovalRepository approvalRepository = new ApprovalRepository(databaseConnection);
+        ExpenseRepository expenseRepository = new ExpenseRepository(databaseConnection, schemaVersion);
+        ApprovalRepository approvalRepository = new ApprovalRepository(databaseConnection, schemaVersion);
+        ApprovalWriteQueue approvalWriteQueue = new ApprovalWriteQueue(
+            approvalRepository, databaseConnection, APPROVAL_GROUP_MAX_SIZE, APPROVAL_GROUP_MAX_DELAY_MS);
+        IdempotencyRepository idempotencyRepository = new IdempotencyRepository(databaseConnection);
         
         // Service layer
         AuthenticationService authenticationService = new AuthenticationService(userRepository);
-        ExpenseService expenseService = new ExpenseService(expenseRepository, approvalRepository);
+        ExpenseService expenseService = new ExpenseService(expenseRepository, approvalRepository, approvalWriteQueue);
         
         // API layer
         AuthenticationMiddleware authMiddleware = new AuthenticationMiddleware(authenticationService);
-        ExpenseController expenseController = new ExpenseController(expenseService);
+        IdempotencyStore idempotencyStore = new IdempotencyStore(
+            idempotencyRepository, IDEMPOTENCY_CACHE_SIZE, IDEMPOTENCY_RETENTION_HOURS);
+        ResponseCache responseCache = new ResponseCache(RESPONSE_CACHE_MAX_BYTES);
+        LatencyWindow recentLatency = new LatencyWindow(LATENCY_WINDOW_CAPACITY, LATENCY_WINDOW_MILLIS);
+        ServerTiming serverTiming = new ServerTiming(new RouteTimingStats(), recentLatency);
+        ExpenseController expenseController = new ExpenseController(expenseService, idempotencyStore, responseCache);
         ReportController reportController = new ReportController(expenseService);
+        ProfileController profileController = new ProfileController(
+            new ExecutionProfiler(Duration.ofMillis(PROFILE_SAMPLING_INTERVAL_MS), PROFILE_MAX_STACKS));
+        AccessLog accessLog = new AccessLog(
+            Path.of(System.getenv().getOrDefault("ACCESS_LOG_PATH", "logs/access.log")),
+            ACCESS_LOG_CAPACITY, ACCESS_LOG_MAX_FILE_BYTES, ACCESS_LOG_MAX_FILES, ACCESS_LOG_FLUSH_INTERVAL_MS);
+        // Same sizes as Javalin's default pool, created here so readiness can report its saturation
+        QueuedThreadPool threadPool = new QueuedThreadPool(SERVER_MAX_THREADS, SERVER_MIN_THREADS);
+        threadPool.setName("JettyServerThreadPool");
+        // Concurrency limits per route class: initial, min, max, queue length, max wait ms, target latency ms
+        AdmissionControl admissionControl = new AdmissionControl(
+            new AdaptiveLimiter(32, 4, 128, 8, 100, 500),
+            new AdaptiveLimiter(16, 2, 64, 8, 200, 500),
+            new AdaptiveLimiter(4, 1, 8, 0, 0, 5000),
+            ADMISSION_RETRY_AFTER_SECONDS);
+        // Token buckets per route class: burst size, sustained requests per second.
+        // Per-IP limits are looser since several managers may share an address; auth routes
+        // (login, logout, status) are limited per IP only.
+        RateLimiter rateLimiter = new RateLimiter(
+            Map.of(
+                AdmissionControl.RouteClass.READ, new RateLimiter.Limit(120, 20),
+                AdmissionControl.RouteClass.WRITE, new RateLimiter.Limit(60, 5),
+                AdmissionControl.RouteClass.REPORT, new RateLimiter.Limit(10, 0.2)),
+            Map.of(
+                AdmissionControl.RouteClass.READ, new RateLimiter.Limit(480, 80),
+                AdmissionControl.RouteClass.WRITE, new RateLimiter.Limit(240, 20),
+                AdmissionControl.RouteClass.REPORT, new RateLimiter.Limit(40, 0.8),
+                AdmissionControl.RouteClass.AUTH, new RateLimiter.Limit(30, 1)));
+        serverTiming.addMetricsSection(rateLimiter::toPrometheusText);
+        HealthController healthController = new HealthController(
+            databaseConnection, threadPool, approvalWriteQueue, responseCache, recentLatency);
         
         // Configure and start Javalin application
         Javalin app = Javalin.create(config -> {
@@ -59,8 +133,18 @@ public class Main {
                 staticFiles.location = Location.CLASSPATH;
             });
             
-            // Enable request logging
-            config.bundledPlugins.enableDevLogging();
+            // Request logging: asynchronous access log file, or verbose console output with DEV_LOGGING=true
+            if (Boolean.parseBoolean(System.getenv("DEV_LOGGING"))) {
+                config.bundledPlugins.enableDevLogging();
+            } else {
+                config.requestLogger.http(accessLog::log);
+            }
+            
+            // Request thread pool, also watched by the readiness check
+            config.jetty.threadPool = threadPool;
+            
+            // Shared JSON mapper with pre-built serializers for the API models
+            config.jsonMapper(new ApiJsonMapper());
         });
         
         // Global exception handling
@@ -103,7 +187,6 @@ public class Main {
                 // Parse login request
                 // @SuppressWarnings("unchecked")
                 User loginData = ctx.bodyAsClass(User.class);
-                System.out.println("Login attempt for user: " + loginData.getUsername());
                 String username = loginData.getUsername();
                 String password = loginData.getPassword();
 
@@ -117,11 +200,9 @@ public class Main {
                 }
                 
                 // Authenticate manager
-                System.out.println("Attempting authentication for user: " + username);
                 java.util.Optional<com.revature.repository.User> managerOpt = authenticationService.authenticateManager(username, password);
                 
                 if (managerOpt.isPresent()) {
-                    System.out.println("Authentication successful for user: " + username);
                     com.revature.repository.User manager = managerOpt.get();
                     
                     // Create JWT token
@@ -166,16 +247,37 @@ public class Main {
             ));
         });
         
+        // Per-phase timing of API requests, reported in the Server-Timing header and on /metrics.
+        // Registered before the authentication handlers so JWT verification is timed too.
+        app.before("/api/*", serverTiming::start);
+        app.after("/api/*", serverTiming::finish);
+        
+        // Per-IP token buckets, checked before authentication so login attempts and bad tokens
+        // are limited without a JWT verification or user lookup; over the limit gets 429
+        app.before("/api/*", rateLimiter::checkClient);
+        
         // Protected routes - require manager authentication
         app.before("/api/expenses/*", authMiddleware.validateManager());
         app.before("/api/reports/*", authMiddleware.validateManager());
+        app.before("/debug/*", authMiddleware.validateManager());
+        
+        // Per-manager token buckets, checked once the manager is known; over the limit gets 429
+        app.before("/api/*", rateLimiter::checkManager);
+        
+        // Separate adaptive concurrency limits for reads, writes and reports; saturated classes get 503
+        app.before("/api/*", admissionControl::admit);
+        app.after("/api/*", admissionControl::release);
         
         // Expense management endpoints
         app.get("/api/expenses", expenseController::getAllExpenses);
         app.get("/api/expenses/pending", expenseController::getPendingExpenses);
+        app.get("/api/expenses/summary", expenseController::getExpenseSummary);
+        app.get("/api/expenses/totals", expenseController::getExpenseTotalsByPeriod);
+        app.get("/api/expenses/search", expenseController::searchExpenses);
         app.get("/api/expenses/employee/{employeeId}", expenseController::getExpensesByEmployee);
         app.post("/api/expenses/{expenseId}/approve", expenseController::approveExpense);
         app.post("/api/expenses/{expenseId}/deny", expenseController::denyExpense);
+        app.post("/api/expenses/bulk", expenseController::bulkReviewExpenses);
         
         // Report generation endpoints
         app.get("/api/reports/expenses/csv", reportController::generateAllExpensesReport);
@@ -183,6 +285,7 @@ public class Main {
         app.get("/api/reports/expenses/employee/{employeeId}/csv", reportController::generateEmployeeExpensesReport);
         app.get("/api/reports/expenses/category/{category}/csv", reportController::generateCategoryExpensesReport);
         app.get("/api/reports/expenses/daterange/csv", reportController::generateDateRangeExpensesReport);
+        app.get("/api/reports/expenses/search/csv", reportController::generateSearchExpensesReport);
         
         // Root route - serve manager dashboard
         
@@ -190,22 +293,48 @@ public class Main {
         app.get("/health", ctx -> ctx.json(java.util.Map.of(
             "status", "healthy",
             "service", "expense-manager-api",
-            "version", "1.0.0"
+            "version", "1.0.0",
+            "responseCache", responseCache.stats(),
+            "accessLog", accessLog.stats(),
+            "admission", admissionControl.stats(),
+            "rateLimits", rateLimiter.stats()
         )));
         
+        // Liveness (process is up) and readiness (database reachable, not overloaded) for orchestrators
+        app.get("/health/live", healthController::live);
+        app.get("/health/ready", healthController::ready);
+        
+        // Per-route request counts and phase timings in the Prometheus text format
+        app.get("/metrics", serverTiming::metrics);
+        
+        // On-demand CPU profile in folded flame graph format
+        app.get("/debug/profile", profileController::profile);
+        
+        // Commit any queued approval writes and access log records before the JVM exits
+        app.events(event -> event.serverStopping(approvalWriteQueue::close));
+        app.events(event -> event.serverStopped(accessLog::close));
+        Runtime.getRuntime().addShutdownHook(new Thread(app::stop));
+        
         // Start the server
         app.start(PORT);
         
         System.out.println("   Expense Manager API (Manager App) started successfully!");
         System.out.println("   Server running on: http://localhost:" + PORT);
         System.out.println("   Health check: http://localhost:" + PORT + "/health");
+        System.out.println("   Liveness/Readiness: GET /health/live, GET /health/ready");
+        System.out.println("   Metrics: http://localhost:" + PORT + "/metrics");
+        System.out.println("   CPU Profile: GET /debug/profile?seconds=N");
         System.out.println("   API Documentation:");
         System.out.println("   Authentication Status: GET /api/auth/status");
         System.out.println("   Pending Expenses: GET /api/expenses/pending");
+        System.out.println("   Expense Summary: GET /api/expenses/summary");
+        System.out.println("   Expense Totals: GET /api/expenses/totals?startDate=&endDate=&period=day|week|month");
         System.out.println("   All Expenses: GET /api/expenses");
+        System.out.println("   Search Expenses: GET /api/expenses/search");
         System.out.println("   Employee Expenses: GET /api/expenses/employee/{employeeId}");
         System.out.println("   Approve Expense: POST /api/expenses/{expenseId}/approve");
         System.out.println("   Deny Expense: POST /api/expenses/{expenseId}/deny");
+        System.out.println("   Bulk Approve/Deny: POST /api/expenses/bulk");
         System.out.println("   CSV Reports: GET /api/reports/expenses/csv");
         System.out.println("   More reports available at /api/reports/expenses/...");
     }
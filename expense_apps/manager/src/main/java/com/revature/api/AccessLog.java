@@ -0,0 +1,250 @@
+package com.revature.api;
+
+import io.javalin.http.Context;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous HTTP access log.
+ * Request threads claim a slot in a fixed-size ring buffer with a single CAS and copy a
+ * few fields into it; a background thread formats the records and appends them to the
+ * log file in batches, rotating it when it grows past a size limit. When the buffer is
+ * full the record is dropped and counted rather than making the request wait.
+ */
+public class AccessLog implements AutoCloseable {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_INSTANT;
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final long flushIntervalNanos;
+    private final int mask;
+
+    // Ring buffer slots, one array per field; slot i holds sequence published[i]
+    private final AtomicLongArray published;
+    private final long[] timestamps;
+    private final String[] methods;
+    private final String[] paths;
+    private final String[] clientIps;
+    private final int[] statuses;
+    private final float[] durationsMs;
+
+    /** Next sequence to hand to a request thread. */
+    private final AtomicLong head = new AtomicLong();
+    /** Next sequence the writer will read; slots below it are free. */
+    private volatile long tail;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private BufferedWriter writer;
+    private long fileBytes;
+
+    /**
+     * @param file the log file; rotated copies are written next to it as file.1, file.2, ...
+     * @param capacity number of ring buffer slots, a power of two
+     * @param maxFileBytes size after which the file is rotated
+     * @param maxFiles number of rotated files kept besides the current one
+     * @param flushIntervalMillis how long the writer sleeps when the buffer is empty
+     */
+    public AccessLog(Path file, int capacity, long maxFileBytes, int maxFiles, long flushIntervalMillis) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.timestamps = new long[capacity];
+        this.methods = new String[capacity];
+        this.paths = new String[capacity];
+        this.clientIps = new String[capacity];
+        this.statuses = new int[capacity];
+        this.durationsMs = new float[capacity];
+        this.writerThread = new Thread(this::runWriter, "access-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Record a completed request. Suitable as Javalin's request logger.
+     * @param ctx the request context
+     * @param executionTimeMs time spent handling the request
+     */
+    public void log(Context ctx, Float executionTimeMs) {
+        log(System.currentTimeMillis(), ctx.method().name(), ctx.path(), ctx.ip(), ctx.statusCode(), executionTimeMs);
+    }
+
+    /**
+     * Record a completed request without blocking.
+     * @return false if the buffer was full and the record was dropped
+     */
+    public boolean log(long timestampMillis, String method, String path, String clientIp, int status, float durationMs) {
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail > mask) {
+                dropped.increment();
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        timestamps[slot] = timestampMillis;
+        methods[slot] = method;
+        paths[slot] = path;
+        clientIps[slot] = clientIp;
+        statuses[slot] = status;
+        durationsMs[slot] = durationMs;
+        // Publishing the sequence makes the slot's fields visible to the writer
+        published.setRelease(slot, sequence);
+        return true;
+    }
+
+    /**
+     * @return counts of records written to the file and dropped because the buffer was full
+     */
+    public Map<String, Object> stats() {
+        return Map.of(
+            "written", written.sum(),
+            "dropped", dropped.sum(),
+            "buffered", head.get() - tail
+        );
+    }
+
+    /**
+     * Stop accepting records, write what is already buffered and close the file.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        StringBuilder batch = new StringBuilder(8192);
+        while (true) {
+            boolean stopping = !running;
+            int count = drainInto(batch);
+            if (count > 0) {
+                writeBatch(batch, count);
+                batch.setLength(0);
+            } else if (stopping) {
+                break;
+            } else {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+        closeWriter();
+    }
+
+    /**
+     * Format every published record into the batch and free its slot.
+     * @return number of records formatted
+     */
+    private int drainInto(StringBuilder batch) {
+        long next = tail;
+        int count = 0;
+        while (published.getAcquire((int) next & mask) == next) {
+            int slot = (int) next & mask;
+            TIMESTAMP_FORMAT.formatTo(Instant.ofEpochMilli(timestamps[slot]), batch);
+            batch.append(' ').append(clientIps[slot])
+                .append(' ').append(methods[slot])
+                .append(' ').append(paths[slot])
+                .append(' ').append(statuses[slot])
+                .append(' ').append(Math.round(durationsMs[slot] * 1000) / 1000.0).append("ms\n");
+            methods[slot] = null;
+            paths[slot] = null;
+            clientIps[slot] = null;
+            next++;
+            tail = next;
+            count++;
+        }
+        return count;
+    }
+
+    private void writeBatch(StringBuilder batch, int count) {
+        try {
+            if (writer == null || fileBytes >= maxFileBytes) {
+                rotate();
+            }
+            writer.append(batch);
+            writer.flush();
+            fileBytes += batch.length();
+            written.add(count);
+        } catch (IOException e) {
+            // Logging must never take the server down; count the batch as lost and reopen next time
+            System.err.println("Access log write failed: " + e.getMessage());
+            dropped.add(count);
+            closeWriter();
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeWriter();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.exists(file) && Files.size(file) >= maxFileBytes) {
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path older = rotated(i);
+                if (Files.exists(older)) {
+                    Files.move(older, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (maxFiles > 0) {
+                Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(file);
+            }
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = Files.size(file);
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Access log close failed: " + e.getMessage());
+            }
+            writer = null;
+        }
+    }
+}
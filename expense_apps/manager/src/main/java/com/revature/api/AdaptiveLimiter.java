@@ -0,0 +1,155 @@
+package com.revature.api;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for one class of requests, adjusted to observed latency.
+ * A few requests over the limit may wait briefly for a slot; the rest are rejected at once
+ * so the caller can fail fast. Waiting requests hold a server thread, so the queue is
+ * capped at {@value #MAX_QUEUED} and meant for smoothing short bursts, not for absorbing
+ * overload. The limit follows AIMD: it grows by about one for every limit's worth of
+ * requests that finish within the target latency while the limit is in use, and shrinks
+ * by a quarter, at most once per target interval, when requests take longer than the
+ * target.
+ */
+public class AdaptiveLimiter {
+    /** Most requests that may wait for a slot, since each one parks a request thread. */
+    public static final int MAX_QUEUED = 8;
+    private static final double DECREASE_FACTOR = 0.75;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final long targetLatencyNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long lastDecreaseNanos;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param initialLimit concurrency limit to start with
+     * @param minLimit the limit never drops below this
+     * @param maxLimit the limit never grows above this
+     * @param maxQueued maximum number of requests waiting for a slot, at most {@value #MAX_QUEUED}
+     * @param maxWaitMillis how long a queued request waits before it is rejected
+     * @param targetLatencyMillis requests slower than this shrink the limit
+     */
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueued,
+                           long maxWaitMillis, long targetLatencyMillis) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (maxQueued < 0 || maxQueued > MAX_QUEUED) {
+            throw new IllegalArgumentException("maxQueued must be between 0 and " + MAX_QUEUED);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.lastDecreaseNanos = System.nanoTime() - targetLatencyNanos;
+    }
+
+    /**
+     * Take a slot, waiting in the queue if all slots are taken.
+     * @return true if admitted, in which case {@link #release(long)} must be called once the
+     *         request finishes; false if the queue was full or the wait ran out
+     */
+    public boolean acquire() {
+        lock.lock();
+        try {
+            // Newcomers go behind requests already waiting
+            if (queued == 0 && inFlight < currentLimit()) {
+                return admit();
+            }
+            if (queued >= maxQueued) {
+                rejected.increment();
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        return false;
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                return admit();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.increment();
+                return false;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give back a slot and adjust the limit by how long the request took.
+     * @param latencyNanos time from admission to completion
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            boolean limitWasInUse = inFlight >= currentLimit();
+            inFlight--;
+            long now = System.nanoTime();
+            if (latencyNanos > targetLatencyNanos) {
+                if (now - lastDecreaseNanos >= targetLatencyNanos) {
+                    limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+                    lastDecreaseNanos = now;
+                }
+            } else if (limitWasInUse) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the current limit, requests in flight and waiting, and admitted and rejected counts
+     */
+    public Map<String, Object> stats() {
+        lock.lock();
+        try {
+            return Map.of(
+                "limit", currentLimit(),
+                "inFlight", inFlight,
+                "queued", queued,
+                "admitted", admitted.sum(),
+                "rejected", rejected.sum()
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean admit() {
+        inFlight++;
+        admitted.increment();
+        return true;
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+}
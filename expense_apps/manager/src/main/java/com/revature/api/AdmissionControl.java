@@ -0,0 +1,98 @@
+package com.revature.api;
+
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.Header;
+import io.javalin.http.HttpResponseException;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admission control for API requests.
+ * Reads, writes and CSV reports each get their own {@link AdaptiveLimiter}, so a burst
+ * of slow reports cannot take the threads and database time that approvals and list
+ * views need. A request whose class is saturated is rejected at once with 503 and
+ * Retry-After instead of piling up behind the others. Authentication endpoints are
+ * never limited.
+ */
+public class AdmissionControl {
+    private static final String ADMISSION_ATTRIBUTE = "admissionControl.admission";
+
+    /**
+     * Groups of routes that share a concurrency limit. AUTH is never admission limited;
+     * it only has per-IP rate limits, see {@link RateLimiter}.
+     */
+    public enum RouteClass {
+        READ, WRITE, REPORT, AUTH
+    }
+
+    private final Map<RouteClass, AdaptiveLimiter> limiters = new EnumMap<>(RouteClass.class);
+    private final int retryAfterSeconds;
+
+    /**
+     * @param read limiter for GET requests other than reports
+     * @param write limiter for approve, deny and bulk review requests
+     * @param report limiter for CSV report downloads
+     * @param retryAfterSeconds Retry-After sent with rejections
+     */
+    public AdmissionControl(AdaptiveLimiter read, AdaptiveLimiter write, AdaptiveLimiter report, int retryAfterSeconds) {
+        limiters.put(RouteClass.READ, read);
+        limiters.put(RouteClass.WRITE, write);
+        limiters.put(RouteClass.REPORT, report);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Before-handler: admit the request or reject it with 503 if its class is saturated.
+     */
+    public void admit(Context ctx) {
+        RouteClass routeClass = classify(ctx.method(), ctx.path());
+        if (routeClass == null) {
+            return;
+        }
+        AdaptiveLimiter limiter = limiters.get(routeClass);
+        if (!limiter.acquire()) {
+            ctx.header(Header.RETRY_AFTER, Integer.toString(retryAfterSeconds));
+            throw new HttpResponseException(503, "Server is busy, please retry shortly",
+                Map.of("routeClass", routeClass.name().toLowerCase()));
+        }
+        ctx.attribute(ADMISSION_ATTRIBUTE, new Admission(limiter, System.nanoTime()));
+    }
+
+    /**
+     * After-handler: free the request's slot, if it was admitted.
+     */
+    public void release(Context ctx) {
+        Admission admission = ctx.attribute(ADMISSION_ATTRIBUTE);
+        if (admission != null) {
+            ctx.attribute(ADMISSION_ATTRIBUTE, null);
+            admission.limiter().release(System.nanoTime() - admission.startNanos());
+        }
+    }
+
+    /**
+     * @return limiter figures per route class
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        limiters.forEach((routeClass, limiter) -> stats.put(routeClass.name().toLowerCase(), limiter.stats()));
+        return stats;
+    }
+
+    /**
+     * @return the class a request is limited under, or null if it is not limited
+     */
+    static RouteClass classify(HandlerType method, String path) {
+        if (method == HandlerType.OPTIONS || path.startsWith("/api/auth/")) {
+            return null;
+        }
+        if (path.startsWith("/api/reports/")) {
+            return RouteClass.REPORT;
+        }
+        return method == HandlerType.GET || method == HandlerType.HEAD ? RouteClass.READ : RouteClass.WRITE;
+    }
+
+    private record Admission(AdaptiveLimiter limiter, long startNanos) {}
+}
@@ -0,0 +1,94 @@
+package com.revature.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.revature.metrics.RequestTiming;
+import com.revature.metrics.TimingPhase;
+import io.javalin.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Javalin JSON mapper backed by one shared ObjectMapper with {@link ApiJsonModule} registered.
+ * Serializers are built once and reused for every response. Stream output is written as
+ * UTF-8 bytes directly, without an intermediate String.
+ */
+public class ApiJsonMapper implements JsonMapper {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new ApiJsonModule());
+    
+    private final ObjectWriter writer = OBJECT_MAPPER.writer();
+    
+    /**
+     * @return the shared, configured ObjectMapper used for API responses
+     */
+    public static ObjectMapper objectMapper() {
+        return OBJECT_MAPPER;
+    }
+    
+    @Override
+    public String toJsonString(Object obj, Type type) {
+        if (obj instanceof String text) {
+            return text;
+        }
+        long timing = RequestTiming.begin();
+        try {
+            return writer.writeValueAsString(obj);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            RequestTiming.end(TimingPhase.SERIALIZE, timing);
+        }
+    }
+    
+    @Override
+    public InputStream toJsonStream(Object obj, Type type) {
+        long timing = RequestTiming.begin();
+        try {
+            return new ByteArrayInputStream(writer.writeValueAsBytes(obj));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            RequestTiming.end(TimingPhase.SERIALIZE, timing);
+        }
+    }
+    
+    @Override
+    public void writeToOutputStream(Stream<?> stream, OutputStream outputStream) {
+        try (JsonGenerator gen = OBJECT_MAPPER.getFactory().createGenerator(outputStream)) {
+            gen.writeStartArray();
+            Iterator<?> items = stream.iterator();
+            while (items.hasNext()) {
+                gen.writeObject(items.next());
+            }
+            gen.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public <T> T fromJsonString(String json, Type targetType) {
+        try {
+            return OBJECT_MAPPER.readValue(json, OBJECT_MAPPER.constructType(targetType));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public <T> T fromJsonStream(InputStream json, Type targetType) {
+        try {
+            return OBJECT_MAPPER.readValue(json, OBJECT_MAPPER.constructType(targetType));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.revature.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.revature.repository.Approval;
+import com.revature.repository.Expense;
+import com.revature.repository.ExpenseWithUser;
+import com.revature.repository.User;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written serializers for the API models and response envelopes.
+ * They write exactly the JSON that bean introspection produces for these classes (same
+ * property names and order), but as straight-line generator calls with pre-encoded field
+ * names, so no getters are discovered or invoked reflectively. ExpenseWithUser writes its
+ * parts directly, and envelopes write lists of them directly, rather than looking up a
+ * serializer for each value.
+ */
+public class ApiJsonModule extends SimpleModule {
+    // Field names are quoted and encoded once, not on every write
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USER_ID = new SerializedString("userId");
+    private static final SerializedString AMOUNT = new SerializedString("amount");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString DATE = new SerializedString("date");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString PASSWORD = new SerializedString("password");
+    private static final SerializedString ROLE = new SerializedString("role");
+    private static final SerializedString MANAGER = new SerializedString("manager");
+    private static final SerializedString EXPENSE_ID = new SerializedString("expenseId");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString REVIEWER = new SerializedString("reviewer");
+    private static final SerializedString COMMENT = new SerializedString("comment");
+    private static final SerializedString REVIEW_DATE = new SerializedString("reviewDate");
+    private static final SerializedString PENDING = new SerializedString("pending");
+    private static final SerializedString EXPENSE = new SerializedString("expense");
+    private static final SerializedString USER = new SerializedString("user");
+    private static final SerializedString APPROVAL = new SerializedString("approval");
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ApiJsonModule() {
+        super("ApiJsonModule");
+        addSerializer(Expense.class, new ExpenseSerializer());
+        addSerializer(User.class, new UserSerializer());
+        addSerializer(Approval.class, new ApprovalSerializer());
+        addSerializer(ExpenseWithUser.class, new ExpenseWithUserSerializer());
+        addSerializer((Class) Map.class, new EnvelopeSerializer());
+    }
+    
+    static void writeExpense(JsonGenerator gen, Expense expense) throws IOException {
+        if (expense == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeNumber(expense.getId());
+        gen.writeFieldName(USER_ID);
+        gen.writeNumber(expense.getUserId());
+        gen.writeFieldName(AMOUNT);
+        gen.writeNumber(expense.getAmount());
+        gen.writeFieldName(DESCRIPTION);
+        gen.writeString(expense.getDescription());
+        gen.writeFieldName(DATE);
+        gen.writeString(expense.getDate());
+        gen.writeEndObject();
+    }
+    
+    static void writeUser(JsonGenerator gen, User user) throws IOException {
+        if (user == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeNumber(user.getId());
+        gen.writeFieldName(USERNAME);
+        gen.writeString(user.getUsername());
+        gen.writeFieldName(PASSWORD);
+        gen.writeString(user.getPassword());
+        gen.writeFieldName(ROLE);
+        gen.writeString(user.getRole());
+        gen.writeFieldName(MANAGER);
+        gen.writeBoolean(user.isManager());
+        gen.writeEndObject();
+    }
+    
+    static void writeApproval(JsonGenerator gen, Approval approval) throws IOException {
+        if (approval == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeNumber(approval.getId());
+        gen.writeFieldName(EXPENSE_ID);
+        gen.writeNumber(approval.getExpenseId());
+        gen.writeFieldName(STATUS);
+        gen.writeString(approval.getStatus());
+        gen.writeFieldName(REVIEWER);
+        if (approval.getReviewer() != null) {
+            gen.writeNumber(approval.getReviewer());
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(COMMENT);
+        gen.writeString(approval.getComment());
+        gen.writeFieldName(REVIEW_DATE);
+        gen.writeString(approval.getReviewDate());
+        gen.writeFieldName(PENDING);
+        gen.writeBoolean(approval.isPending());
+        gen.writeEndObject();
+    }
+    
+    static void writeExpenseWithUser(JsonGenerator gen, ExpenseWithUser value) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(EXPENSE);
+        writeExpense(gen, value.getExpense());
+        gen.writeFieldName(USER);
+        writeUser(gen, value.getUser());
+        gen.writeFieldName(APPROVAL);
+        writeApproval(gen, value.getApproval());
+        gen.writeEndObject();
+    }
+    
+    static final class ExpenseSerializer extends StdSerializer<Expense> {
+        ExpenseSerializer() {
+            super(Expense.class);
+        }
+        
+        @Override
+        public void serialize(Expense expense, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeExpense(gen, expense);
+        }
+    }
+    
+    static final class UserSerializer extends StdSerializer<User> {
+        UserSerializer() {
+            super(User.class);
+        }
+        
+        @Override
+        public void serialize(User user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeUser(gen, user);
+        }
+    }
+    
+    static final class ApprovalSerializer extends StdSerializer<Approval> {
+        ApprovalSerializer() {
+            super(Approval.class);
+        }
+        
+        @Override
+        public void serialize(Approval approval, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeApproval(gen, approval);
+        }
+    }
+    
+    static final class ExpenseWithUserSerializer extends StdSerializer<ExpenseWithUser> {
+        ExpenseWithUserSerializer() {
+            super(ExpenseWithUser.class);
+        }
+        
+        @Override
+        public void serialize(ExpenseWithUser value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeExpenseWithUser(gen, value);
+        }
+    }
+    
+    /**
+     * Writes the {@code Map.of("success", ..., "data", ..., ...)} response envelopes, and any
+     * other map, in iteration order. Common scalar values are written inline; everything else
+     * goes through the provider's cached serializers.
+     */
+    static final class EnvelopeSerializer extends StdSerializer<Map<?, ?>> {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        EnvelopeSerializer() {
+            super((Class) Map.class);
+        }
+        
+        @Override
+        public boolean isEmpty(SerializerProvider provider, Map<?, ?> value) {
+            return value.isEmpty();
+        }
+        
+        @Override
+        public void serialize(Map<?, ?> map, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(map);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                gen.writeFieldName(String.valueOf(entry.getKey()));
+                Object value = entry.getValue();
+                if (value == null) {
+                    gen.writeNull();
+                } else if (value instanceof String text) {
+                    gen.writeString(text);
+                } else if (value instanceof Boolean flag) {
+                    gen.writeBoolean(flag);
+                } else if (value instanceof Integer number) {
+                    gen.writeNumber(number);
+                } else if (value instanceof List<?> list) {
+                    writeList(gen, list, provider);
+                } else {
+                    provider.defaultSerializeValue(value, gen);
+                }
+            }
+            gen.writeEndObject();
+        }
+        
+        private void writeList(JsonGenerator gen, List<?> list, SerializerProvider provider) throws IOException {
+            gen.writeStartArray(list, list.size());
+            for (Object item : list) {
+                if (item instanceof ExpenseWithUser expense) {
+                    writeExpenseWithUser(gen, expense);
+                } else {
+                    provider.defaultSerializeValue(item, gen);
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+}
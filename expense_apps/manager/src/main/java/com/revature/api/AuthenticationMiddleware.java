@@ -1,5 +1,7 @@
 package com.revature.api;
 
+import com.revature.metrics.RequestTiming;
+import com.revature.metrics.TimingPhase;
 import com.revature.repository.User;
 import com.revature.service.AuthenticationService;
 import io.javalin.http.Context;
@@ -29,16 +31,22 @@ public class AuthenticationMiddleware {
         return ctx -> {
             String jwtToken = ctx.cookie("jwt");
             
-            Optional<User> managerOpt = authenticationService.validateManagerAuthentication(jwtToken);
-            
-            if (managerOpt.isEmpty()) {
-                // Check if user is authenticated but not a manager
-                Optional<User> userOpt = authenticationService.validateJwtToken(jwtToken);
-                if (userOpt.isPresent()) {
-                    throw new ForbiddenResponse("Access denied - managers only");
-                } else {
-                    throw new UnauthorizedResponse("Authentication required");
+            long timing = RequestTiming.begin();
+            Optional<User> managerOpt;
+            try {
+                managerOpt = authenticationService.validateManagerAuthentication(jwtToken);
+                
+                if (managerOpt.isEmpty()) {
+                    // Check if user is authenticated but not a manager
+                    Optional<User> userOpt = authenticationService.validateJwtToken(jwtToken);
+                    if (userOpt.isPresent()) {
+                        throw new ForbiddenResponse("Access denied - managers only");
+                    } else {
+                        throw new UnauthorizedResponse("Authentication required");
+                    }
                 }
+            } finally {
+                RequestTiming.end(TimingPhase.AUTH, timing);
             }
             
             // Store the authenticated manager in the context for use in handlers
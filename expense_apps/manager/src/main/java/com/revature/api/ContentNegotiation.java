@@ -0,0 +1,133 @@
+package com.revature.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.revature.metrics.RequestTiming;
+import com.revature.metrics.TimingPhase;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+
+/**
+ * Accept-header content negotiation for the expense list endpoints.
+ * Browsers and manager.js keep getting JSON; machine clients that ask for CBOR
+ * ({@value #CBOR}) or Smile ({@value #SMILE}) get the same document in that binary
+ * format, written by Jackson with the same serializers.
+ */
+final class ContentNegotiation {
+    static final String JSON = "application/json";
+    static final String CBOR = "application/cbor";
+    static final String SMILE = "application/x-jackson-smile";
+    
+    private static final ObjectMapper CBOR_MAPPER = CBORMapper.builder().addModule(new ApiJsonModule()).build();
+    private static final ObjectMapper SMILE_MAPPER = SmileMapper.builder().addModule(new ApiJsonModule()).build();
+    
+    private ContentNegotiation() {}
+    
+    /**
+     * Send a response body in the format the client prefers.
+     * JSON goes through {@link Context#json(Object)} as before.
+     * @param ctx the request context
+     * @param body the response body
+     */
+    static void respond(Context ctx, Object body) {
+        ctx.header(Header.VARY, Header.ACCEPT);
+        ObjectMapper mapper = binaryMapper(ctx);
+        if (mapper == null) {
+            ctx.json(body);
+            return;
+        }
+        ctx.contentType(preferredType(ctx.header(Header.ACCEPT)));
+        ctx.result(encode(mapper, body));
+    }
+    
+    /**
+     * Encode a response body in the given format.
+     * @param contentType one of {@value #JSON}, {@value #CBOR} or {@value #SMILE}
+     * @param body the response body
+     * @return the encoded body
+     */
+    static byte[] encode(String contentType, Object body) {
+        ObjectMapper mapper = switch (contentType) {
+            case CBOR -> CBOR_MAPPER;
+            case SMILE -> SMILE_MAPPER;
+            default -> ApiJsonMapper.objectMapper();
+        };
+        return encode(mapper, body);
+    }
+    
+    private static byte[] encode(ObjectMapper mapper, Object body) {
+        long timing = RequestTiming.begin();
+        try {
+            return mapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode response", e);
+        } finally {
+            RequestTiming.end(TimingPhase.SERIALIZE, timing);
+        }
+    }
+    
+    /**
+     * @return the generator factory for the client's preferred format
+     */
+    static JsonFactory factory(Context ctx) {
+        ObjectMapper mapper = binaryMapper(ctx);
+        return mapper != null ? mapper.getFactory() : ApiJsonMapper.objectMapper().getFactory();
+    }
+    
+    /**
+     * @return the media type to send back: {@value #JSON}, {@value #CBOR} or {@value #SMILE}
+     */
+    static String contentType(Context ctx) {
+        return preferredType(ctx.header(Header.ACCEPT));
+    }
+    
+    private static ObjectMapper binaryMapper(Context ctx) {
+        return switch (preferredType(ctx.header(Header.ACCEPT))) {
+            case CBOR -> CBOR_MAPPER;
+            case SMILE -> SMILE_MAPPER;
+            default -> null;
+        };
+    }
+    
+    /**
+     * Pick the supported media type with the highest q-value in an Accept header.
+     * JSON wins ties and is the default when nothing supported is listed.
+     * @param accept the Accept header, may be null
+     * @return one of {@value #JSON}, {@value #CBOR}, {@value #SMILE}
+     */
+    static String preferredType(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        String best = JSON;
+        double bestQuality = 0;
+        for (String range : accept.split(",")) {
+            String[] parts = range.split(";");
+            String type = parts[0].trim().toLowerCase();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            String supported = switch (type) {
+                case CBOR, SMILE -> type;
+                case JSON, "application/*", "*/*" -> JSON;
+                default -> null;
+            };
+            if (supported != null && (quality > bestQuality || (quality == bestQuality && supported.equals(JSON)))) {
+                best = supported;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+}
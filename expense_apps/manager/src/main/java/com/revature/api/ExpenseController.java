@@ -1,41 +1,187 @@
 package com.revature.api;
 
+import com.revature.repository.ApprovalDecision;
+import com.revature.repository.ApprovalStatus;
+import com.revature.repository.ExpenseField;
+import com.revature.repository.ExpensePeriodTotal;
+import com.revature.repository.ExpenseProjection;
+import com.revature.repository.ExpenseQuery;
+import com.revature.repository.ExpenseRow;
+import com.revature.repository.ExpenseSummary;
 import com.revature.repository.ExpenseWithUser;
+import com.revature.repository.IdempotentResponse;
 import com.revature.repository.User;
+import com.revature.service.ApprovalConflictException;
+import com.revature.service.BulkReviewResult;
+import com.revature.service.ExpensePeriod;
 import com.revature.service.ExpenseService;
+import io.javalin.http.ContentType;
 import io.javalin.http.Context;
 import io.javalin.http.BadRequestResponse;
+import io.javalin.http.ConflictResponse;
+import io.javalin.http.HttpResponseException;
 import io.javalin.http.NotFoundResponse;
 import io.javalin.http.InternalServerErrorResponse;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * REST controller for expense management operations.
  * Handles expense approval, denial, and viewing operations for managers.
  */
 public class ExpenseController {
+    private static final int MAX_BULK_ITEMS = 1000;
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
     private final ExpenseService expenseService;
+    private final IdempotencyStore idempotencyStore;
+    private final ResponseCache responseCache;
     
     public ExpenseController(ExpenseService expenseService) {
+        this(expenseService, null);
+    }
+    
+    /**
+     * @param idempotencyStore optional replay store for Idempotency-Key support on approve/deny;
+     *                         when null the header is ignored
+     */
+    public ExpenseController(ExpenseService expenseService, IdempotencyStore idempotencyStore) {
+        this(expenseService, idempotencyStore, null);
+    }
+    
+    /**
+     * @param responseCache optional cache of encoded expense list responses;
+     *                      when null every list request is queried and serialized
+     */
+    public ExpenseController(ExpenseService expenseService, IdempotencyStore idempotencyStore,
+                             ResponseCache responseCache) {
         this.expenseService = expenseService;
+        this.idempotencyStore = idempotencyStore;
+        this.responseCache = responseCache;
     }
     
     /**
      * Get all pending expenses for manager review.
-     * GET /api/expenses/pending
+     * GET /api/expenses/pending?fields=
+     * Responds in JSON, or CBOR/Smile when the Accept header asks for it.
      */
     public void getPendingExpenses(Context ctx) {
+        Set<ExpenseField> fields = ExpenseQueryParams.parseFields(ctx);
         try {
-            List<ExpenseWithUser> pendingExpenses = expenseService.getPendingExpenses();
+            respondCacheable(ctx, () -> {
+                if (fields != null) {
+                    ExpenseQuery query = new ExpenseQuery();
+                    query.setStatus(ApprovalStatus.PENDING.getValue());
+                    return projectionBody(query, fields);
+                }
+                List<ExpenseWithUser> pendingExpenses = expenseService.getPendingExpenses();
+                return Map.of(
+                    "success", true,
+                    "data", pendingExpenses,
+                    "count", pendingExpenses.size()
+                );
+            });
+        } catch (Exception e) {
+            throw new InternalServerErrorResponse("Failed to retrieve pending expenses: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Search expenses by any combination of filters.
+     * GET /api/expenses/search?employeeId=&status=&startDate=&endDate=&minAmount=&maxAmount=&category=&sort=&order=&limit=&fields=&stream=
+     * Responds in JSON, or CBOR/Smile when the Accept header asks for it.
+     */
+    public void searchExpenses(Context ctx) {
+        ExpenseQuery query = ExpenseQueryParams.parse(ctx);
+        Set<ExpenseField> fields = ExpenseQueryParams.parseFields(ctx);
+        if (ExpenseQueryParams.parseStream(ctx)) {
+            ExpenseJsonStream.write(ctx, expenseService, query, fields);
+            return;
+        }
+        try {
+            respondCacheable(ctx, () -> {
+                if (fields != null) {
+                    return projectionBody(query, fields);
+                }
+                List<ExpenseRow> expenses = expenseService.searchExpenseRows(query);
+                return Map.of(
+                    "success", true,
+                    "data", expenses,
+                    "count", expenses.size()
+                );
+            });
+        } catch (Exception e) {
+            throw new InternalServerErrorResponse("Failed to search expenses: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get dashboard summary: pending count and total, per-status counts and totals, and per-employee totals.
+     * GET /api/expenses/summary
+     */
+    public void getExpenseSummary(Context ctx) {
+        try {
+            ExpenseSummary summary = expenseService.getExpenseSummary();
             ctx.json(Map.of(
                 "success", true,
-                "data", pendingExpenses,
-                "count", pendingExpenses.size()
+                "data", summary
             ));
         } catch (Exception e) {
-            throw new InternalServerErrorResponse("Failed to retrieve pending expenses: " + e.getMessage());
+            throw new InternalServerErrorResponse("Failed to retrieve expense summary: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get expense counts and totals per day, week (starting Monday) or month within a date range.
+     * GET /api/expenses/totals?startDate=YYYY-MM-DD&endDate=YYYY-MM-DD&period=day|week|month
+     * The period defaults to day.
+     */
+    public void getExpenseTotalsByPeriod(Context ctx) {
+        String startDateStr = ctx.queryParam("startDate");
+        String endDateStr = ctx.queryParam("endDate");
+        String periodStr = ctx.queryParam("period");
+        
+        if (startDateStr == null || endDateStr == null) {
+            throw new BadRequestResponse("Both startDate and endDate query parameters are required (format: YYYY-MM-DD)");
+        }
+        
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            startDate = LocalDate.parse(startDateStr);
+            endDate = LocalDate.parse(endDateStr);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestResponse("Invalid date format. Use YYYY-MM-DD format");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new BadRequestResponse("startDate must not be after endDate");
+        }
+        
+        ExpensePeriod period;
+        try {
+            period = periodStr == null ? ExpensePeriod.DAY : ExpensePeriod.fromString(periodStr);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestResponse("Invalid period. Use day, week or month");
+        }
+        
+        try {
+            List<ExpensePeriodTotal> totals = expenseService.getExpenseTotalsByPeriod(startDate, endDate, period);
+            ctx.json(Map.of(
+                "success", true,
+                "data", totals,
+                "count", totals.size()
+            ));
+        } catch (Exception e) {
+            throw new InternalServerErrorResponse("Failed to retrieve expense totals: " + e.getMessage());
         }
     }
     
@@ -43,8 +189,14 @@ public class ExpenseController {
      * Approve an expense.
      * POST /api/expenses/{expenseId}/approve
      * Request body: { "comment": "optional comment" }
+     * Responds 409 if the expense has already been reviewed.
+     * Retries carrying the same Idempotency-Key header replay the original response.
      */
     public void approveExpense(Context ctx) {
+        handleIdempotently(ctx, "approve", this::applyApproval);
+    }
+    
+    private void applyApproval(Context ctx) {
         try {
             int expenseId = ctx.pathParamAsClass("expenseId", Integer.class).get();
             User manager = AuthenticationMiddleware.getAuthenticatedManager(ctx);
@@ -71,6 +223,8 @@ public class ExpenseController {
             
         } catch (NumberFormatException e) {
             throw new BadRequestResponse("Invalid expense ID format");
+        } catch (ApprovalConflictException e) {
+            throw new ConflictResponse(e.getMessage());
         } catch (Exception e) {
             if (e instanceof NotFoundResponse) {
                 throw e;
@@ -83,8 +237,14 @@ public class ExpenseController {
      * Deny an expense.
      * POST /api/expenses/{expenseId}/deny
      * Request body: { "comment": "optional comment" }
+     * Responds 409 if the expense has already been reviewed.
+     * Retries carrying the same Idempotency-Key header replay the original response.
      */
     public void denyExpense(Context ctx) {
+        handleIdempotently(ctx, "deny", this::applyDenial);
+    }
+    
+    private void applyDenial(Context ctx) {
         try {
             int expenseId = ctx.pathParamAsClass("expenseId", Integer.class).get();
             User manager = AuthenticationMiddleware.getAuthenticatedManager(ctx);
@@ -111,6 +271,8 @@ public class ExpenseController {
             
         } catch (NumberFormatException e) {
             throw new BadRequestResponse("Invalid expense ID format");
+        } catch (ApprovalConflictException e) {
+            throw new ConflictResponse(e.getMessage());
         } catch (Exception e) {
             if (e instanceof NotFoundResponse) {
                 throw e;
@@ -120,17 +282,118 @@ public class ExpenseController {
     }
     
     /**
-     * Get all expenses (for general viewing).
-     * GET /api/expenses
+     * Run a review handler with Idempotency-Key semantics.
+     * The first request with a key runs the handler and stores its outcome (success or client
+     * error); retries with the same key get the stored outcome back without touching the
+     * approvals table. Keys are scoped to the manager, action and expense.
      */
-    public void getAllExpenses(Context ctx) {
+    private void handleIdempotently(Context ctx, String action, Consumer<Context> handler) {
+        String idempotencyKey = idempotencyStore == null ? null : ctx.header(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            handler.accept(ctx);
+            return;
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BadRequestResponse(IDEMPOTENCY_KEY_HEADER + " must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        
+        User manager = AuthenticationMiddleware.getAuthenticatedManager(ctx);
+        String scopedKey = manager.getId() + ":" + action + ":" + ctx.pathParam("expenseId") + ":" + idempotencyKey;
+        
+        Optional<IdempotentResponse> previous = idempotencyStore.find(scopedKey);
+        if (previous.isPresent()) {
+            replay(ctx, previous.get());
+            return;
+        }
+        
+        if (!idempotencyStore.tryBegin(scopedKey)) {
+            throw new ConflictResponse("A request with this " + IDEMPOTENCY_KEY_HEADER + " is already in progress");
+        }
+        try {
+            handler.accept(ctx);
+            idempotencyStore.save(scopedKey, new IdempotentResponse(ctx.statusCode(), ctx.result()));
+        } catch (HttpResponseException e) {
+            // Client errors are final outcomes worth replaying; server errors may succeed on retry
+            if (e.getStatus() < 500) {
+                idempotencyStore.save(scopedKey, new IdempotentResponse(e.getStatus(), e.getMessage()));
+            }
+            throw e;
+        } finally {
+            idempotencyStore.end(scopedKey);
+        }
+    }
+    
+    private void replay(Context ctx, IdempotentResponse response) {
+        ctx.header("Idempotent-Replayed", "true");
+        if (response.isError()) {
+            throw new HttpResponseException(response.getStatusCode(), response.getBody());
+        }
+        ctx.status(response.getStatusCode());
+        ctx.contentType(ContentType.APPLICATION_JSON);
+        ctx.result(response.getBody());
+    }
+    
+    /**
+     * Approve or deny many expenses in a single transaction.
+     * POST /api/expenses/bulk
+     * Request body: [ { "expenseId": 1, "decision": "approve", "comment": "optional comment" }, ... ]
+     */
+    public void bulkReviewExpenses(Context ctx) {
+        ApprovalDecision[] decisions;
+        try {
+            decisions = ctx.bodyAsClass(ApprovalDecision[].class);
+        } catch (Exception e) {
+            throw new BadRequestResponse("Request body must be a list of { expenseId, decision, comment } items");
+        }
+        
+        if (decisions == null || decisions.length == 0) {
+            throw new BadRequestResponse("At least one decision is required");
+        }
+        if (decisions.length > MAX_BULK_ITEMS) {
+            throw new BadRequestResponse("A bulk request may contain at most " + MAX_BULK_ITEMS + " decisions");
+        }
+        
         try {
-            List<ExpenseWithUser> allExpenses = expenseService.getAllExpenses();
+            User manager = AuthenticationMiddleware.getAuthenticatedManager(ctx);
+            List<BulkReviewResult> results = expenseService.bulkReviewExpenses(Arrays.asList(decisions), manager.getId());
+            long succeeded = results.stream().filter(BulkReviewResult::isSuccess).count();
+            
             ctx.json(Map.of(
                 "success", true,
-                "data", allExpenses,
-                "count", allExpenses.size()
+                "data", results,
+                "count", results.size(),
+                "succeeded", succeeded,
+                "failed", results.size() - succeeded
             ));
+            
+        } catch (Exception e) {
+            throw new InternalServerErrorResponse("Failed to review expenses: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get all expenses (for general viewing).
+     * GET /api/expenses?fields=&stream=
+     * Responds in JSON, or CBOR/Smile when the Accept header asks for it.
+     */
+    public void getAllExpenses(Context ctx) {
+        Set<ExpenseField> fields = ExpenseQueryParams.parseFields(ctx);
+        if (ExpenseQueryParams.parseStream(ctx)) {
+            ExpenseJsonStream.write(ctx, expenseService, new ExpenseQuery(), fields);
+            return;
+        }
+        try {
+            respondCacheable(ctx, () -> {
+                if (fields != null) {
+                    return projectionBody(new ExpenseQuery(), fields);
+                }
+                List<ExpenseWithUser> allExpenses = expenseService.getAllExpenses();
+                return Map.of(
+                    "success", true,
+                    "data", allExpenses,
+                    "count", allExpenses.size()
+                );
+            });
         } catch (Exception e) {
             throw new InternalServerErrorResponse("Failed to retrieve expenses: " + e.getMessage());
         }
@@ -138,19 +401,33 @@ public class ExpenseController {
     
     /**
      * Get expenses for a specific employee.
-     * GET /api/expenses/employee/{employeeId}
+     * GET /api/expenses/employee/{employeeId}?fields=
+     * Responds in JSON, or CBOR/Smile when the Accept header asks for it.
      */
     public void getExpensesByEmployee(Context ctx) {
+        Set<ExpenseField> fields = ExpenseQueryParams.parseFields(ctx);
         try {
             int employeeId = ctx.pathParamAsClass("employeeId", Integer.class).get();
-            List<ExpenseWithUser> expenses = expenseService.getExpensesByEmployee(employeeId);
-            
-            ctx.json(Map.of(
-                "success", true,
-                "data", expenses,
-                "count", expenses.size(),
-                "employeeId", employeeId
-            ));
+            respondCacheable(ctx, () -> {
+                if (fields != null) {
+                    ExpenseQuery query = new ExpenseQuery();
+                    query.setEmployeeId(employeeId);
+                    ExpenseProjection expenses = expenseService.searchExpenseProjection(query, fields);
+                    return Map.of(
+                        "success", true,
+                        "data", expenses,
+                        "count", expenses.size(),
+                        "employeeId", employeeId
+                    );
+                }
+                List<ExpenseWithUser> expenses = expenseService.getExpensesByEmployee(employeeId);
+                return Map.of(
+                    "success", true,
+                    "data", expenses,
+                    "count", expenses.size(),
+                    "employeeId", employeeId
+                );
+            });
             
         } catch (NumberFormatException e) {
             throw new BadRequestResponse("Invalid employee ID format");
@@ -158,4 +435,41 @@ public class ExpenseController {
             throw new InternalServerErrorResponse("Failed to retrieve expenses for employee: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Response body with only the requested fields of the expenses matching a query,
+     * as a flat object per expense.
+     */
+    private Map<String, Object> projectionBody(ExpenseQuery query, Set<ExpenseField> fields) {
+        ExpenseProjection expenses = expenseService.searchExpenseProjection(query, fields);
+        return Map.of(
+            "success", true,
+            "data", expenses,
+            "count", expenses.size()
+        );
+    }
+    
+    /**
+     * Respond with a list body, served from the response cache while the database change
+     * token is unchanged. The token is read before the body is built, so a write racing with
+     * the query can only make the cached entry look older than it is, never newer. The
+     * service keeps the token for up to a second, so a hit needs no database access.
+     * Without a cache, or on a schema without change tracking, the body is built every time.
+     */
+    private void respondCacheable(Context ctx, Supplier<Map<String, Object>> body) {
+        long changeToken = responseCache != null ? expenseService.getChangeToken() : -1;
+        if (changeToken < 0) {
+            ContentNegotiation.respond(ctx, body.get());
+            return;
+        }
+        String contentType = ContentNegotiation.contentType(ctx);
+        String queryString = ctx.queryString();
+        String key = contentType + " " + ctx.path() + (queryString != null ? "?" + queryString : "");
+        ResponseCache.Body cached = responseCache.find(key, changeToken);
+        ctx.header(CACHE_STATUS_HEADER, cached != null ? "HIT" : "MISS");
+        if (cached == null) {
+            cached = responseCache.store(key, changeToken, contentType, ContentNegotiation.encode(contentType, body.get()));
+        }
+        ResponseCache.write(ctx, cached);
+    }
+}
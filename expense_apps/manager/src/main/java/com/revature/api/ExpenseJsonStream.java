@@ -0,0 +1,69 @@
+package com.revature.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.revature.metrics.RequestTiming;
+import com.revature.metrics.TimingPhase;
+import com.revature.repository.ExpenseField;
+import com.revature.repository.ExpenseProjectionJsonSerializer;
+import com.revature.repository.ExpenseQuery;
+import com.revature.service.ExpenseService;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+
+/**
+ * Writes an expense list response with {@code stream=true}: the same
+ * {@code {"success":true,"data":[...],"count":n}} envelope as the buffered endpoints,
+ * but each row is written to the response as soon as it is read from the database
+ * cursor, so neither the list nor the JSON document is held in memory. Because the row
+ * count is only known at the end, {@code count} comes after {@code data}.
+ */
+final class ExpenseJsonStream {
+    private ExpenseJsonStream() {}
+    
+    /**
+     * Stream the expenses matching a query as the response body.
+     * @param ctx the request context
+     * @param expenseService service supplying the rows
+     * @param query the search criteria
+     * @param fields the fields to write as flat objects, or null for the full nested shape
+     * @throws UncheckedIOException if writing to the client fails
+     */
+    static void write(Context ctx, ExpenseService expenseService, ExpenseQuery query, Set<ExpenseField> fields) {
+        ctx.contentType(ContentNegotiation.contentType(ctx));
+        ctx.header(Header.VARY, Header.ACCEPT);
+        try {
+            JsonGenerator gen = ContentNegotiation.factory(ctx).createGenerator(ctx.outputStream());
+            gen.writeStartObject();
+            gen.writeBooleanField("success", true);
+            gen.writeArrayFieldStart("data");
+            
+            int count = expenseService.streamExpenseRows(query, fields, row -> {
+                long timing = RequestTiming.begin();
+                try {
+                    if (fields == null) {
+                        gen.writeObject(row);
+                    } else {
+                        ExpenseProjectionJsonSerializer.writeRow(gen, fields, row);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    RequestTiming.end(TimingPhase.SERIALIZE, timing);
+                }
+            });
+            
+            gen.writeEndArray();
+            gen.writeNumberField("count", count);
+            gen.writeEndObject();
+            // Only closed on success: after a failure the unflushed buffer is dropped, so an
+            // error before the first flush can still be answered with a proper error response
+            gen.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
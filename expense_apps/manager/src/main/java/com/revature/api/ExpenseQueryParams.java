@@ -0,0 +1,165 @@
+package com.revature.api;
+
+import com.revature.repository.ApprovalStatus;
+import com.revature.repository.ExpenseField;
+import com.revature.repository.ExpenseQuery;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.Context;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Parses and validates expense search query parameters shared by the search endpoint
+ * and the search CSV report:
+ * employeeId, status, startDate, endDate, minAmount, maxAmount, category, sort, order, limit.
+ * Also parses the {@code fields} and {@code stream} parameters accepted by the expense list endpoints.
+ */
+final class ExpenseQueryParams {
+    static final int MAX_LIMIT = 10_000;
+    
+    private ExpenseQueryParams() {}
+    
+    /**
+     * Build an ExpenseQuery from the request's query parameters.
+     * @param ctx the request context
+     * @return the parsed query
+     * @throws BadRequestResponse if any parameter is malformed
+     */
+    static ExpenseQuery parse(Context ctx) {
+        ExpenseQuery query = new ExpenseQuery();
+        
+        query.setEmployeeId(parseInteger(ctx, "employeeId"));
+        
+        String status = blankToNull(ctx.queryParam("status"));
+        if (status != null && ApprovalStatus.fromValue(status) == null) {
+            throw new BadRequestResponse("status must be one of " + Arrays.toString(ApprovalStatus.values()));
+        }
+        query.setStatus(status);
+        
+        query.setStartDate(parseDate(ctx, "startDate"));
+        query.setEndDate(parseDate(ctx, "endDate"));
+        query.setMinAmount(parseDouble(ctx, "minAmount"));
+        query.setMaxAmount(parseDouble(ctx, "maxAmount"));
+        query.setCategory(blankToNull(ctx.queryParam("category")));
+        
+        String sort = blankToNull(ctx.queryParam("sort"));
+        if (sort != null) {
+            if (!ExpenseQuery.SORT_FIELDS.contains(sort)) {
+                throw new BadRequestResponse("sort must be one of " + ExpenseQuery.SORT_FIELDS);
+            }
+            query.setSort(sort);
+        }
+        
+        String order = blankToNull(ctx.queryParam("order"));
+        if (order != null) {
+            if (!order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc")) {
+                throw new BadRequestResponse("order must be asc or desc");
+            }
+            query.setDescending(order.equalsIgnoreCase("desc"));
+        }
+        
+        Integer limit = parseInteger(ctx, "limit");
+        if (limit != null && (limit < 1 || limit > MAX_LIMIT)) {
+            throw new BadRequestResponse("limit must be between 1 and " + MAX_LIMIT);
+        }
+        query.setLimit(limit);
+        
+        return query;
+    }
+    
+    /**
+     * Parse the comma-separated {@code fields} parameter, e.g. {@code fields=id,username,amount}.
+     * @param ctx the request context
+     * @return the requested fields, or null if the parameter is absent
+     * @throws BadRequestResponse if a field name is unknown
+     */
+    static Set<ExpenseField> parseFields(Context ctx) {
+        String value = blankToNull(ctx.queryParam("fields"));
+        if (value == null) {
+            return null;
+        }
+        Set<ExpenseField> fields = EnumSet.noneOf(ExpenseField.class);
+        for (String name : value.split(",")) {
+            String fieldName = name.trim();
+            if (fieldName.isEmpty()) {
+                continue;
+            }
+            ExpenseField field = ExpenseField.fromFieldName(fieldName);
+            if (field == null) {
+                throw new BadRequestResponse("Unknown field: " + fieldName + ". fields must be a subset of "
+                    + Arrays.toString(ExpenseField.values()));
+            }
+            fields.add(field);
+        }
+        if (fields.isEmpty()) {
+            throw new BadRequestResponse("fields must name at least one field");
+        }
+        return fields;
+    }
+    
+    /**
+     * Parse the {@code stream} parameter.
+     * @param ctx the request context
+     * @return true if the response should be streamed ({@code stream=true})
+     * @throws BadRequestResponse if the value is not true or false
+     */
+    static boolean parseStream(Context ctx) {
+        String value = blankToNull(ctx.queryParam("stream"));
+        if (value == null || value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        throw new BadRequestResponse("stream must be true or false");
+    }
+    
+    private static Integer parseInteger(Context ctx, String name) {
+        String value = blankToNull(ctx.queryParam(name));
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestResponse("Invalid " + name + ": " + value);
+        }
+    }
+    
+    private static Double parseDouble(Context ctx, String name) {
+        String value = blankToNull(ctx.queryParam(name));
+        if (value == null) {
+            return null;
+        }
+        try {
+            double parsed = Double.parseDouble(value);
+            if (!Double.isFinite(parsed)) {
+                throw new NumberFormatException();
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new BadRequestResponse("Invalid " + name + ": " + value);
+        }
+    }
+    
+    private static String parseDate(Context ctx, String name) {
+        String value = blankToNull(ctx.queryParam(name));
+        if (value == null) {
+            return null;
+        }
+        try {
+            LocalDate.parse(value);
+            return value;
+        } catch (DateTimeParseException e) {
+            throw new BadRequestResponse("Invalid " + name + ". Use YYYY-MM-DD format");
+        }
+    }
+    
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
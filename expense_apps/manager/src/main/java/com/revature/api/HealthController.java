@@ -0,0 +1,136 @@
+package com.revature.api;
+
+import com.revature.metrics.LatencyWindow;
+import com.revature.repository.ApprovalWriteQueue;
+import com.revature.repository.DatabaseConnection;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller for liveness and readiness checks.
+ * Liveness only says the process is serving requests. Readiness probes the database and
+ * looks at request threads, the approval write queue and the recent latency of
+ * interactive requests, and answers 503 when any of them shows the app is failing or
+ * overloaded so load balancers stop sending it traffic until it recovers.
+ */
+public class HealthController {
+    static final int PROBE_TIMEOUT_SECONDS = 2;
+    static final long MAX_PROBE_MILLIS = 500;
+    static final double MAX_THREAD_UTILIZATION = 0.9;
+    static final int MAX_WRITE_QUEUE_DEPTH = 1000;
+    static final long MAX_P99_MILLIS = 2000;
+    static final int MIN_LATENCY_SAMPLES = 100;
+    static final int RETRY_AFTER_SECONDS = 5;
+
+    private final DatabaseConnection databaseConnection;
+    private final QueuedThreadPool threadPool;
+    private final ApprovalWriteQueue approvalWriteQueue;
+    private final ResponseCache responseCache;
+    private final LatencyWindow recentLatency;
+
+    /**
+     * @param databaseConnection database to probe
+     * @param threadPool the server's request thread pool
+     * @param approvalWriteQueue queue of approval writes waiting to be committed
+     * @param responseCache cache whose hit rate is reported
+     * @param recentLatency durations of recent API requests
+     */
+    public HealthController(DatabaseConnection databaseConnection, QueuedThreadPool threadPool,
+                            ApprovalWriteQueue approvalWriteQueue, ResponseCache responseCache,
+                            LatencyWindow recentLatency) {
+        this.databaseConnection = databaseConnection;
+        this.threadPool = threadPool;
+        this.approvalWriteQueue = approvalWriteQueue;
+        this.responseCache = responseCache;
+        this.recentLatency = recentLatency;
+    }
+
+    /**
+     * Report that the process is up. Does not touch the database, so a slow or locked
+     * database never gets the container restarted.
+     * GET /health/live
+     */
+    public void live(Context ctx) {
+        ctx.json(Map.of("status", "alive"));
+    }
+
+    /**
+     * Report whether the app can take traffic, with the figures the decision was based on.
+     * Answers 200 when ready and 503 with Retry-After when the database is unreachable or
+     * any load figure is past its limit.
+     * GET /health/ready
+     */
+    public void ready(Context ctx) {
+        List<String> failures = new ArrayList<>();
+        List<String> overloads = new ArrayList<>();
+        Map<String, Object> checks = new LinkedHashMap<>();
+
+        Map<String, Object> database = new LinkedHashMap<>();
+        try {
+            long probeNanos = databaseConnection.probe(PROBE_TIMEOUT_SECONDS);
+            long probeMillis = TimeUnit.NANOSECONDS.toMillis(probeNanos);
+            database.put("status", "up");
+            database.put("latencyMs", Math.round(probeNanos / 1_000.0) / 1_000.0);
+            if (probeMillis > MAX_PROBE_MILLIS) {
+                overloads.add("database probe took " + probeMillis + " ms");
+            }
+        } catch (SQLException e) {
+            database.put("status", "down");
+            database.put("error", e.getMessage());
+            failures.add("database unavailable");
+        }
+        checks.put("database", database);
+
+        int busyThreads = threadPool.getBusyThreads();
+        int maxThreads = threadPool.getMaxThreads();
+        double utilization = maxThreads > 0 ? (double) busyThreads / maxThreads : 0.0;
+        checks.put("threadPool", Map.of(
+            "busy", busyThreads,
+            "max", maxThreads,
+            "queued", threadPool.getQueueSize(),
+            "utilization", Math.round(utilization * 1000) / 1000.0
+        ));
+        if (utilization >= MAX_THREAD_UTILIZATION) {
+            overloads.add("request threads " + busyThreads + "/" + maxThreads + " busy");
+        }
+
+        int queueDepth = approvalWriteQueue.getQueueDepth();
+        checks.put("approvalWriteQueue", Map.of("depth", queueDepth));
+        if (queueDepth > MAX_WRITE_QUEUE_DEPTH) {
+            overloads.add("approval write queue depth " + queueDepth);
+        }
+
+        checks.put("responseCache", responseCache.stats());
+
+        // Below a hundred requests the p99 is just the slowest one, which says little about load
+        Map<String, Object> requests = recentLatency.stats();
+        checks.put("requests", requests);
+        long p99Millis = Math.round((double) requests.get("p99Ms"));
+        if ((int) requests.get("count") >= MIN_LATENCY_SAMPLES && p99Millis > MAX_P99_MILLIS) {
+            overloads.add("recent p99 latency " + p99Millis + " ms");
+        }
+
+        String status = !failures.isEmpty() ? "unavailable" : !overloads.isEmpty() ? "overloaded" : "ready";
+        List<String> reasons = new ArrayList<>(failures);
+        reasons.addAll(overloads);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status);
+        body.put("reasons", reasons);
+        body.put("checks", checks);
+
+        if (!reasons.isEmpty()) {
+            ctx.status(503);
+            ctx.header(Header.RETRY_AFTER, Integer.toString(RETRY_AFTER_SECONDS));
+        }
+        ctx.json(body);
+    }
+}
@@ -0,0 +1,116 @@
+package com.revature.api;
+
+import com.revature.repository.IdempotencyRepository;
+import com.revature.repository.IdempotentResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replay store for requests carrying an Idempotency-Key header.
+ * Recent responses live in a bounded in-memory LRU cache; every response is also
+ * persisted so retries are recognised after a restart. Entries expire after a fixed
+ * retention period.
+ */
+public class IdempotencyStore {
+    private static final int PURGE_EVERY_SAVES = 1000;
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final long retentionMillis;
+    private final Map<String, CachedResponse> recentResponses;
+    private final Set<String> inFlightKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger savesSincePurge = new AtomicInteger();
+
+    /**
+     * @param idempotencyRepository persistent backing store
+     * @param maxCachedResponses maximum number of responses kept in memory
+     * @param retentionHours how long a key is remembered
+     */
+    public IdempotencyStore(IdempotencyRepository idempotencyRepository, int maxCachedResponses, long retentionHours) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.retentionMillis = TimeUnit.HOURS.toMillis(retentionHours);
+        this.recentResponses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxCachedResponses;
+            }
+        };
+    }
+
+    /**
+     * Look up the stored response for a key, checking memory before the database.
+     * @param key the scoped idempotency key
+     * @return Optional containing the original response if the key has been seen
+     */
+    public Optional<IdempotentResponse> find(String key) {
+        long now = System.currentTimeMillis();
+
+        synchronized (recentResponses) {
+            CachedResponse cached = recentResponses.get(key);
+            if (cached != null) {
+                if (cached.createdAtMillis >= now - retentionMillis) {
+                    return Optional.of(cached.response);
+                }
+                recentResponses.remove(key);
+            }
+        }
+
+        Optional<IdempotentResponse> stored = idempotencyRepository.findByKey(key, now - retentionMillis);
+        stored.ifPresent(response -> cache(key, response, now));
+        return stored;
+    }
+
+    /**
+     * Remember the response for a key.
+     * @param key the scoped idempotency key
+     * @param response the response to replay for later requests with the same key
+     */
+    public void save(String key, IdempotentResponse response) {
+        long now = System.currentTimeMillis();
+        cache(key, response, now);
+        idempotencyRepository.save(key, response, now);
+
+        if (savesSincePurge.incrementAndGet() >= PURGE_EVERY_SAVES) {
+            savesSincePurge.set(0);
+            idempotencyRepository.deleteOlderThan(now - retentionMillis);
+        }
+    }
+
+    /**
+     * Mark a key as being processed.
+     * @param key the scoped idempotency key
+     * @return false if another request with the same key is still in progress
+     */
+    public boolean tryBegin(String key) {
+        return inFlightKeys.add(key);
+    }
+
+    /**
+     * Mark a key as no longer being processed.
+     * @param key the scoped idempotency key
+     */
+    public void end(String key) {
+        inFlightKeys.remove(key);
+    }
+
+    private void cache(String key, IdempotentResponse response, long createdAtMillis) {
+        synchronized (recentResponses) {
+            recentResponses.put(key, new CachedResponse(response, createdAtMillis));
+        }
+    }
+
+    private static final class CachedResponse {
+        private final IdempotentResponse response;
+        private final long createdAtMillis;
+
+        private CachedResponse(IdempotentResponse response, long createdAtMillis) {
+            this.response = response;
+            this.createdAtMillis = createdAtMillis;
+        }
+    }
+}
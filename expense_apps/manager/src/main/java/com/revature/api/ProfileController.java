@@ -0,0 +1,74 @@
+package com.revature.api;
+
+import com.revature.metrics.ExecutionProfiler;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.ConflictResponse;
+import io.javalin.http.Context;
+import io.javalin.http.InternalServerErrorResponse;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Controller for on-demand CPU profiling of the running server.
+ * Handles diagnostics requests from managers investigating slow responses.
+ */
+public class ProfileController {
+    static final int DEFAULT_SECONDS = 10;
+    static final int MAX_SECONDS = 60;
+
+    private final ExecutionProfiler profiler;
+
+    public ProfileController(ExecutionProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Sample CPU for a number of seconds and return the stacks in folded flame graph format.
+     * Only one profile runs at a time; a second request is rejected with 409.
+     * GET /debug/profile?seconds=N
+     */
+    public void profile(Context ctx) {
+        int seconds = seconds(ctx.queryParam("seconds"));
+
+        Optional<ExecutionProfiler.FoldedStacks> stacks;
+        try {
+            stacks = profiler.profile(Duration.ofSeconds(seconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerErrorResponse("Profile interrupted");
+        }
+        if (stacks.isEmpty()) {
+            throw new ConflictResponse("A profile is already running");
+        }
+
+        ctx.contentType("text/plain; charset=utf-8");
+        ctx.header("X-Profile-Samples", Long.toString(stacks.get().getSamples()));
+        try {
+            Writer writer = new OutputStreamWriter(ctx.outputStream(), StandardCharsets.UTF_8);
+            stacks.get().writeTo(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int seconds(String value) {
+        if (value == null) {
+            return DEFAULT_SECONDS;
+        }
+        try {
+            int seconds = Integer.parseInt(value);
+            if (seconds >= 1 && seconds <= MAX_SECONDS) {
+                return seconds;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new BadRequestResponse("seconds must be a whole number from 1 to " + MAX_SECONDS);
+    }
+}
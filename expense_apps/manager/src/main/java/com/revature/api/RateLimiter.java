@@ -0,0 +1,261 @@
+package com.revature.api;
+
+import com.revature.api.AdmissionControl.RouteClass;
+import com.revature.repository.User;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.Header;
+import io.javalin.http.HttpResponseException;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-manager and per-client-IP rate limits for API requests.
+ * Every manager and every IP address gets a token bucket per route class, with its own
+ * size and refill rate, so one script downloading reports in a loop is slowed down
+ * without affecting other managers. The IP's bucket is checked before authentication,
+ * so login attempts and requests with bad tokens are limited too; the manager's bucket
+ * is checked once the manager is known. A request must get a token from both, otherwise
+ * it is rejected with 429 and Retry-After, and a request the manager's bucket rejects
+ * gives its IP token back. Responses carry RateLimit-Limit, RateLimit-Remaining and
+ * RateLimit-Reset for the tighter of the two buckets.
+ * <p>
+ * A bucket is a single atomic timestamp, the time at which it will be full again, so
+ * taking a token is one compare-and-set. Full buckets hold no information and are
+ * dropped from the map periodically.
+ */
+public class RateLimiter {
+    static final String RATE_LIMIT_LIMIT = "RateLimit-Limit";
+    static final String RATE_LIMIT_REMAINING = "RateLimit-Remaining";
+    static final String RATE_LIMIT_RESET = "RateLimit-Reset";
+    private static final int EXPIRE_EVERY_CHECKS = 4096;
+    private static final String IP_TOKEN_ATTRIBUTE = "rateLimiter.ipToken";
+
+    /**
+     * Size and refill rate of the buckets for one route class.
+     * @param capacity maximum number of tokens, i.e. the largest burst allowed
+     * @param refillPerSecond tokens added per second, i.e. the sustained rate allowed
+     */
+    public record Limit(int capacity, double refillPerSecond) {
+        public Limit {
+            if (capacity < 1 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+            }
+        }
+    }
+
+    private final Map<RouteClass, Rule> managerRules = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Rule> ipRules = new EnumMap<>(RouteClass.class);
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger checksSinceExpiry = new AtomicInteger();
+
+    /**
+     * @param managerLimits bucket size and rate per route class for each authenticated manager
+     * @param ipLimits bucket size and rate per route class for each client IP address
+     */
+    public RateLimiter(Map<RouteClass, Limit> managerLimits,
+                       Map<RouteClass, Limit> ipLimits) {
+        managerLimits.forEach((routeClass, limit) -> managerRules.put(routeClass, new Rule(routeClass, "manager", limit)));
+        ipLimits.forEach((routeClass, limit) -> ipRules.put(routeClass, new Rule(routeClass, "ip", limit)));
+    }
+
+    /**
+     * Before-handler, registered ahead of authentication: take a token from the client IP's
+     * bucket, or reject the request with 429. Runs for every API request, including login
+     * and requests whose token turns out to be invalid, so they are limited before any JWT
+     * verification or user lookup.
+     */
+    public void checkClient(Context ctx) {
+        RouteClass routeClass = classify(ctx.method(), ctx.path());
+        if (routeClass == null) {
+            return;
+        }
+        if (checksSinceExpiry.incrementAndGet() >= EXPIRE_EVERY_CHECKS) {
+            checksSinceExpiry.set(0);
+            expireIdle();
+        }
+        Rule ipRule = ipRules.get(routeClass);
+        if (ipRule == null) {
+            return;
+        }
+        String ipKey = "ip:" + ctx.ip();
+        Decision decision = ipRule.take(ipKey, System.nanoTime());
+        if (decision.allowed) {
+            ctx.attribute(IP_TOKEN_ATTRIBUTE, new IpToken(ipRule, ipKey, decision));
+        }
+        apply(ctx, routeClass, decision);
+    }
+
+    /**
+     * Before-handler, registered after authentication: take a token from the manager's
+     * bucket, or reject the request with 429. A rejected request gets its IP token back,
+     * so a manager who is over their own limit does not use up the tokens of everyone
+     * else behind the same address.
+     */
+    public void checkManager(Context ctx) {
+        RouteClass routeClass = classify(ctx.method(), ctx.path());
+        User manager = AuthenticationMiddleware.getAuthenticatedManager(ctx);
+        Rule managerRule = routeClass != null && manager != null ? managerRules.get(routeClass) : null;
+        if (managerRule == null) {
+            return;
+        }
+        Decision decision = managerRule.take("manager:" + manager.getId(), System.nanoTime());
+        IpToken ipToken = ctx.attribute(IP_TOKEN_ATTRIBUTE);
+        if (!decision.allowed && ipToken != null) {
+            ipToken.rule.giveBack(ipToken.key);
+        }
+        // Report whichever bucket is closer to running out
+        if (!decision.allowed || ipToken == null || decision.remaining < ipToken.decision.remaining) {
+            apply(ctx, routeClass, decision);
+        }
+    }
+
+    /**
+     * Set the rate limit headers for a decision and reject the request if it was refused.
+     */
+    private static void apply(Context ctx, RouteClass routeClass, Decision decision) {
+        ctx.header(RATE_LIMIT_LIMIT, Integer.toString(decision.rule.limit.capacity()));
+        ctx.header(RATE_LIMIT_REMAINING, Long.toString(decision.remaining));
+        ctx.header(RATE_LIMIT_RESET, Long.toString(ceilSeconds(decision.fullInNanos)));
+        if (!decision.allowed) {
+            ctx.header(Header.RETRY_AFTER, Long.toString(ceilSeconds(decision.retryInNanos)));
+            throw new HttpResponseException(429, "Too many requests, please slow down",
+                Map.of("routeClass", routeClass.name().toLowerCase(), "scope", decision.rule.scope));
+        }
+    }
+
+    /**
+     * @return the class a request is rate limited under, or null if it is not limited;
+     *         unlike admission control, authentication routes are limited, per IP only
+     */
+    static RouteClass classify(HandlerType method, String path) {
+        if (method == HandlerType.OPTIONS) {
+            return null;
+        }
+        if (path.startsWith("/api/auth/")) {
+            return RouteClass.AUTH;
+        }
+        return AdmissionControl.classify(method, path);
+    }
+
+    /**
+     * Drop buckets that have refilled completely; a new full bucket behaves the same.
+     * Runs automatically every few thousand checks. A request racing the removal of its
+     * bucket may have its token forgotten, which only ever errs in the client's favour.
+     * @return number of buckets dropped
+     */
+    public int expireIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(fullAt -> fullAt.get() - now <= 0);
+        return Math.max(before - buckets.size(), 0);
+    }
+
+    /**
+     * @return number of buckets tracked and allowed and limited counts per route class and scope
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("buckets", buckets.size());
+        for (Map<RouteClass, Rule> rules : List.of(managerRules, ipRules)) {
+            rules.values().forEach(rule -> stats.put(rule.scope + "." + rule.routeClassName, Map.of(
+                "allowed", rule.allowed.sum(),
+                "limited", rule.limited.sum()
+            )));
+        }
+        return stats;
+    }
+
+    /**
+     * @return allowed and limited counts per route class and scope, in the Prometheus text format
+     */
+    public String toPrometheusText() {
+        StringBuilder text = new StringBuilder(1024);
+        text.append("# HELP rate_limit_requests_total Requests checked against a rate limit, by route class, scope and outcome\n");
+        text.append("# TYPE rate_limit_requests_total counter\n");
+        for (Map<RouteClass, Rule> rules : List.of(managerRules, ipRules)) {
+            for (Rule rule : rules.values()) {
+                sample(text, rule, "allowed", rule.allowed.sum());
+                sample(text, rule, "limited", rule.limited.sum());
+            }
+        }
+        text.append("# HELP rate_limit_buckets Token buckets currently tracked\n");
+        text.append("# TYPE rate_limit_buckets gauge\n");
+        text.append("rate_limit_buckets ").append(buckets.size()).append('\n');
+        return text.toString();
+    }
+
+    private static void sample(StringBuilder text, Rule rule, String outcome, long value) {
+        text.append("rate_limit_requests_total{route_class=\"").append(rule.routeClassName)
+            .append("\",scope=\"").append(rule.scope)
+            .append("\",outcome=\"").append(outcome).append("\"} ").append(value).append('\n');
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return Math.max((nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1), 0);
+    }
+
+    /**
+     * Buckets of one scope for one route class. A bucket is the time at which it will be
+     * full again; each token taken pushes that time one refill interval later, and a token
+     * is refused when that would put it more than a full bucket's worth of intervals ahead.
+     */
+    private final class Rule {
+        private final String routeClassName;
+        private final String scope;
+        private final Limit limit;
+        private final long intervalNanos;
+        private final long capacityNanos;
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder limited = new LongAdder();
+
+        private Rule(RouteClass routeClass, String scope, Limit limit) {
+            this.routeClassName = routeClass.name().toLowerCase();
+            this.scope = scope;
+            this.limit = limit;
+            this.intervalNanos = Math.max((long) (TimeUnit.SECONDS.toNanos(1) / limit.refillPerSecond()), 1);
+            this.capacityNanos = intervalNanos * limit.capacity();
+        }
+
+        private Decision take(String key, long now) {
+            AtomicLong fullAt = buckets.computeIfAbsent(routeClassName + ":" + key, k -> new AtomicLong(now));
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current - now, 0) + now + intervalNanos;
+                long fullIn = next - now;
+                if (fullIn > capacityNanos) {
+                    limited.increment();
+                    long currentFullIn = Math.max(current - now, 0);
+                    return new Decision(this, false, 0, currentFullIn, fullIn - capacityNanos);
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    allowed.increment();
+                    return new Decision(this, true, (capacityNanos - fullIn) / intervalNanos, fullIn, 0);
+                }
+            }
+        }
+
+        /**
+         * Return a token taken for a request that was then rejected by another bucket.
+         */
+        private void giveBack(String key) {
+            AtomicLong fullAt = buckets.get(routeClassName + ":" + key);
+            if (fullAt != null) {
+                fullAt.addAndGet(-intervalNanos);
+                allowed.decrement();
+            }
+        }
+    }
+
+    private record Decision(Rule rule, boolean allowed, long remaining, long fullInNanos, long retryInNanos) {}
+
+    private record IpToken(Rule rule, String key, Decision decision) {}
+}
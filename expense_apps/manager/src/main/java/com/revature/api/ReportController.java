@@ -1,5 +1,8 @@
 package com.revature.api;
 
+import com.revature.metrics.ReportGenerationEvent;
+import com.revature.repository.ExpenseQuery;
+import com.revature.repository.ExpenseRow;
 import com.revature.repository.ExpenseWithUser;
 import com.revature.service.ExpenseService;
 import io.javalin.http.Context;
@@ -29,12 +32,14 @@ public class ReportController {
      */
     public void generateAllExpensesReport(Context ctx) {
         try {
+            ReportGenerationEvent event = ReportGenerationEvent.start("all");
             List<ExpenseWithUser> expenses = expenseService.getAllExpenses();
             String csvContent = expenseService.generateCsvReport(expenses);
             
             ctx.contentType("text/csv");
             ctx.header("Content-Disposition", "attachment; filename=\"all_expenses_report.csv\"");
             ctx.result(csvContent);
+            event.finish(expenses.size(), csvContent);
             
         } catch (Exception e) {
             throw new InternalServerErrorResponse("Failed to generate expenses report: " + e.getMessage());
@@ -48,12 +53,14 @@ public class ReportController {
     public void generateEmployeeExpensesReport(Context ctx) {
         try {
             int employeeId = ctx.pathParamAsClass("employeeId", Integer.class).get();
+            ReportGenerationEvent event = ReportGenerationEvent.start("employee");
             List<ExpenseWithUser> expenses = expenseService.getExpensesByEmployee(employeeId);
             String csvContent = expenseService.generateCsvReport(expenses);
             
             ctx.contentType("text/csv");
             ctx.header("Content-Disposition", "attachment; filename=\"employee_" + employeeId + "_expenses_report.csv\"");
             ctx.result(csvContent);
+            event.finish(expenses.size(), csvContent);
             
         } catch (NumberFormatException e) {
             throw new BadRequestResponse("Invalid employee ID format");
@@ -74,6 +81,7 @@ public class ReportController {
                 throw new BadRequestResponse("Category parameter is required");
             }
             
+            ReportGenerationEvent event = ReportGenerationEvent.start("category");
             List<ExpenseWithUser> expenses = expenseService.getExpensesByCategory(category);
             String csvContent = expenseService.generateCsvReport(expenses);
             
@@ -81,6 +89,7 @@ public class ReportController {
             ctx.contentType("text/csv");
             ctx.header("Content-Disposition", "attachment; filename=\"category_" + safeCategory + "_expenses_report.csv\"");
             ctx.result(csvContent);
+            event.finish(expenses.size(), csvContent);
             
         } catch (Exception e) {
             if (e instanceof BadRequestResponse) {
@@ -111,12 +120,14 @@ public class ReportController {
                 throw new BadRequestResponse("Invalid date format. Use YYYY-MM-DD format");
             }
             
+            ReportGenerationEvent event = ReportGenerationEvent.start("daterange");
             List<ExpenseWithUser> expenses = expenseService.getExpensesByDateRange(startDateStr, endDateStr);
             String csvContent = expenseService.generateCsvReport(expenses);
             
             ctx.contentType("text/csv");
             ctx.header("Content-Disposition", "attachment; filename=\"expenses_" + startDateStr + "_to_" + endDateStr + "_report.csv\"");
             ctx.result(csvContent);
+            event.finish(expenses.size(), csvContent);
             
         } catch (Exception e) {
             if (e instanceof BadRequestResponse) {
@@ -126,18 +137,42 @@ public class ReportController {
         }
     }
     
+    /**
+     * Generate CSV report of expenses matching a combination of filters.
+     * Accepts the same query parameters as GET /api/expenses/search.
+     * GET /api/reports/expenses/search/csv
+     */
+    public void generateSearchExpensesReport(Context ctx) {
+        ExpenseQuery query = ExpenseQueryParams.parse(ctx);
+        try {
+            ReportGenerationEvent event = ReportGenerationEvent.start("search");
+            List<ExpenseRow> rows = expenseService.searchExpenseRows(query);
+            String csvContent = expenseService.generateCsvReportFromRows(rows);
+            
+            ctx.contentType("text/csv");
+            ctx.header("Content-Disposition", "attachment; filename=\"search_expenses_report.csv\"");
+            ctx.result(csvContent);
+            event.finish(rows.size(), csvContent);
+            
+        } catch (Exception e) {
+            throw new InternalServerErrorResponse("Failed to generate search expenses report: " + e.getMessage());
+        }
+    }
+    
     /**
      * Generate CSV report of pending expenses only.
      * GET /api/reports/expenses/pending/csv
      */
     public void generatePendingExpensesReport(Context ctx) {
         try {
+            ReportGenerationEvent event = ReportGenerationEvent.start("pending");
             List<ExpenseWithUser> expenses = expenseService.getPendingExpenses();
             String csvContent = expenseService.generateCsvReport(expenses);
             
             ctx.contentType("text/csv");
             ctx.header("Content-Disposition", "attachment; filename=\"pending_expenses_report.csv\"");
             ctx.result(csvContent);
+            event.finish(expenses.size(), csvContent);
             
         } catch (Exception e) {
             throw new InternalServerErrorResponse("Failed to generate pending expenses report: " + e.getMessage());
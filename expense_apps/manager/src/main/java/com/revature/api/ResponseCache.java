@@ -0,0 +1,196 @@
+package com.revature.api;
+
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of fully encoded response bodies for the hot expense list endpoints.
+ * Each entry holds the encoded body and, for bodies large enough to be worth it, its
+ * gzip encoding, and is only served while the database change token it was built under
+ * is still current. Memory is bounded by the total size of the cached bytes; the least
+ * recently used entries are evicted first.
+ */
+public class ResponseCache {
+    /** Bodies smaller than this are not gzipped, matching Javalin's own compression threshold. */
+    static final int GZIP_MIN_BYTES = 1500;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final Map<String, Body> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxBytes maximum total size of the cached bodies, raw and gzipped;
+     *                 a single entry may use at most a quarter of it
+     */
+    public ResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxBytes / 4;
+    }
+
+    /**
+     * Look up a cached body.
+     * @param key endpoint, parameters and format of the request
+     * @param changeToken the current database change token
+     * @return the cached body, or null if there is none for this token
+     */
+    public Body find(String key, long changeToken) {
+        synchronized (entries) {
+            Body body = entries.get(key);
+            if (body != null && body.changeToken == changeToken) {
+                hits.increment();
+                return body;
+            }
+            if (body != null) {
+                // Built before the data last changed; it will never be served again
+                remove(key);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Encode and remember a body. Bodies too large for the cache are returned but not kept.
+     * @param key endpoint, parameters and format of the request
+     * @param changeToken the database change token read before the body's data was queried
+     * @param contentType media type of the body
+     * @param bytes the encoded body
+     * @return the cached body
+     */
+    public Body store(String key, long changeToken, String contentType, byte[] bytes) {
+        Body body = new Body(changeToken, contentType, bytes, bytes.length >= GZIP_MIN_BYTES ? gzip(bytes) : null);
+        if (body.size() > maxEntryBytes) {
+            return body;
+        }
+        synchronized (entries) {
+            remove(key);
+            entries.put(key, body);
+            sizeBytes += body.size();
+            Iterator<Body> eldest = entries.values().iterator();
+            while (sizeBytes > maxBytes && eldest.hasNext()) {
+                sizeBytes -= eldest.next().size();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+        return body;
+    }
+
+    /**
+     * @return hit, miss and eviction counts and the current number and size of entries
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        synchronized (entries) {
+            return Map.of(
+                "hits", hitCount,
+                "misses", missCount,
+                "hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount),
+                "evictions", evictions.sum(),
+                "entries", entries.size(),
+                "sizeBytes", sizeBytes,
+                "maxBytes", maxBytes
+            );
+        }
+    }
+
+    /**
+     * Write a cached body as the response, gzipped if the client accepts it.
+     * Javalin leaves responses that already carry a Content-Encoding alone.
+     */
+    static void write(Context ctx, Body body) {
+        ctx.header(Header.VARY, Header.ACCEPT + ", " + Header.ACCEPT_ENCODING);
+        ctx.contentType(body.contentType);
+        if (body.gzipBytes != null && acceptsGzip(ctx.header(Header.ACCEPT_ENCODING))) {
+            ctx.header(Header.CONTENT_ENCODING, "gzip");
+            ctx.result(body.gzipBytes);
+        } else {
+            ctx.result(body.bytes);
+        }
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private void remove(String key) {
+        Body previous = entries.remove(key);
+        if (previous != null) {
+            sizeBytes -= previous.size();
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * An encoded response body and the change token it is valid for.
+     */
+    public static final class Body {
+        private final long changeToken;
+        private final String contentType;
+        private final byte[] bytes;
+        private final byte[] gzipBytes;
+
+        private Body(long changeToken, String contentType, byte[] bytes, byte[] gzipBytes) {
+            this.changeToken = changeToken;
+            this.contentType = contentType;
+            this.bytes = bytes;
+            this.gzipBytes = gzipBytes;
+        }
+
+        public long getChangeToken() {
+            return changeToken;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return the gzip encoding of the body, or null if the body is too small to compress
+         */
+        public byte[] getGzipBytes() {
+            return gzipBytes;
+        }
+
+        long size() {
+            return bytes.length + (gzipBytes != null ? gzipBytes.length : 0);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.revature.api;
+
+import com.revature.metrics.HttpRequestEvent;
+import com.revature.metrics.LatencyWindow;
+import com.revature.metrics.RequestTiming;
+import com.revature.metrics.RouteTimingStats;
+import io.javalin.http.Context;
+import org.eclipse.jetty.server.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Times API requests by phase, reports the breakdown to the client in a
+ * {@code Server-Timing} header and adds it to the per-route totals served by
+ * {@link #metrics(Context)}. Each request is also emitted as a {@link HttpRequestEvent}
+ * for JDK Flight Recorder.
+ */
+public class ServerTiming {
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+    private static final String UNMATCHED_ROUTE = "unmatched";
+    private static final String EVENT_ATTRIBUTE = "serverTiming.event";
+
+    private final RouteTimingStats stats;
+    private final LatencyWindow recentLatency;
+    private final List<Supplier<String>> metricsSections = new CopyOnWriteArrayList<>();
+
+    public ServerTiming(RouteTimingStats stats) {
+        this(stats, null);
+    }
+
+    /**
+     * @param stats per-route totals served on /metrics
+     * @param recentLatency window that also receives the total time of interactive requests, for health checks
+     */
+    public ServerTiming(RouteTimingStats stats, LatencyWindow recentLatency) {
+        this.stats = stats;
+        this.recentLatency = recentLatency;
+    }
+
+    /**
+     * Before-handler: start timing the request on this thread.
+     */
+    public void start(Context ctx) {
+        RequestTiming.start();
+        ctx.attribute(EVENT_ATTRIBUTE, HttpRequestEvent.start());
+    }
+
+    /**
+     * After-handler: stop timing, set the Server-Timing header and record the request.
+     * A streamed response is already committed by now, so only its route totals are recorded.
+     * Reports and streamed lists are slow by design and are left out of the recent latency
+     * window, which health checks read as a sign of overload.
+     */
+    public void finish(Context ctx) {
+        RequestTiming timing = RequestTiming.stop();
+        if (timing == null) {
+            return;
+        }
+        long totalNanos = timing.getElapsedNanos();
+        boolean streamed = ctx.res().isCommitted();
+        if (!streamed) {
+            ctx.header(SERVER_TIMING_HEADER, timing.toServerTiming(totalNanos));
+        }
+        String route = route(ctx);
+        stats.record(ctx.method().name(), route, ctx.statusCode(), timing, totalNanos);
+        if (recentLatency != null && !streamed
+                && AdmissionControl.classify(ctx.method(), ctx.path()) != AdmissionControl.RouteClass.REPORT) {
+            recentLatency.record(totalNanos);
+        }
+        HttpRequestEvent event = ctx.attribute(EVENT_ATTRIBUTE);
+        if (event != null) {
+            event.finish(ctx.method().name(), route, ctx.statusCode(), responseBytes(ctx));
+        }
+    }
+
+    /**
+     * Serve another component's metrics on /metrics after the route timings.
+     * @param section supplies the component's metrics in the Prometheus text format
+     */
+    public void addMetricsSection(Supplier<String> section) {
+        metricsSections.add(section);
+    }
+
+    /**
+     * Get per-route request counts and phase timings for scraping.
+     * GET /metrics
+     */
+    public void metrics(Context ctx) {
+        StringBuilder text = new StringBuilder(stats.toPrometheusText());
+        for (Supplier<String> section : metricsSections) {
+            text.append(section.get());
+        }
+        ctx.contentType("text/plain; version=0.0.4; charset=utf-8");
+        ctx.result(text.toString());
+    }
+
+    /**
+     * Size of the response body: the pending result if the handler set one, otherwise
+     * what has already been streamed to the client, or -1 if neither can be told.
+     */
+    static long responseBytes(Context ctx) {
+        InputStream result = ctx.resultInputStream();
+        if (result instanceof ByteArrayInputStream bytes) {
+            return bytes.available();
+        }
+        if (result == null && ctx.res() instanceof Response response) {
+            return response.getHttpOutput().getWritten();
+        }
+        return -1;
+    }
+
+    private static String route(Context ctx) {
+        // Route patterns keep the label set small; unmatched paths (404/405) share one label,
+        // for which Javalin reports a message instead of a pattern
+        try {
+            String route = ctx.endpointHandlerPath();
+            return route.startsWith("/") ? route : UNMATCHED_ROUTE;
+        } catch (RuntimeException e) {
+            return UNMATCHED_ROUTE;
+        }
+    }
+}
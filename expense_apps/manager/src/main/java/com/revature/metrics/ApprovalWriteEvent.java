@@ -0,0 +1,47 @@
+package com.revature.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one approval write transaction: a single approve/deny or a
+ * batched group of decisions.
+ */
+@Name("com.revature.ApprovalWrite")
+@Label("Approval Write")
+@Category({"Expense Manager", "Database"})
+@Description("Approval status updates committed in one transaction")
+@StackTrace(false)
+public class ApprovalWriteEvent extends jdk.jfr.Event {
+    @Label("Decisions")
+    @Description("Number of approve/deny decisions in the transaction")
+    int decisions;
+
+    @Label("Updated")
+    @Description("Number of approvals actually updated; the rest were missing or no longer pending")
+    int updated;
+
+    /**
+     * @return a new event with its start time set
+     */
+    public static ApprovalWriteEvent start() {
+        ApprovalWriteEvent event = new ApprovalWriteEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the event and commit it if recording is enabled for it.
+     */
+    public void finish(int decisions, int updated) {
+        end();
+        if (shouldCommit()) {
+            this.decisions = decisions;
+            this.updated = updated;
+            commit();
+        }
+    }
+}
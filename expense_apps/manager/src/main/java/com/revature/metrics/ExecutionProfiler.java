@@ -0,0 +1,148 @@
+package com.revature.metrics;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * On-demand CPU profiler built on JDK Flight Recorder's execution sampler.
+ * A profile streams {@code jdk.ExecutionSample} events for a fixed time and counts
+ * identical stacks, producing the folded-stack text that flame graph tools read.
+ * Only one profile runs at a time, and the number of distinct stacks kept is
+ * bounded so a long or busy profile cannot grow without limit.
+ */
+public class ExecutionProfiler {
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    /** Root frame for stacks JFR cut off at its maximum depth. */
+    static final String TRUNCATED_FRAME = "[truncated]";
+    /** Stack line that collects the samples of stacks beyond the distinct-stack limit. */
+    static final String OTHER_STACKS = "[other]";
+
+    private final Duration samplingInterval;
+    private final int maxStacks;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * @param samplingInterval how often each running Java thread is sampled
+     * @param maxStacks maximum number of distinct stacks kept; further stacks are counted under [other]
+     */
+    public ExecutionProfiler(Duration samplingInterval, int maxStacks) {
+        this.samplingInterval = samplingInterval;
+        this.maxStacks = maxStacks;
+    }
+
+    /**
+     * Sample the JVM for the given time, blocking the calling thread meanwhile.
+     * @param duration how long to sample
+     * @return the folded stacks, or empty if another profile is already running
+     * @throws InterruptedException if the calling thread is interrupted while sampling
+     */
+    public Optional<FoldedStacks> profile(Duration duration) throws InterruptedException {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            FoldedStacks stacks = new FoldedStacks(maxStacks);
+            try (RecordingStream stream = new RecordingStream()) {
+                stream.enable(EXECUTION_SAMPLE).withPeriod(samplingInterval);
+                stream.onEvent(EXECUTION_SAMPLE, event -> stacks.add(event.getStackTrace()));
+                stream.startAsync();
+                Thread.sleep(duration.toMillis());
+                // Flushes and dispatches every sample taken so far before returning
+                stream.stop();
+            }
+            return Optional.of(stacks);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return true while a profile is being taken
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Sample counts per distinct stack, in folded form: frames from the thread's root to
+     * the sampled method joined by semicolons.
+     */
+    public static final class FoldedStacks {
+        private final int maxStacks;
+        private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+        private final LongAdder samples = new LongAdder();
+
+        FoldedStacks(int maxStacks) {
+            this.maxStacks = maxStacks;
+        }
+
+        void add(RecordedStackTrace stackTrace) {
+            if (stackTrace == null) {
+                return;
+            }
+            List<RecordedFrame> frames = stackTrace.getFrames();
+            StringBuilder folded = new StringBuilder(frames.size() * 48);
+            if (stackTrace.isTruncated()) {
+                folded.append(TRUNCATED_FRAME);
+            }
+            for (int i = frames.size() - 1; i >= 0; i--) {
+                RecordedFrame frame = frames.get(i);
+                if (!folded.isEmpty()) {
+                    folded.append(';');
+                }
+                folded.append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName());
+            }
+            add(folded.toString());
+        }
+
+        void add(String folded) {
+            samples.increment();
+            LongAdder count = counts.get(folded);
+            if (count == null) {
+                count = counts.size() < maxStacks
+                    ? counts.computeIfAbsent(folded, stack -> new LongAdder())
+                    : counts.computeIfAbsent(OTHER_STACKS, stack -> new LongAdder());
+            }
+            count.increment();
+        }
+
+        /**
+         * @return total number of samples taken
+         */
+        public long getSamples() {
+            return samples.sum();
+        }
+
+        /**
+         * @return number of distinct stacks, including [other] if the limit was reached
+         */
+        public int getStackCount() {
+            return counts.size();
+        }
+
+        /**
+         * Write one "stack count" line per distinct stack, most frequent first.
+         */
+        public void writeTo(Writer writer) throws IOException {
+            List<Map.Entry<String, Long>> lines = new ArrayList<>(counts.size());
+            counts.forEach((stack, count) -> lines.add(Map.entry(stack, count.sum())));
+            lines.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+            for (Map.Entry<String, Long> line : lines) {
+                writer.append(line.getKey()).append(' ').append(Long.toString(line.getValue())).append('\n');
+            }
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.revature.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the handling of one API request, from the first before-handler
+ * to the last after-handler.
+ */
+@Name("com.revature.HttpRequest")
+@Label("HTTP Request")
+@Category({"Expense Manager", "HTTP"})
+@Description("An API request handled by the manager app")
+@StackTrace(false)
+public class HttpRequestEvent extends jdk.jfr.Event {
+    @Label("Method")
+    String method;
+
+    @Label("Route")
+    @Description("Matched route pattern")
+    String route;
+
+    @Label("Status")
+    int status;
+
+    @Label("Response Size")
+    @Description("Response body size before compression, or -1 if unknown")
+    @DataAmount
+    long bytes;
+
+    /**
+     * @return a new event with its start time set
+     */
+    public static HttpRequestEvent start() {
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the event and commit it if recording is enabled for it.
+     * @param bytes response body size, or -1 if unknown
+     */
+    public void finish(String method, String route, int status, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.route = route;
+            this.status = status;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
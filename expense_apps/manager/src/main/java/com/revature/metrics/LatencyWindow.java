@@ -0,0 +1,104 @@
+package com.revature.metrics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Durations of the most recent requests, for percentiles over the last minute or so.
+ * Request threads overwrite the oldest slot of a fixed-size ring without locking; a
+ * reader copies the slots that finished within the window and sorts them. A reader
+ * racing a writer may pair a slot's new time with its old duration, which is fine for
+ * health reporting.
+ */
+public class LatencyWindow {
+    private final long windowNanos;
+    private final int mask;
+    private final AtomicLongArray endNanos;
+    private final AtomicLongArray durationNanos;
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * @param capacity number of requests remembered, a power of two
+     * @param windowMillis only requests that finished this recently are counted
+     */
+    public LatencyWindow(int capacity, long windowMillis) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.mask = capacity - 1;
+        this.endNanos = new AtomicLongArray(capacity);
+        this.durationNanos = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            durationNanos.set(i, -1);
+        }
+    }
+
+    /**
+     * Record a request that has just finished.
+     * @param nanos how long it took
+     */
+    public void record(long nanos) {
+        int slot = (int) next.getAndIncrement() & mask;
+        endNanos.set(slot, System.nanoTime());
+        durationNanos.set(slot, nanos);
+    }
+
+    /**
+     * @param percentile between 0 and 1, such as 0.99
+     * @return the duration below which that share of recent requests finished, or -1 if there were none
+     */
+    public long percentileNanos(double percentile) {
+        long[] recent = recent();
+        return recent.length == 0 ? -1 : percentile(recent, percentile);
+    }
+
+    /**
+     * @return the number of recent requests and their median, p99 and maximum durations in milliseconds
+     */
+    public Map<String, Object> stats() {
+        long[] recent = recent();
+        return Map.of(
+            "windowSeconds", TimeUnit.NANOSECONDS.toSeconds(windowNanos),
+            "count", recent.length,
+            "p50Ms", millis(recent, 0.5),
+            "p99Ms", millis(recent, 0.99),
+            "maxMs", millis(recent, 1.0)
+        );
+    }
+
+    /**
+     * @return durations of the requests that finished within the window, sorted
+     */
+    private long[] recent() {
+        long now = System.nanoTime();
+        int capacity = mask + 1;
+        long[] recent = new long[capacity];
+        int count = 0;
+        for (int i = 0; i < capacity; i++) {
+            long duration = durationNanos.get(i);
+            if (duration >= 0 && now - endNanos.get(i) <= windowNanos) {
+                recent[count++] = duration;
+            }
+        }
+        recent = Arrays.copyOf(recent, count);
+        Arrays.sort(recent);
+        return recent;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        // Nearest rank: the smallest value with at least that share of values at or below it
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        return Math.round(percentile(sorted, percentile) / 1_000.0) / 1_000.0;
+    }
+}
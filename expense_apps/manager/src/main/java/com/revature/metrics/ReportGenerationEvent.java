@@ -0,0 +1,74 @@
+package com.revature.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the generation of one CSV report, from its query to the
+ * formatted document.
+ */
+@Name("com.revature.ReportGeneration")
+@Label("Report Generation")
+@Category({"Expense Manager", "Reports"})
+@Description("A CSV expense report generated for download")
+@StackTrace(false)
+public class ReportGenerationEvent extends jdk.jfr.Event {
+    @Label("Report Type")
+    String reportType;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Size")
+    @Description("UTF-8 size of the report")
+    @DataAmount
+    long bytes;
+
+    /**
+     * @param reportType which report is generated, such as "pending" or "search"
+     * @return a new event with its start time set
+     */
+    public static ReportGenerationEvent start(String reportType) {
+        ReportGenerationEvent event = new ReportGenerationEvent();
+        event.reportType = reportType;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the event and commit it if recording is enabled for it. The report's size is
+     * only computed when the event is recorded.
+     * @param rows number of expenses in the report
+     * @param content the report
+     */
+    public void finish(int rows, String content) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            this.bytes = utf8Length(content);
+            commit();
+        }
+    }
+
+    private static long utf8Length(String content) {
+        long length = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,47 @@
+package com.revature.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one repository query, including reading and mapping its rows.
+ */
+@Name("com.revature.RepositoryQuery")
+@Label("Repository Query")
+@Category({"Expense Manager", "Database"})
+@Description("A repository query against the expense database")
+@StackTrace(false)
+public class RepositoryQueryEvent extends jdk.jfr.Event {
+    @Label("Query")
+    @Description("Repository method that ran the query")
+    String query;
+
+    @Label("Rows")
+    int rows;
+
+    /**
+     * @param query name of the repository method running the query
+     * @return a new event with its start time set
+     */
+    public static RepositoryQueryEvent start(String query) {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.query = query;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the event and commit it if recording is enabled for it.
+     * @param rows number of rows read
+     */
+    public void finish(int rows) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            commit();
+        }
+    }
+}
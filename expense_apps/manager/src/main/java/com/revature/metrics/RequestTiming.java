@@ -0,0 +1,160 @@
+package com.revature.metrics;
+
+/**
+ * Per-request phase timer bound to the handling thread.
+ * Code that does timed work brackets it with {@link #begin()} and
+ * {@link #end(TimingPhase, long)}. Phases may nest: a phase's time excludes the time of
+ * phases begun inside it, so row mapping done inside a repository query is counted as
+ * {@link TimingPhase#MAP} and not also as {@link TimingPhase#DB}. Work done in many small
+ * pieces, such as mapping each row of a result, is timed by the caller and handed over
+ * once with {@link #add(TimingPhase, long)}. Outside a timed request these calls return
+ * immediately without reading the clock.
+ */
+public final class RequestTiming {
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    private static final int MAX_DEPTH = 16;
+
+    private final long startNanos;
+    private final long[] phaseNanos = new long[TimingPhase.values().length];
+    /** Time spent in finished child phases, per nesting level. */
+    private final long[] childNanos = new long[MAX_DEPTH + 1];
+    private int depth;
+
+    private RequestTiming(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Start timing a request on the current thread, replacing any previous timing.
+     * @return the new timing
+     */
+    public static RequestTiming start() {
+        RequestTiming timing = new RequestTiming(System.nanoTime());
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Stop timing on the current thread.
+     * @return the finished timing, or null if none was started
+     */
+    public static RequestTiming stop() {
+        RequestTiming timing = CURRENT.get();
+        CURRENT.remove();
+        return timing;
+    }
+
+    /**
+     * Mark the start of a timed phase.
+     * @return the start time to pass to {@link #end(TimingPhase, long)}, or 0 if the
+     *         current thread is not timing a request
+     */
+    public static long begin() {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return 0;
+        }
+        if (timing.depth < MAX_DEPTH) {
+            timing.childNanos[++timing.depth] = 0;
+        } else {
+            timing.depth++;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Mark the end of a timed phase and add its own time, excluding nested phases, to the phase.
+     * @param phase the phase being timed
+     * @param beginNanos the value returned by the matching {@link #begin()}
+     */
+    public static void end(TimingPhase phase, long beginNanos) {
+        if (beginNanos == 0) {
+            return;
+        }
+        RequestTiming timing = CURRENT.get();
+        if (timing == null || timing.depth == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - beginNanos;
+        if (timing.depth > MAX_DEPTH) {
+            // Too deep to track children; count it whole and let the parent absorb it
+            timing.depth--;
+            timing.phaseNanos[phase.ordinal()] += elapsed;
+            if (timing.depth <= MAX_DEPTH) {
+                timing.childNanos[timing.depth] += elapsed;
+            }
+            return;
+        }
+        long own = elapsed - timing.childNanos[timing.depth];
+        timing.depth--;
+        timing.childNanos[timing.depth] += elapsed;
+        timing.phaseNanos[phase.ordinal()] += own;
+    }
+
+    /**
+     * Add time the caller measured itself to a phase, as if it had been a nested phase of
+     * the current one. Lets loops sum their time locally instead of calling
+     * {@link #begin()} and {@link #end(TimingPhase, long)} on every iteration.
+     * @param phase the phase the time belongs to
+     * @param nanos time spent, in nanoseconds
+     */
+    public static void add(TimingPhase phase, long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return;
+        }
+        timing.phaseNanos[phase.ordinal()] += nanos;
+        if (timing.depth <= MAX_DEPTH) {
+            timing.childNanos[timing.depth] += nanos;
+        }
+    }
+
+    /**
+     * @return own time spent in a phase so far, in nanoseconds
+     */
+    public long getPhaseNanos(TimingPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * @return nanoseconds since the request started
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Format a Server-Timing header value: one entry per phase that took any time,
+     * followed by the total, with durations in milliseconds.
+     * @param totalNanos total request time
+     */
+    public String toServerTiming(long totalNanos) {
+        StringBuilder header = new StringBuilder(96);
+        for (TimingPhase phase : TimingPhase.values()) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos > 0) {
+                appendMetric(header, phase.getMetricName(), phase.getDescription(), nanos);
+            }
+        }
+        appendMetric(header, "total", "Total", totalNanos);
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, String description, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        // Microsecond resolution is plenty and keeps the header short
+        long micros = nanos / 1000;
+        header.append(name).append(";desc=\"").append(description).append("\";dur=")
+            .append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+}
@@ -0,0 +1,109 @@
+package com.revature.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of request phase timings per route, exposed in the Prometheus
+ * text format so they can be scraped. Recording a request touches only striped
+ * counters, so it does not contend between request threads.
+ */
+public class RouteTimingStats {
+    private final Map<RouteKey, RouteTotals> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Add a finished request to its route's totals.
+     * @param method HTTP method
+     * @param route the matched route pattern, such as /api/expenses/employee/{employeeId}
+     * @param status response status code
+     * @param timing the request's phase timings
+     * @param totalNanos total request time
+     */
+    public void record(String method, String route, int status, RequestTiming timing, long totalNanos) {
+        RouteTotals totals = routes.computeIfAbsent(new RouteKey(method, route), key -> new RouteTotals());
+        totals.requests.increment();
+        if (status >= 500) {
+            totals.errors.increment();
+        }
+        totals.totalNanos.add(totalNanos);
+        for (TimingPhase phase : TimingPhase.values()) {
+            long nanos = timing.getPhaseNanos(phase);
+            if (nanos > 0) {
+                totals.phaseNanos[phase.ordinal()].add(nanos);
+            }
+        }
+    }
+
+    /**
+     * @return request counts and cumulative seconds per route and phase, in the Prometheus text format
+     */
+    public String toPrometheusText() {
+        Map<RouteKey, RouteTotals> sorted = new TreeMap<>(routes);
+        StringBuilder text = new StringBuilder(4096);
+
+        text.append("# HELP http_server_requests_total Requests handled, by route\n");
+        text.append("# TYPE http_server_requests_total counter\n");
+        sorted.forEach((key, totals) -> sample(text, "http_server_requests_total", key, null)
+            .append(totals.requests.sum()).append('\n'));
+
+        text.append("# HELP http_server_errors_total Requests answered with a 5xx status, by route\n");
+        text.append("# TYPE http_server_errors_total counter\n");
+        sorted.forEach((key, totals) -> sample(text, "http_server_errors_total", key, null)
+            .append(totals.errors.sum()).append('\n'));
+
+        text.append("# HELP http_server_request_seconds_total Total time spent handling requests, by route\n");
+        text.append("# TYPE http_server_request_seconds_total counter\n");
+        sorted.forEach((key, totals) -> sample(text, "http_server_request_seconds_total", key, null)
+            .append(seconds(totals.totalNanos.sum())).append('\n'));
+
+        text.append("# HELP http_server_phase_seconds_total Time spent in each phase of request handling, by route\n");
+        text.append("# TYPE http_server_phase_seconds_total counter\n");
+        sorted.forEach((key, totals) -> {
+            for (TimingPhase phase : TimingPhase.values()) {
+                sample(text, "http_server_phase_seconds_total", key, phase.getMetricName())
+                    .append(seconds(totals.phaseNanos[phase.ordinal()].sum())).append('\n');
+            }
+        });
+        return text.toString();
+    }
+
+    private static StringBuilder sample(StringBuilder text, String metric, RouteKey key, String phase) {
+        text.append(metric).append("{method=\"").append(key.method())
+            .append("\",route=\"").append(escape(key.route())).append('"');
+        if (phase != null) {
+            text.append(",phase=\"").append(phase).append('"');
+        }
+        return text.append("} ");
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private record RouteKey(String method, String route) implements Comparable<RouteKey> {
+        @Override
+        public int compareTo(RouteKey other) {
+            int byRoute = route.compareTo(other.route);
+            return byRoute != 0 ? byRoute : method.compareTo(other.method);
+        }
+    }
+
+    private static final class RouteTotals {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] phaseNanos = new LongAdder[TimingPhase.values().length];
+
+        private RouteTotals() {
+            for (int i = 0; i < phaseNanos.length; i++) {
+                phaseNanos[i] = new LongAdder();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.revature.metrics;
+
+/**
+ * Phases of request handling that are timed separately and reported in the
+ * Server-Timing header. Each name is a valid Server-Timing metric name.
+ */
+public enum TimingPhase {
+    /** JWT verification and role checks in the authentication middleware */
+    AUTH("auth", "JWT verification"),
+    /** Loading the authenticated user from the database */
+    USER("user", "User lookup"),
+    /** Preparing and executing repository queries and stepping through their results */
+    DB("db", "Repository query"),
+    /** Turning result set rows into model objects */
+    MAP("map", "Row mapping"),
+    /** Encoding response bodies as JSON, CBOR or Smile */
+    SERIALIZE("serialize", "Serialization"),
+    /** Formatting CSV reports */
+    CSV("csv", "CSV formatting");
+
+    private final String metricName;
+    private final String description;
+
+    TimingPhase(String metricName, String description) {
+        this.metricName = metricName;
+        this.description = description;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
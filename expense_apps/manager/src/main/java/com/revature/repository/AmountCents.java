@@ -0,0 +1,68 @@
+package com.revature.repository;
+
+/**
+ * Fixed-point helpers for money held as a whole number of cents.
+ * Amounts are stored by the employee app as REAL; the manager app reads them as
+ * {@code long} cents so sums are exact and formatting needs no floating point.
+ */
+public final class AmountCents {
+    
+    private AmountCents() {}
+    
+    /**
+     * @param amount amount in currency units
+     * @return the amount rounded to whole cents
+     */
+    public static long fromAmount(double amount) {
+        return Math.round(amount * 100);
+    }
+    
+    /**
+     * @param cents amount in cents
+     * @return the amount in currency units, for JSON and legacy models
+     */
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+    
+    /**
+     * Format cents the way {@code String.valueOf(double)} prints the same amount
+     * ("150.0", "75.5", "12.34"), using integer arithmetic only. Large amounts are
+     * printed in plain notation rather than scientific notation.
+     * @param cents amount in cents
+     * @return decimal representation
+     */
+    public static String format(long cents) {
+        StringBuilder sb = new StringBuilder(24);
+        appendTo(sb, cents);
+        return sb.toString();
+    }
+    
+    /**
+     * Append the {@link #format(long)} representation of cents to a builder.
+     * @param sb the builder to append to
+     * @param cents amount in cents
+     */
+    public static void appendTo(StringBuilder sb, long cents) {
+        if (cents < 0) {
+            sb.append('-');
+            if (cents == Long.MIN_VALUE) {
+                // -Long.MIN_VALUE overflows; split off the last digit first
+                sb.append(-(cents / 100)).append('.');
+                appendFraction(sb, (int) -(cents % 100));
+                return;
+            }
+            cents = -cents;
+        }
+        sb.append(cents / 100).append('.');
+        appendFraction(sb, (int) (cents % 100));
+    }
+    
+    private static void appendFraction(StringBuilder sb, int fraction) {
+        if (fraction % 10 == 0) {
+            sb.append((char) ('0' + fraction / 10));
+        } else {
+            sb.append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10));
+        }
+    }
+}
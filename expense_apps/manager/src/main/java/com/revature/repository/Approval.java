@@ -1,5 +1,7 @@
 package com.revature.repository;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * Approval model representing the approval status of an expense.
  */
@@ -47,6 +49,18 @@ public class Approval {
         this.status = status;
     }
     
+    /**
+     * @return the status as an ApprovalStatus, or null if the stored text is not a known status
+     */
+    @JsonIgnore
+    public ApprovalStatus getApprovalStatus() {
+        return ApprovalStatus.fromValue(status);
+    }
+    
+    public void setApprovalStatus(ApprovalStatus approvalStatus) {
+        this.status = approvalStatus == null ? null : approvalStatus.getValue();
+    }
+    
     public Integer getReviewer() {
         return reviewer;
     }
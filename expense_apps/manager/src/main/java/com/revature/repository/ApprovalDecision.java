@@ -0,0 +1,92 @@
+package com.revature.repository;
+
+/**
+ * ApprovalDecision model representing a single approve/deny decision for an expense.
+ * Used for bulk review requests where many decisions are applied together.
+ */
+public class ApprovalDecision {
+    private int expenseId;
+    private String decision;
+    private String comment;
+    private int reviewerId;
+
+    public ApprovalDecision() {}
+
+    public ApprovalDecision(int expenseId, String decision, String comment) {
+        this.expenseId = expenseId;
+        this.decision = decision;
+        this.comment = comment;
+    }
+
+    public ApprovalDecision(int expenseId, String decision, int reviewerId, String comment) {
+        this.expenseId = expenseId;
+        this.decision = decision;
+        this.reviewerId = reviewerId;
+        this.comment = comment;
+    }
+
+    // Getters and setters
+    public int getExpenseId() {
+        return expenseId;
+    }
+
+    public void setExpenseId(int expenseId) {
+        this.expenseId = expenseId;
+    }
+
+    public String getDecision() {
+        return decision;
+    }
+
+    public void setDecision(String decision) {
+        this.decision = decision;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public int getReviewerId() {
+        return reviewerId;
+    }
+
+    public void setReviewerId(int reviewerId) {
+        this.reviewerId = reviewerId;
+    }
+
+    /**
+     * Resolve the decision to the approval status stored in the database.
+     * Accepts both the verb ("approve", "deny") and the status ("approved", "denied").
+     * @return "approved" or "denied", or null if the decision is not recognised
+     */
+    public String toStatus() {
+        if (decision == null) {
+            return null;
+        }
+
+        switch (decision.trim().toLowerCase()) {
+            case "approve":
+            case "approved":
+                return ApprovalStatus.APPROVED.getValue();
+            case "deny":
+            case "denied":
+                return ApprovalStatus.DENIED.getValue();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ApprovalDecision{" +
+                "expenseId=" + expenseId +
+                ", decision='" + decision + '\'' +
+                ", comment='" + comment + '\'' +
+                ", reviewerId=" + reviewerId +
+                '}';
+    }
+}
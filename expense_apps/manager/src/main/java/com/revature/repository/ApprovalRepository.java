@@ -1,11 +1,18 @@
 package com.revature.repository;
 
+import com.revature.metrics.ApprovalWriteEvent;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -15,9 +22,21 @@ import java.util.Optional;
 public class ApprovalRepository {
     private final DatabaseConnection databaseConnection;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    static final String PENDING_STATUS = ApprovalStatus.PENDING.getValue();
+    /** Whether approvals.status_code exists, letting status guards use the per-status partial indexes. */
+    private final boolean statusCodesEnabled;
     
     public ApprovalRepository(DatabaseConnection databaseConnection) {
+        this(databaseConnection, 0);
+    }
+    
+    /**
+     * @param schemaVersion schema version reported by {@link SchemaMigrator#migrate()}; decides
+     *                      whether status guards compare approvals.status_code
+     */
+    public ApprovalRepository(DatabaseConnection databaseConnection, int schemaVersion) {
         this.databaseConnection = databaseConnection;
+        this.statusCodesEnabled = schemaVersion >= SchemaMigrator.STATUS_CODE_VERSION;
     }
     
     /**
@@ -46,22 +65,76 @@ public class ApprovalRepository {
     }
     
     /**
-     * Update approval status for an expense.
+     * Find the current approval status of several expenses in one query.
+     * Used to explain why conditional updates did not apply (missing vs. already reviewed).
+     * @param expenseIds the expense IDs to look up
+     * @return map of expense ID to current status; missing expenses are absent from the map
+     */
+    public Map<Integer, String> findStatusesByExpenseIds(Collection<Integer> expenseIds) {
+        Map<Integer, String> statuses = new HashMap<>();
+        if (expenseIds.isEmpty()) {
+            return statuses;
+        }
+        
+        String placeholders = String.join(", ", Collections.nCopies(expenseIds.size(), "?"));
+        String sql = "SELECT expense_id, status FROM approvals WHERE expense_id IN (" + placeholders + ")";
+        
+        try (Connection conn = databaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int index = 1;
+            for (Integer expenseId : expenseIds) {
+                stmt.setInt(index++, expenseId);
+            }
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                statuses.put(rs.getInt("expense_id"), rs.getString("status"));
+            }
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding approval statuses for " + expenseIds.size() + " expenses", e);
+        }
+        
+        return statuses;
+    }
+    
+    /**
+     * Update approval status for an expense that is still pending.
+     * The status guard is part of the UPDATE itself, so two managers reviewing the same
+     * expense concurrently cannot overwrite each other without any row locking.
      * @param expenseId the expense ID
      * @param status the new approval status ("approved" or "denied")
      * @param reviewerId the manager's user ID
      * @param comment optional comment from the manager
-     * @return true if update was successful
+     * @return true if update was successful, false if the expense was not found or is no longer pending
      */
     public boolean updateApprovalStatus(int expenseId, String status, int reviewerId, String comment) {
+        return updateApprovalStatusIfCurrent(expenseId, PENDING_STATUS, status, reviewerId, comment);
+    }
+    
+    /**
+     * Update approval status for an expense only if it currently has the expected status.
+     * @param expenseId the expense ID
+     * @param expectedStatus the status the approval must currently have
+     * @param status the new approval status ("approved" or "denied")
+     * @param reviewerId the manager's user ID
+     * @param comment optional comment from the manager
+     * @return true if update was successful, false if the expense was not found or has a different status
+     */
+    public boolean updateApprovalStatusIfCurrent(int expenseId, String expectedStatus, String status,
+                                                 int reviewerId, String comment) {
+        ApprovalStatus expected = statusCodesEnabled ? ApprovalStatus.fromValue(expectedStatus) : null;
         String sql = """
             UPDATE approvals 
             SET status = ?, reviewer = ?, comment = ?, review_date = ?
-            WHERE expense_id = ?
-            """;
+            WHERE expense_id = ? AND %s
+            """.formatted(expected != null ? "status_code = " + expected.getCode() : "status = ?");
         
         String reviewDate = LocalDateTime.now().format(DATE_FORMATTER);
         
+        ApprovalWriteEvent event = ApprovalWriteEvent.start();
+        int updatedRows = 0;
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -70,15 +143,95 @@ public class ApprovalRepository {
             stmt.setString(3, comment);
             stmt.setString(4, reviewDate);
             stmt.setInt(5, expenseId);
+            if (expected == null) {
+                stmt.setString(6, expectedStatus);
+            }
             
-            int updatedRows = stmt.executeUpdate();
+            updatedRows = stmt.executeUpdate();
             return updatedRows > 0;
             
         } catch (SQLException e) {
             throw new RuntimeException("Error updating approval for expense: " + expenseId, e);
+        } finally {
+            event.finish(1, updatedRows);
         }
     }
     
+    /**
+     * Update approval status for many expenses in a single transaction.
+     * All decisions are sent as one batched prepared statement and committed together,
+     * so a whole review backlog costs one connection and one journal sync.
+     * Like {@link #updateApprovalStatus}, only pending approvals are updated.
+     * @param decisions the decisions to apply; each must resolve to a valid status
+     * @return update counts aligned with the input list (0 means the expense was not found or is no longer pending)
+     */
+    public int[] updateApprovalStatuses(List<ApprovalDecision> decisions) {
+        if (decisions.isEmpty()) {
+            return new int[0];
+        }
+
+        try (Connection conn = databaseConnection.getConnection()) {
+            return updateApprovalStatuses(conn, decisions);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error updating approvals for " + decisions.size() + " expenses", e);
+        }
+    }
+
+    /**
+     * Update approval status for many expenses in a single transaction on a caller-owned connection.
+     * Used by {@link ApprovalWriteQueue} to commit a group of writes on its long-lived writer connection.
+     * The connection is left open; auto-commit is restored before returning.
+     * @param conn the connection to write on
+     * @param decisions the decisions to apply; each must resolve to a valid status
+     * @return update counts aligned with the input list (0 means the expense was not found or is no longer pending)
+     * @throws SQLException if the batch fails; the transaction is rolled back first
+     */
+    public int[] updateApprovalStatuses(Connection conn, List<ApprovalDecision> decisions) throws SQLException {
+        String sql = """
+            UPDATE approvals
+            SET status = ?, reviewer = ?, comment = ?, review_date = ?
+            WHERE expense_id = ? AND %s
+            """.formatted(statusCodesEnabled ? "status_code = " + ApprovalStatus.PENDING.getCode() : "status = ?");
+
+        String reviewDate = LocalDateTime.now().format(DATE_FORMATTER);
+        ApprovalWriteEvent event = ApprovalWriteEvent.start();
+        int updated = 0;
+        conn.setAutoCommit(false);
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (ApprovalDecision decision : decisions) {
+                stmt.setString(1, decision.toStatus());
+                stmt.setInt(2, decision.getReviewerId());
+                stmt.setString(3, decision.getComment());
+                stmt.setString(4, reviewDate);
+                stmt.setInt(5, decision.getExpenseId());
+                if (!statusCodesEnabled) {
+                    stmt.setString(6, PENDING_STATUS);
+                }
+                stmt.addBatch();
+            }
+
+            int[] updatedRows = stmt.executeBatch();
+            conn.commit();
+            for (int count : updatedRows) {
+                updated += Math.max(count, 0);
+            }
+            return updatedRows;
+
+        } catch (SQLException e) {
+            // Keep the batch failure as the cause callers see, even if the rollback fails too
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+            event.finish(decisions.size(), updated);
+        }
+    }
+
     /**
      * Create a new approval record for an expense.
      * This should typically be called when an expense is first submitted.
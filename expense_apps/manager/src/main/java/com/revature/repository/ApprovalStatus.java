@@ -0,0 +1,65 @@
+package com.revature.repository;
+
+/**
+ * Approval states of an expense.
+ * The employee app stores the status as text in approvals.status; from
+ * {@link SchemaMigrator#STATUS_CODE_VERSION} the same state is also kept as a small
+ * integer in approvals.status_code, with a partial index per code.
+ */
+public enum ApprovalStatus {
+    PENDING(0, "pending"),
+    APPROVED(1, "approved"),
+    DENIED(2, "denied");
+    
+    private static final ApprovalStatus[] BY_CODE = values();
+    
+    private final int code;
+    private final String value;
+    
+    ApprovalStatus(int code, String value) {
+        this.code = code;
+        this.value = value;
+    }
+    
+    /**
+     * @return the integer stored in approvals.status_code
+     */
+    public int getCode() {
+        return code;
+    }
+    
+    /**
+     * @return the text stored in approvals.status
+     */
+    public String getValue() {
+        return value;
+    }
+    
+    /**
+     * Look up a status by its storage code.
+     * @param code the approvals.status_code value
+     * @return the matching status, or null if the code is unknown
+     */
+    public static ApprovalStatus fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+    
+    /**
+     * Look up a status by its stored text.
+     * @param value the approvals.status value, e.g. "pending"
+     * @return the matching status, or null if the text is not a known status
+     */
+    public static ApprovalStatus fromValue(String value) {
+        for (ApprovalStatus status : BY_CODE) {
+            if (status.value.equals(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public String toString() {
+        return value;
+    }
+}
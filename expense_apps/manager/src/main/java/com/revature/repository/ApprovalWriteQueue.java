@@ -0,0 +1,188 @@
+package com.revature.repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Group-commit write pipeline in front of {@link ApprovalRepository}.
+ * Approve/deny calls from concurrent requests are queued and committed together
+ * in small size- or time-bounded groups on a single writer connection, so the
+ * shared SQLite file sees one lock acquisition and one journal sync per group
+ * instead of one per request.
+ */
+public class ApprovalWriteQueue implements AutoCloseable {
+    private final ApprovalRepository approvalRepository;
+    private final DatabaseConnection databaseConnection;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    // Held shared by submit() and exclusively by close(), so no write is queued after the writer's final drain
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+    private Connection writerConnection;
+
+    /**
+     * @param approvalRepository repository used to apply each group as one batched transaction
+     * @param databaseConnection source of the long-lived writer connection
+     * @param maxBatchSize maximum number of writes committed together
+     * @param maxDelayMillis how long the writer waits for more writes after the first one arrives
+     */
+    public ApprovalWriteQueue(ApprovalRepository approvalRepository, DatabaseConnection databaseConnection,
+                              int maxBatchSize, long maxDelayMillis) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.approvalRepository = approvalRepository;
+        this.databaseConnection = databaseConnection;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.writerThread = new Thread(this::runWriter, "approval-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queue an approval status update.
+     * @param expenseId the expense ID
+     * @param status the new approval status ("approved" or "denied")
+     * @param reviewerId the manager's user ID
+     * @param comment optional comment from the manager
+     * @return future completing with true if the expense was updated, once its group has committed
+     */
+    public CompletableFuture<Boolean> submit(int expenseId, String status, int reviewerId, String comment) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        closeLock.readLock().lock();
+        try {
+            if (!running) {
+                result.completeExceptionally(new IllegalStateException("Approval write queue is closed"));
+                return result;
+            }
+            queue.add(new PendingWrite(new ApprovalDecision(expenseId, status, reviewerId, comment), result));
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * @return number of writes waiting for the next group commit
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting writes, commit what is already queued and release the writer connection.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        List<PendingWrite> group = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                collectGroup(group);
+            } catch (InterruptedException e) {
+                // close() was called; drain whatever is left without waiting
+                queue.drainTo(group, maxBatchSize - group.size());
+            }
+
+            if (!group.isEmpty()) {
+                commitGroup(group);
+                group.clear();
+            }
+        }
+
+        closeWriterConnection();
+    }
+
+    private void collectGroup(List<PendingWrite> group) throws InterruptedException {
+        group.add(queue.take());
+        queue.drainTo(group, maxBatchSize - group.size());
+
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (group.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            group.add(next);
+            queue.drainTo(group, maxBatchSize - group.size());
+        }
+    }
+
+    private void commitGroup(List<PendingWrite> group) {
+        List<ApprovalDecision> decisions = new ArrayList<>(group.size());
+        for (PendingWrite write : group) {
+            decisions.add(write.decision);
+        }
+
+        try {
+            int[] updatedRows = approvalRepository.updateApprovalStatuses(getWriterConnection(), decisions);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result.complete(updatedRows[i] > 0);
+            }
+        } catch (SQLException | RuntimeException e) {
+            closeWriterConnection();
+            RuntimeException failure = new RuntimeException("Error committing group of " + group.size() + " approval updates", e);
+            for (PendingWrite write : group) {
+                write.result.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private Connection getWriterConnection() throws SQLException {
+        if (writerConnection == null || writerConnection.isClosed()) {
+            writerConnection = databaseConnection.getConnection();
+        }
+        return writerConnection;
+    }
+
+    private void closeWriterConnection() {
+        if (writerConnection != null) {
+            try {
+                writerConnection.close();
+            } catch (SQLException e) {
+                // Connection is being discarded either way
+            }
+            writerConnection = null;
+        }
+    }
+
+    private static final class PendingWrite {
+        private final ApprovalDecision decision;
+        private final CompletableFuture<Boolean> result;
+
+        private PendingWrite(ApprovalDecision decision, CompletableFuture<Boolean> result) {
+            this.decision = decision;
+            this.result = result;
+        }
+    }
+}
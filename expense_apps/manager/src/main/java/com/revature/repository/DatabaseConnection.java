@@ -6,7 +6,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
 
 /**
@@ -51,4 +53,23 @@ public class DatabaseConnection {
         String url = "jdbc:sqlite:" + databasePath;
         return DriverManager.getConnection(url);
     }
+    
+    /**
+     * Open a connection and run a trivial read, to check the database can be reached and
+     * is not held locked by a writer.
+     * @param timeoutSeconds how long the read may take, including waiting for a lock
+     * @return time taken in nanoseconds, including opening the connection
+     * @throws SQLException if the database cannot be opened or read in time
+     */
+    public long probe(int timeoutSeconds) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.setQueryTimeout(timeoutSeconds);
+            try (ResultSet rs = stmt.executeQuery("SELECT count(*) FROM sqlite_master")) {
+                rs.next();
+            }
+        }
+        return System.nanoTime() - start;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.revature.repository;
+
+/**
+ * EmployeeExpenseTotal model representing one employee's aggregated expenses.
+ * Used by the dashboard summary. Totals are held as exact cents.
+ */
+public class EmployeeExpenseTotal {
+    private int userId;
+    private String username;
+    private int expenseCount;
+    private long totalAmountCents;
+    private long pendingAmountCents;
+    
+    public EmployeeExpenseTotal() {}
+    
+    public EmployeeExpenseTotal(int userId, String username, int expenseCount, long totalAmountCents, long pendingAmountCents) {
+        this.userId = userId;
+        this.username = username;
+        this.expenseCount = expenseCount;
+        this.totalAmountCents = totalAmountCents;
+        this.pendingAmountCents = pendingAmountCents;
+    }
+    
+    // Getters and setters
+    public int getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public int getExpenseCount() {
+        return expenseCount;
+    }
+    
+    public void setExpenseCount(int expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+    
+    public long getTotalAmountCents() {
+        return totalAmountCents;
+    }
+    
+    public void setTotalAmountCents(long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
+    }
+    
+    public long getPendingAmountCents() {
+        return pendingAmountCents;
+    }
+    
+    public void setPendingAmountCents(long pendingAmountCents) {
+        this.pendingAmountCents = pendingAmountCents;
+    }
+    
+    public double getTotalAmount() {
+        return AmountCents.toAmount(totalAmountCents);
+    }
+    
+    public double getPendingAmount() {
+        return AmountCents.toAmount(pendingAmountCents);
+    }
+    
+    @Override
+    public String toString() {
+        return "EmployeeExpenseTotal{" +
+                "userId=" + userId +
+                ", username='" + username + '\'' +
+                ", expenseCount=" + expenseCount +
+                ", totalAmountCents=" + totalAmountCents +
+                ", pendingAmountCents=" + pendingAmountCents +
+                '}';
+    }
+}
@@ -1,12 +1,16 @@
 package com.revature.repository;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * Expense model representing an expense submission.
+ * The amount is also kept as whole cents, which is what reports format from.
  */
 public class Expense {
     private int id;
     private int userId;
     private double amount;
+    private long amountCents;
     private String description;
     private String date;
     
@@ -16,6 +20,7 @@ public class Expense {
         this.id = id;
         this.userId = userId;
         this.amount = amount;
+        this.amountCents = AmountCents.fromAmount(amount);
         this.description = description;
         this.date = date;
     }
@@ -43,6 +48,17 @@ public class Expense {
     
     public void setAmount(double amount) {
         this.amount = amount;
+        this.amountCents = AmountCents.fromAmount(amount);
+    }
+    
+    @JsonIgnore
+    public long getAmountCents() {
+        return amountCents;
+    }
+    
+    public void setAmountCents(long amountCents) {
+        this.amount = AmountCents.toAmount(amountCents);
+        this.amountCents = amountCents;
     }
     
     public String getDescription() {
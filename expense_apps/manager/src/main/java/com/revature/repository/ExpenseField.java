@@ -0,0 +1,52 @@
+package com.revature.repository;
+
+/**
+ * Fields of an expense list row that can be requested individually with {@code fields=}.
+ * Names match the flat {@link ExpenseRow} components, with {@link #AMOUNT} in currency units.
+ */
+public enum ExpenseField {
+    ID("id"),
+    USER_ID("userId"),
+    AMOUNT("amount"),
+    DESCRIPTION("description"),
+    DATE("date"),
+    USERNAME("username"),
+    ROLE("role"),
+    APPROVAL_ID("approvalId"),
+    STATUS("status"),
+    REVIEWER("reviewer"),
+    COMMENT("comment"),
+    REVIEW_DATE("reviewDate");
+    
+    private final String fieldName;
+    
+    ExpenseField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+    
+    /**
+     * @return the field's name in requests and JSON output
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+    
+    /**
+     * Look up a field by its request name.
+     * @param fieldName the name, e.g. "reviewDate"
+     * @return the matching field, or null if there is none
+     */
+    public static ExpenseField fromFieldName(String fieldName) {
+        for (ExpenseField field : values()) {
+            if (field.fieldName.equals(fieldName)) {
+                return field;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public String toString() {
+        return fieldName;
+    }
+}
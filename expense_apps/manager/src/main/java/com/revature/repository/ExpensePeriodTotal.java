@@ -0,0 +1,64 @@
+package com.revature.repository;
+
+import java.time.LocalDate;
+
+/**
+ * ExpensePeriodTotal model representing aggregated expenses for one day, week or month.
+ * The period is identified by the epoch day (days since 1970-01-01) it starts on.
+ * Totals are held as exact cents.
+ */
+public class ExpensePeriodTotal {
+    private long startEpochDay;
+    private int expenseCount;
+    private long totalAmountCents;
+    
+    public ExpensePeriodTotal() {}
+    
+    public ExpensePeriodTotal(long startEpochDay, int expenseCount, long totalAmountCents) {
+        this.startEpochDay = startEpochDay;
+        this.expenseCount = expenseCount;
+        this.totalAmountCents = totalAmountCents;
+    }
+    
+    // Getters and setters
+    public long getStartEpochDay() {
+        return startEpochDay;
+    }
+    
+    public void setStartEpochDay(long startEpochDay) {
+        this.startEpochDay = startEpochDay;
+    }
+    
+    public int getExpenseCount() {
+        return expenseCount;
+    }
+    
+    public void setExpenseCount(int expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+    
+    public long getTotalAmountCents() {
+        return totalAmountCents;
+    }
+    
+    public void setTotalAmountCents(long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
+    }
+    
+    public String getStartDate() {
+        return LocalDate.ofEpochDay(startEpochDay).toString();
+    }
+    
+    public double getTotalAmount() {
+        return AmountCents.toAmount(totalAmountCents);
+    }
+    
+    @Override
+    public String toString() {
+        return "ExpensePeriodTotal{" +
+                "startEpochDay=" + startEpochDay +
+                ", expenseCount=" + expenseCount +
+                ", totalAmountCents=" + totalAmountCents +
+                '}';
+    }
+}
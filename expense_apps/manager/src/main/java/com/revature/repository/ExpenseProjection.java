@@ -0,0 +1,21 @@
+package com.revature.repository;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ExpenseProjection model representing an expense list narrowed to a set of fields.
+ * Only the requested fields are selected and filled in on each row; the rest keep
+ * their default values and are left out of the JSON, which is a flat object per row.
+ * @param fields the requested fields, in {@link ExpenseField} declaration order
+ * @param rows the matching rows
+ */
+@JsonSerialize(using = ExpenseProjectionJsonSerializer.class)
+public record ExpenseProjection(Set<ExpenseField> fields, List<ExpenseRow> rows) {
+    
+    public int size() {
+        return rows.size();
+    }
+}
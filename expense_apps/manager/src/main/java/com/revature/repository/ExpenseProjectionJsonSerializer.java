@@ -0,0 +1,67 @@
+package com.revature.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Writes an ExpenseProjection as a JSON array with one flat object per row,
+ * containing only the projection's fields.
+ */
+public class ExpenseProjectionJsonSerializer extends StdSerializer<ExpenseProjection> {
+    
+    public ExpenseProjectionJsonSerializer() {
+        super(ExpenseProjection.class);
+    }
+    
+    @Override
+    public void serialize(ExpenseProjection projection, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray();
+        for (ExpenseRow row : projection.rows()) {
+            writeRow(gen, projection.fields(), row);
+        }
+        gen.writeEndArray();
+    }
+    
+    /**
+     * Write one row as a flat object holding only the given fields.
+     * @param gen the generator to write to
+     * @param fields the fields to write, in iteration order
+     * @param row the row
+     * @throws IOException if writing fails
+     */
+    public static void writeRow(JsonGenerator gen, Set<ExpenseField> fields, ExpenseRow row) throws IOException {
+        gen.writeStartObject();
+        for (ExpenseField field : fields) {
+            writeField(gen, field, row);
+        }
+        gen.writeEndObject();
+    }
+    
+    private static void writeField(JsonGenerator gen, ExpenseField field, ExpenseRow row) throws IOException {
+        gen.writeFieldName(field.getFieldName());
+        switch (field) {
+            case ID -> gen.writeNumber(row.id());
+            case USER_ID -> gen.writeNumber(row.userId());
+            case AMOUNT -> gen.writeNumber(row.amount());
+            case DESCRIPTION -> gen.writeString(row.description());
+            case DATE -> gen.writeString(row.date());
+            case USERNAME -> gen.writeString(row.username());
+            case ROLE -> gen.writeString(row.role());
+            case APPROVAL_ID -> gen.writeNumber(row.approvalId());
+            case STATUS -> gen.writeString(row.status());
+            case REVIEWER -> {
+                if (row.reviewer() != null) {
+                    gen.writeNumber(row.reviewer());
+                } else {
+                    gen.writeNull();
+                }
+            }
+            case COMMENT -> gen.writeString(row.comment());
+            case REVIEW_DATE -> gen.writeString(row.reviewDate());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.revature.repository;
+
+import java.util.Set;
+
+/**
+ * ExpenseQuery model representing a combination of expense filters for search and reports.
+ * Unset (null) criteria are not applied. Compiled to a single SQL statement by
+ * {@link ExpenseRepository#searchExpenses(ExpenseQuery)}.
+ */
+public class ExpenseQuery {
+    public static final Set<String> SORT_FIELDS = Set.of("date", "amount", "employee", "status", "id");
+    public static final String DEFAULT_SORT = "date";
+    
+    private Integer employeeId;
+    private String status;
+    private String startDate;
+    private String endDate;
+    private Double minAmount;
+    private Double maxAmount;
+    private String category;
+    private String sort = DEFAULT_SORT;
+    private boolean descending = true;
+    private Integer limit;
+    
+    public ExpenseQuery() {}
+    
+    // Getters and setters
+    public Integer getEmployeeId() {
+        return employeeId;
+    }
+    
+    public void setEmployeeId(Integer employeeId) {
+        this.employeeId = employeeId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+    
+    public String getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+    
+    public Double getMinAmount() {
+        return minAmount;
+    }
+    
+    public void setMinAmount(Double minAmount) {
+        this.minAmount = minAmount;
+    }
+    
+    public Double getMaxAmount() {
+        return maxAmount;
+    }
+    
+    public void setMaxAmount(Double maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public String getSort() {
+        return sort;
+    }
+    
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+    
+    public boolean isDescending() {
+        return descending;
+    }
+    
+    public void setDescending(boolean descending) {
+        this.descending = descending;
+    }
+    
+    public Integer getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+    
+    @Override
+    public String toString() {
+        return "ExpenseQuery{" +
+                "employeeId=" + employeeId +
+                ", status='" + status + '\'' +
+                ", startDate='" + startDate + '\'' +
+                ", endDate='" + endDate + '\'' +
+                ", minAmount=" + minAmount +
+                ", maxAmount=" + maxAmount +
+                ", category='" + category + '\'' +
+                ", sort='" + sort + '\'' +
+                ", descending=" + descending +
+                ", limit=" + limit +
+                '}';
+    }
+}
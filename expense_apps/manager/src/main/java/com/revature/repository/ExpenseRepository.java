@@ -1,22 +1,77 @@
 package com.revature.repository;
 
+import com.revature.metrics.RepositoryQueryEvent;
+import com.revature.metrics.RequestTiming;
+import com.revature.metrics.TimingPhase;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Repository for expense data access operations.
  * Handles database interactions for expense management and reporting.
  */
 public class ExpenseRepository {
+    /** Shortest search term the trigram index can serve; shorter terms fall back to a table scan. */
+    private static final int MIN_INDEXED_TERM_LENGTH = 3;
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+        "date", "e.date",
+        "amount", "amount_cents",
+        "employee", "u.username",
+        "status", "a.status",
+        "id", "e.id"
+    );
+    
     private final DatabaseConnection databaseConnection;
+    private final boolean fullTextSearchEnabled;
+    /** expenses.amount_cents when the column exists, otherwise the same value computed from amount. */
+    private final String amountCentsExpression;
+    /** Date column that range filters compare: expenses.date_epoch_day when it exists, otherwise the TEXT date. */
+    private final String dateRangeColumn;
+    /** expenses.date_epoch_day when the column exists, otherwise the same value computed from date. */
+    private final String dateEpochDayExpression;
+    private final boolean dateEpochDayEnabled;
+    private final boolean statusCodesEnabled;
+    private final boolean changeTokenEnabled;
+    private final String selectColumns;
+    /** Compiled search SQL keyed by query shape (which criteria are set, sort, limit). */
+    private final Map<String, String> searchSqlCache = new ConcurrentHashMap<>();
     
     public ExpenseRepository(DatabaseConnection databaseConnection) {
+        this(databaseConnection, 0);
+    }
+    
+    /**
+     * @param schemaVersion schema version reported by {@link SchemaMigrator#migrate()}; decides
+     *                      whether the expenses_fts index, the amount_cents and
+     *                      date_epoch_day columns, approvals.status_code and the
+     *                      change_counter table are used
+     */
+    public ExpenseRepository(DatabaseConnection databaseConnection, int schemaVersion) {
         this.databaseConnection = databaseConnection;
+        this.fullTextSearchEnabled = schemaVersion >= SchemaMigrator.FULL_TEXT_SEARCH_VERSION;
+        this.amountCentsExpression = schemaVersion >= SchemaMigrator.AMOUNT_CENTS_VERSION
+            ? "e.amount_cents"
+            : "CAST(ROUND(e.amount * 100) AS INTEGER)";
+        this.dateEpochDayEnabled = schemaVersion >= SchemaMigrator.DATE_EPOCH_DAY_VERSION;
+        this.dateEpochDayExpression = dateEpochDayEnabled
+            ? "e.date_epoch_day"
+            : "CAST(julianday(e.date) - 2440587.5 AS INTEGER)";
+        this.dateRangeColumn = dateEpochDayEnabled ? "e.date_epoch_day" : "e.date";
+        this.statusCodesEnabled = schemaVersion >= SchemaMigrator.STATUS_CODE_VERSION;
+        this.changeTokenEnabled = schemaVersion >= SchemaMigrator.CHANGE_TOKEN_VERSION;
+        this.selectColumns = ExpenseWithUserRowMapper.selectColumns(amountCentsExpression, statusCodesEnabled);
     }
     
     /**
@@ -27,6 +82,7 @@ public class ExpenseRepository {
     public Optional<Expense> findById(int expenseId) {
         String sql = "SELECT id, user_id, amount, description, date FROM expenses WHERE id = ?";
         
+        long timing = RequestTiming.begin();
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -39,6 +95,8 @@ public class ExpenseRepository {
             
         } catch (SQLException e) {
             throw new RuntimeException("Error finding expense by ID: " + expenseId, e);
+        } finally {
+            RequestTiming.end(TimingPhase.DB, timing);
         }
         
         return Optional.empty();
@@ -50,29 +108,38 @@ public class ExpenseRepository {
      */
     public List<ExpenseWithUser> findPendingExpensesWithUsers() {
         String sql = """
-            SELECT e.id, e.user_id, e.amount, e.description, e.date,
-                   u.username, u.role,
-                   a.id as approval_id, a.status, a.reviewer, a.comment, a.review_date
+            SELECT %s
             FROM expenses e
             JOIN users u ON e.user_id = u.id
             JOIN approvals a ON e.id = a.expense_id
-            WHERE a.status = 'pending'
+            WHERE %s
             ORDER BY e.date DESC
-            """;
+            """.formatted(selectColumns, statusPredicate(ApprovalStatus.PENDING));
         
         List<ExpenseWithUser> results = new ArrayList<>();
         
+        RepositoryQueryEvent event = RepositoryQueryEvent.start("findPendingExpensesWithUsers");
+        long timing = RequestTiming.begin();
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             ResultSet rs = stmt.executeQuery();
+            ExpenseWithUserRowMapper rowMapper = newRowMapper();
             
+            long mappingNanos = 0;
             while (rs.next()) {
-                results.add(mapRowToExpenseWithUser(rs));
+                long mapping = System.nanoTime();
+                ExpenseWithUser row = rowMapper.map(rs);
+                mappingNanos += System.nanoTime() - mapping;
+                results.add(row);
             }
+            RequestTiming.add(TimingPhase.MAP, mappingNanos);
             
         } catch (SQLException e) {
             throw new RuntimeException("Error finding pending expenses", e);
+        } finally {
+            RequestTiming.end(TimingPhase.DB, timing);
+            event.finish(results.size());
         }
         
         return results;
@@ -85,30 +152,39 @@ public class ExpenseRepository {
      */
     public List<ExpenseWithUser> findExpensesByUser(int userId) {
         String sql = """
-            SELECT e.id, e.user_id, e.amount, e.description, e.date,
-                   u.username, u.role,
-                   a.id as approval_id, a.status, a.reviewer, a.comment, a.review_date
+            SELECT %s
             FROM expenses e
             JOIN users u ON e.user_id = u.id
             JOIN approvals a ON e.id = a.expense_id
             WHERE e.user_id = ?
             ORDER BY e.date DESC
-            """;
+            """.formatted(selectColumns);
         
         List<ExpenseWithUser> results = new ArrayList<>();
         
+        RepositoryQueryEvent event = RepositoryQueryEvent.start("findExpensesByUser");
+        long timing = RequestTiming.begin();
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
+            ExpenseWithUserRowMapper rowMapper = newRowMapper();
             
+            long mappingNanos = 0;
             while (rs.next()) {
-                results.add(mapRowToExpenseWithUser(rs));
+                long mapping = System.nanoTime();
+                ExpenseWithUser row = rowMapper.map(rs);
+                mappingNanos += System.nanoTime() - mapping;
+                results.add(row);
             }
+            RequestTiming.add(TimingPhase.MAP, mappingNanos);
             
         } catch (SQLException e) {
             throw new RuntimeException("Error finding expenses for user: " + userId, e);
+        } finally {
+            RequestTiming.end(TimingPhase.DB, timing);
+            event.finish(results.size());
         }
         
         return results;
@@ -122,31 +198,40 @@ public class ExpenseRepository {
      */
     public List<ExpenseWithUser> findExpensesByDateRange(String startDate, String endDate) {
         String sql = """
-            SELECT e.id, e.user_id, e.amount, e.description, e.date,
-                   u.username, u.role,
-                   a.id as approval_id, a.status, a.reviewer, a.comment, a.review_date
+            SELECT %s
             FROM expenses e
             JOIN users u ON e.user_id = u.id
             JOIN approvals a ON e.id = a.expense_id
-            WHERE e.date >= ? AND e.date <= ?
+            WHERE %2$s >= ? AND %2$s <= ?
             ORDER BY e.date DESC
-            """;
+            """.formatted(selectColumns, dateRangeColumn);
         
         List<ExpenseWithUser> results = new ArrayList<>();
         
+        RepositoryQueryEvent event = RepositoryQueryEvent.start("findExpensesByDateRange");
+        long timing = RequestTiming.begin();
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, startDate);
-            stmt.setString(2, endDate);
+            bindDate(stmt, 1, startDate);
+            bindDate(stmt, 2, endDate);
             ResultSet rs = stmt.executeQuery();
+            ExpenseWithUserRowMapper rowMapper = newRowMapper();
             
+            long mappingNanos = 0;
             while (rs.next()) {
-                results.add(mapRowToExpenseWithUser(rs));
+                long mapping = System.nanoTime();
+                ExpenseWithUser row = rowMapper.map(rs);
+                mappingNanos += System.nanoTime() - mapping;
+                results.add(row);
             }
+            RequestTiming.add(TimingPhase.MAP, mappingNanos);
             
         } catch (SQLException e) {
             throw new RuntimeException("Error finding expenses by date range: " + startDate + " to " + endDate, e);
+        } finally {
+            RequestTiming.end(TimingPhase.DB, timing);
+            event.finish(results.size());
         }
         
         return results;
@@ -154,35 +239,50 @@ public class ExpenseRepository {
     
     /**
      * Get expenses grouped by description (category).
+     * Matches the category anywhere in the description, case-insensitively. When the
+     * trigram index is available, terms of three or more characters are looked up in
+     * expenses_fts instead of scanning every description.
      * @param category the description/category to filter by
      * @return List of ExpenseWithUser objects
      */
     public List<ExpenseWithUser> findExpensesByCategory(String category) {
+        String descriptionFilter = useFullTextIndex(category)
+            ? "e.id IN (SELECT rowid FROM expenses_fts WHERE description LIKE ?)"
+            : "e.description LIKE ?";
         String sql = """
-            SELECT e.id, e.user_id, e.amount, e.description, e.date,
-                   u.username, u.role,
-                   a.id as approval_id, a.status, a.reviewer, a.comment, a.review_date
+            SELECT %s
             FROM expenses e
             JOIN users u ON e.user_id = u.id
             JOIN approvals a ON e.id = a.expense_id
-            WHERE e.description LIKE ?
+            WHERE %s
             ORDER BY e.date DESC
-            """;
+            """.formatted(selectColumns, descriptionFilter);
         
         List<ExpenseWithUser> results = new ArrayList<>();
         
+        RepositoryQueryEvent event = RepositoryQueryEvent.start("findExpensesByCategory");
+        long timing = RequestTiming.begin();
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, "%" + category + "%");
             ResultSet rs = stmt.executeQuery();
+            ExpenseWithUserRowMapper rowMapper = newRowMapper();
             
+            long mappingNanos = 0;
             while (rs.next()) {
-                results.add(mapRowToExpenseWithUser(rs));
+                long mapping = System.nanoTime();
+                ExpenseWithUser row = rowMapper.map(rs);
+                mappingNanos += System.nanoTime() - mapping;
+                results.add(row);
             }
+            RequestTiming.add(TimingPhase.MAP, mappingNanos);
             
         } catch (SQLException e) {
             throw new RuntimeException("Error finding expenses by category: " + category, e);
+        } finally {
+            RequestTiming.end(TimingPhase.DB, timing);
+            event.finish(results.size());
         }
         
         return results;
@@ -194,33 +294,419 @@ public class ExpenseRepository {
      */
     public List<ExpenseWithUser> findAllExpensesWithUsers() {
         String sql = """
-            SELECT e.id, e.user_id, e.amount, e.description, e.date,
-                   u.username, u.role,
-                   a.id as approval_id, a.status, a.reviewer, a.comment, a.review_date
+            SELECT %s
             FROM expenses e
             JOIN users u ON e.user_id = u.id
             JOIN approvals a ON e.id = a.expense_id
             ORDER BY e.date DESC
-            """;
+            """.formatted(selectColumns);
         
         List<ExpenseWithUser> results = new ArrayList<>();
         
+        RepositoryQueryEvent event = RepositoryQueryEvent.start("findAllExpensesWithUsers");
+        long timing = RequestTiming.begin();
         try (Connection conn = databaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             ResultSet rs = stmt.executeQuery();
+            ExpenseWithUserRowMapper rowMapper = newRowMapper();
             
+            long mappingNanos = 0;
             while (rs.next()) {
-                results.add(mapRowToExpenseWithUser(rs));
+                long mapping = System.nanoTime();
+                ExpenseWithUser row = rowMapper.map(rs);
+                mappingNanos += System.nanoTime() - mapping;
+                results.add(row);
             }
+            RequestTiming.add(TimingPhase.MAP, mappingNanos);
             
         } catch (SQLException e) {
             throw new RuntimeException("Error finding all expenses", e);
+        } finally {
+            RequestTiming.end(TimingPhase.DB, timing);
+            event.finish(results.size());
         }
         
         return results;
     }
     
+    /**
+     * Search expenses by any combination of criteria in a single statement.
+     * Only the criteria that are set become predicates, and values are always bound as
+     * parameters, so the number of distinct SQL strings is small; each one is built once
+     * and reused from a cache keyed by the query's shape.
+     * @param query the search criteria
+     * @return List of matching ExpenseWithUser objects
+     */
+    public List<ExpenseWithUser> searchExpenses(ExpenseQuery query) {
+        return search(query, selectColumns, "*", ExpenseWithUserRowMapper::map);
+    }
+    
+    /**
+     * Search expenses like {@link #searchExpenses(ExpenseQuery)}, returning flat immutable rows.
+     * Each row is a single object instead of four, which is what bulk lists and reports need.
+     * @param query the search criteria
+     * @return List of matching ExpenseRow objects
+     */
+    public List<ExpenseRow> searchExpenseRows(ExpenseQuery query) {
+        return search(query, selectColumns, "*", ExpenseWithUserRowMapper::mapRow);
+    }
+    
+    /**
+     * Search expenses like {@link #searchExpenseRows(ExpenseQuery)}, selecting and mapping only
+     * the given fields.
+     * @param query the search criteria
+     * @param fields the fields to return; must not be empty
+     * @return ExpenseProjection holding the requested fields of the matching rows
+     */
+    public ExpenseProjection searchExpenseProjection(ExpenseQuery query, Set<ExpenseField> fields) {
+        Set<ExpenseField> orderedFields = EnumSet.copyOf(fields);
+        String columns = ExpenseWithUserRowMapper.projectionColumns(orderedFields, amountCentsExpression, statusCodesEnabled);
+        List<ExpenseRow> rows = search(query, columns, fieldsKey(orderedFields),
+            (mapper, rs) -> mapper.mapProjectedRow(rs, orderedFields));
+        return new ExpenseProjection(orderedFields, rows);
+    }
+    
+    /**
+     * Search expenses like {@link #searchExpenseRows(ExpenseQuery)}, handing each row to a consumer
+     * as it is read from the result set cursor instead of collecting a list. The connection stays
+     * open until the consumer has seen the last row.
+     * @param query the search criteria
+     * @param fields the fields to select and map, or null for all of them
+     * @param consumer receives each matching row in order
+     * @return number of rows passed to the consumer
+     */
+    public int streamExpenseRows(ExpenseQuery query, Set<ExpenseField> fields, Consumer<ExpenseRow> consumer) {
+        if (fields == null) {
+            return forEachSearchRow(query, selectColumns, "*", ExpenseWithUserRowMapper::mapRow, consumer);
+        }
+        Set<ExpenseField> orderedFields = EnumSet.copyOf(fields);
+        String columns = ExpenseWithUserRowMapper.projectionColumns(orderedFields, amountCentsExpression, statusCodesEnabled);
+        return forEachSearchRow(query, columns, fieldsKey(orderedFields),
+            (mapper, rs) -> mapper.mapProjectedRow(rs, orderedFields), consumer);
+    }
+    
+    private <T> List<T> search(ExpenseQuery query, String columns, String columnsKey, RowMapper<T> rowMapper) {
+        List<T> results = new ArrayList<>();
+        forEachSearchRow(query, columns, columnsKey, rowMapper, results::add);
+        return results;
+    }
+    
+    /**
+     * @param columns the select list
+     * @param columnsKey short key identifying the select list in the SQL cache
+     * @return number of rows passed to the consumer
+     */
+    private <T> int forEachSearchRow(ExpenseQuery query, String columns, String columnsKey,
+                                     RowMapper<T> rowMapper, Consumer<? super T> consumer) {
+        boolean fullText = query.getCategory() != null && useFullTextIndex(query.getCategory());
+        String sql = searchSqlCache.computeIfAbsent(searchShape(query, fullText) + ":" + columnsKey,
+            shape -> buildSearchSql(query, fullText, columns));
+        
+        int count = 0;
+        
+        RepositoryQueryEvent event = RepositoryQueryEvent.start("searchExpenses");
+        long timing = RequestTiming.begin();
+        try (Connection conn = databaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int index = 1;
+            if (query.getEmployeeId() != null) {
+                stmt.setInt(index++, query.getEmployeeId());
+            }
+            if (query.getStatus() != null && codedStatus(query) == null) {
+                stmt.setString(index++, query.getStatus());
+            }
+            if (query.getStartDate() != null) {
+                bindDate(stmt, index++, query.getStartDate());
+            }
+            if (query.getEndDate() != null) {
+                bindDate(stmt, index++, query.getEndDate());
+            }
+            if (query.getMinAmount() != null) {
+                stmt.setLong(index++, AmountCents.fromAmount(query.getMinAmount()));
+            }
+            if (query.getMaxAmount() != null) {
+                stmt.setLong(index++, AmountCents.fromAmount(query.getMaxAmount()));
+            }
+            if (query.getCategory() != null) {
+                stmt.setString(index++, "%" + query.getCategory() + "%");
+            }
+            if (query.getLimit() != null) {
+                stmt.setInt(index++, query.getLimit());
+            }
+            ResultSet rs = stmt.executeQuery();
+            ExpenseWithUserRowMapper mapper = newRowMapper();
+            
+            long mappingNanos = 0;
+            while (rs.next()) {
+                long mapping = System.nanoTime();
+                T row = rowMapper.map(mapper, rs);
+                mappingNanos += System.nanoTime() - mapping;
+                consumer.accept(row);
+                count++;
+            }
+            RequestTiming.add(TimingPhase.MAP, mappingNanos);
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("Error searching expenses: " + query, e);
+        } finally {
+            RequestTiming.end(TimingPhase.DB, timing);
+            event.finish(count);
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Compute the dashboard summary with SQL aggregates: counts and totals per approval
+     * status, and per-employee totals. Only aggregated rows cross JDBC, and totals are
+     * exact integer sums of cents.
+     * @return ExpenseSummary for all expenses
+     */
+    public ExpenseSummary getExpenseSummary() {
+        String statusSql = """
+            SELECT a.status, COUNT(*) AS expense_count, COALESCE(SUM(%s), 0) AS total_cents
+            FROM expenses e
+            JOIN approvals a ON e.id = a.expense_id
+            GROUP BY a.status
+            ORDER BY a.status
+            """.formatted(amountCentsExpression);
+        String employeeSql = """
+            SELECT u.id AS user_id, u.username,
+                   COUNT(*) AS expense_count,
+                   COALESCE(SUM(%1$s), 0) AS total_cents,
+                   COALESCE(SUM(CASE WHEN a.status = 'pending' THEN %1$s ELSE 0 END), 0) AS pending_cents
+            FROM expenses e
+            JOIN users u ON e.user_id = u.id
+            JOIN approvals a ON e.id = a.expense_id
+            GROUP BY u.id, u.username
+            ORDER BY total_cents DESC, u.username
+            """.formatted(amountCentsExpression);
+        
+        ExpenseSummary summary = new ExpenseSummary();
+        
+        RepositoryQueryEvent event = RepositoryQueryEvent.start("getExpenseSummary");
+        long timing = RequestTiming.begin();
+        try (Connection conn = databaseConnection.getConnection()) {
+            
+            try (PreparedStatement stmt = conn.prepareStatement(statusSql)) {
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    String status = rs.getString("status");
+                    int count = rs.getInt("expense_count");
+                    long totalCents = rs.getLong("total_cents");
+                    summary.getStatusCounts().put(status, count);
+                    summary.getStatusTotalCents().put(status, totalCents);
+                    if (ApprovalRepository.PENDING_STATUS.equals(status)) {
+                        summary.setPendingCount(count);
+                        summary.setPendingTotalCents(totalCents);
+                    }
+                }
+            }
+            
+            try (PreparedStatement stmt = conn.prepareStatement(employeeSql)) {
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    summary.getEmployeeTotals().add(new EmployeeExpenseTotal(
+                        rs.getInt("user_id"),
+                        rs.getString("username"),
+                        rs.getInt("expense_count"),
+                        rs.getLong("total_cents"),
+                        rs.getLong("pending_cents")
+                    ));
+                }
+            }
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("Error computing expense summary", e);
+        } finally {
+            RequestTiming.end(TimingPhase.DB, timing);
+            event.finish(summary.getStatusCounts().size() + summary.getEmployeeTotals().size());
+        }
+        
+        return summary;
+    }
+    
+    /**
+     * Get the database change token: a counter that triggers bump on every insert, update or
+     * delete of expenses, approvals or users, by either app. Equal tokens mean the expense
+     * data has not changed in between.
+     * @return the current token, or -1 if the schema has no change_counter table
+     */
+    public long getChangeToken() {
+        if (!changeTokenEnabled) {
+            return -1;
+        }
+        String sql = "SELECT version FROM change_counter WHERE id = 1";
+        
+        long timing = RequestTiming.begin();
+        try (Connection conn = databaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() ? rs.getLong("version") : -1;
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading database change token", e);
+        } finally {
+            RequestTiming.end(TimingPhase.DB, timing);
+        }
+    }
+    
+    /**
+     * Get expense counts and totals per day within a range of epoch days.
+     * Days without expenses are omitted.
+     * @param startEpochDay first day (inclusive), as days since 1970-01-01
+     * @param endEpochDay last day (inclusive), as days since 1970-01-01
+     * @return List of ExpensePeriodTotal objects, one per day, in ascending day order
+     */
+    public List<ExpensePeriodTotal> findDailyTotals(long startEpochDay, long endEpochDay) {
+        String sql = """
+            SELECT %1$s AS epoch_day, COUNT(*) AS expense_count, COALESCE(SUM(%2$s), 0) AS total_cents
+            FROM expenses e
+            WHERE %1$s >= ? AND %1$s <= ?
+            GROUP BY epoch_day
+            ORDER BY epoch_day
+            """.formatted(dateEpochDayExpression, amountCentsExpression);
+        
+        List<ExpensePeriodTotal> results = new ArrayList<>();
+        
+        RepositoryQueryEvent event = RepositoryQueryEvent.start("findDailyTotals");
+        long timing = RequestTiming.begin();
+        try (Connection conn = databaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setLong(1, startEpochDay);
+            stmt.setLong(2, endEpochDay);
+            ResultSet rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                results.add(new ExpensePeriodTotal(
+                    rs.getLong("epoch_day"),
+                    rs.getInt("expense_count"),
+                    rs.getLong("total_cents")
+                ));
+            }
+            
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding daily expense totals", e);
+        } finally {
+            RequestTiming.end(TimingPhase.DB, timing);
+            event.finish(results.size());
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Status filters are written as a literal code so SQLite can match them to the per-status
+     * partial indexes, which a bound parameter cannot do.
+     */
+    private String statusPredicate(ApprovalStatus status) {
+        return statusCodesEnabled
+            ? "a.status_code = " + status.getCode()
+            : "a.status = '" + status.getValue() + "'";
+    }
+    
+    /**
+     * @return the query's status filter if it can be served from a status_code partial index, otherwise null
+     */
+    private ApprovalStatus codedStatus(ExpenseQuery query) {
+        return statusCodesEnabled && query.getStatus() != null ? ApprovalStatus.fromValue(query.getStatus()) : null;
+    }
+    
+    private ExpenseWithUserRowMapper newRowMapper() {
+        return new ExpenseWithUserRowMapper(statusCodesEnabled);
+    }
+    
+    private void bindDate(PreparedStatement stmt, int index, String date) throws SQLException {
+        if (dateEpochDayEnabled) {
+            stmt.setLong(index, LocalDate.parse(date).toEpochDay());
+        } else {
+            stmt.setString(index, date);
+        }
+    }
+    
+    private String searchShape(ExpenseQuery query, boolean fullText) {
+        StringBuilder shape = new StringBuilder();
+        shape.append(query.getEmployeeId() != null ? 'u' : '-');
+        ApprovalStatus codedStatus = codedStatus(query);
+        shape.append(codedStatus != null ? (char) ('0' + codedStatus.getCode()) : query.getStatus() != null ? 's' : '-');
+        shape.append(query.getStartDate() != null ? 'f' : '-');
+        shape.append(query.getEndDate() != null ? 't' : '-');
+        shape.append(query.getMinAmount() != null ? 'm' : '-');
+        shape.append(query.getMaxAmount() != null ? 'x' : '-');
+        shape.append(query.getCategory() == null ? '-' : fullText ? 'F' : 'c');
+        shape.append(query.getLimit() != null ? 'l' : '-');
+        shape.append(':').append(query.getSort()).append(query.isDescending() ? ":desc" : ":asc");
+        return shape.toString();
+    }
+    
+    private String fieldsKey(Set<ExpenseField> fields) {
+        long mask = 0;
+        for (ExpenseField field : fields) {
+            mask |= 1L << field.ordinal();
+        }
+        return Long.toHexString(mask);
+    }
+    
+    private String buildSearchSql(ExpenseQuery query, boolean fullText, String columns) {
+        List<String> predicates = new ArrayList<>();
+        if (query.getEmployeeId() != null) {
+            predicates.add("e.user_id = ?");
+        }
+        ApprovalStatus codedStatus = codedStatus(query);
+        if (codedStatus != null) {
+            predicates.add(statusPredicate(codedStatus));
+        } else if (query.getStatus() != null) {
+            predicates.add("a.status = ?");
+        }
+        if (query.getStartDate() != null) {
+            predicates.add(dateRangeColumn + " >= ?");
+        }
+        if (query.getEndDate() != null) {
+            predicates.add(dateRangeColumn + " <= ?");
+        }
+        if (query.getMinAmount() != null) {
+            predicates.add(amountCentsExpression + " >= ?");
+        }
+        if (query.getMaxAmount() != null) {
+            predicates.add(amountCentsExpression + " <= ?");
+        }
+        if (query.getCategory() != null) {
+            predicates.add(fullText
+                ? "e.id IN (SELECT rowid FROM expenses_fts WHERE description LIKE ?)"
+                : "e.description LIKE ?");
+        }
+        
+        String sortColumn = SORT_COLUMNS.get(query.getSort());
+        if (sortColumn == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + query.getSort());
+        }
+        String direction = query.isDescending() ? "DESC" : "ASC";
+        
+        StringBuilder sql = new StringBuilder("""
+            SELECT %s
+            FROM expenses e
+            JOIN users u ON e.user_id = u.id
+            JOIN approvals a ON e.id = a.expense_id
+            """.formatted(columns));
+        if (!predicates.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", predicates)).append('\n');
+        }
+        sql.append("ORDER BY ").append(sortColumn).append(' ').append(direction)
+           .append(", e.id ").append(direction).append('\n');
+        if (query.getLimit() != null) {
+            sql.append("LIMIT ?\n");
+        }
+        return sql.toString();
+    }
+    
+    private boolean useFullTextIndex(String term) {
+        return fullTextSearchEnabled && term != null && term.length() >= MIN_INDEXED_TERM_LENGTH;
+    }
+    
     private Expense mapRowToExpense(ResultSet rs) throws SQLException {
         Expense expense = new Expense();
         expense.setId(rs.getInt("id"));
@@ -231,30 +717,8 @@ public class ExpenseRepository {
         return expense;
     }
     
-    private ExpenseWithUser mapRowToExpenseWithUser(ResultSet rs) throws SQLException {
-        // Map expense
-        Expense expense = new Expense();
-        expense.setId(rs.getInt("id"));
-        expense.setUserId(rs.getInt("user_id"));
-        expense.setAmount(rs.getDouble("amount"));
-        expense.setDescription(rs.getString("description"));
-        expense.setDate(rs.getString("date"));
-        
-        // Map user
-        User user = new User();
-        user.setId(rs.getInt("user_id"));
-        user.setUsername(rs.getString("username"));
-        user.setRole(rs.getString("role"));
-        
-        // Map approval
-        Approval approval = new Approval();
-        approval.setId(rs.getInt("approval_id"));
-        approval.setExpenseId(rs.getInt("id"));
-        approval.setStatus(rs.getString("status"));
-        approval.setReviewer((Integer) rs.getObject("reviewer"));
-        approval.setComment(rs.getString("comment"));
-        approval.setReviewDate(rs.getString("review_date"));
-        
-        return new ExpenseWithUser(expense, user, approval);
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ExpenseWithUserRowMapper mapper, ResultSet rs) throws SQLException;
     }
-}
\ No newline at end of file
+}
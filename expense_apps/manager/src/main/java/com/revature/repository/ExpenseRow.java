@@ -0,0 +1,41 @@
+package com.revature.repository;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * ExpenseRow model representing one row of an expense list or report query, with the
+ * expense, employee and approval columns held flat in a single immutable object.
+ * Serializes to the same JSON as {@link ExpenseWithUser}, so it can replace it on the wire.
+ * @param amountCents expense amount in whole cents
+ * @param reviewer reviewing manager's ID, or null while the expense is pending
+ */
+@JsonSerialize(using = ExpenseRowJsonSerializer.class)
+public record ExpenseRow(
+    int id,
+    int userId,
+    long amountCents,
+    String description,
+    String date,
+    String username,
+    String role,
+    int approvalId,
+    String status,
+    Integer reviewer,
+    String comment,
+    String reviewDate
+) {
+    /**
+     * @return the amount in currency units, as ExpenseWithUser exposes it
+     */
+    public double amount() {
+        return AmountCents.toAmount(amountCents);
+    }
+    
+    public boolean isPending() {
+        return "pending".equalsIgnoreCase(status);
+    }
+    
+    public boolean isManager() {
+        return "manager".equalsIgnoreCase(role);
+    }
+}
@@ -0,0 +1,55 @@
+package com.revature.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes an ExpenseRow in the nested expense/user/approval shape that ExpenseWithUser
+ * produces, field for field, without building the nested objects.
+ */
+public class ExpenseRowJsonSerializer extends StdSerializer<ExpenseRow> {
+    
+    public ExpenseRowJsonSerializer() {
+        super(ExpenseRow.class);
+    }
+    
+    @Override
+    public void serialize(ExpenseRow row, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        
+        gen.writeObjectFieldStart("expense");
+        gen.writeNumberField("id", row.id());
+        gen.writeNumberField("userId", row.userId());
+        gen.writeNumberField("amount", AmountCents.toAmount(row.amountCents()));
+        gen.writeStringField("description", row.description());
+        gen.writeStringField("date", row.date());
+        gen.writeEndObject();
+        
+        gen.writeObjectFieldStart("user");
+        gen.writeNumberField("id", row.userId());
+        gen.writeStringField("username", row.username());
+        gen.writeNullField("password");
+        gen.writeStringField("role", row.role());
+        gen.writeBooleanField("manager", row.isManager());
+        gen.writeEndObject();
+        
+        gen.writeObjectFieldStart("approval");
+        gen.writeNumberField("id", row.approvalId());
+        gen.writeNumberField("expenseId", row.id());
+        gen.writeStringField("status", row.status());
+        if (row.reviewer() != null) {
+            gen.writeNumberField("reviewer", row.reviewer());
+        } else {
+            gen.writeNullField("reviewer");
+        }
+        gen.writeStringField("comment", row.comment());
+        gen.writeStringField("reviewDate", row.reviewDate());
+        gen.writeBooleanField("pending", row.isPending());
+        gen.writeEndObject();
+        
+        gen.writeEndObject();
+    }
+}
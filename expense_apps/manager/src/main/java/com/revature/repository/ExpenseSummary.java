@@ -0,0 +1,83 @@
+package com.revature.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ExpenseSummary model representing the aggregate figures shown in the manager dashboard header.
+ * Built from SQL aggregates so the dashboard never has to download every expense.
+ * Totals are held as exact cents; the amount getters convert them for display.
+ */
+public class ExpenseSummary {
+    private int pendingCount;
+    private long pendingTotalCents;
+    private Map<String, Integer> statusCounts = new LinkedHashMap<>();
+    private Map<String, Long> statusTotalCents = new LinkedHashMap<>();
+    private List<EmployeeExpenseTotal> employeeTotals = new ArrayList<>();
+    
+    public ExpenseSummary() {}
+    
+    // Getters and setters
+    public int getPendingCount() {
+        return pendingCount;
+    }
+    
+    public void setPendingCount(int pendingCount) {
+        this.pendingCount = pendingCount;
+    }
+    
+    public long getPendingTotalCents() {
+        return pendingTotalCents;
+    }
+    
+    public void setPendingTotalCents(long pendingTotalCents) {
+        this.pendingTotalCents = pendingTotalCents;
+    }
+    
+    public double getPendingTotal() {
+        return AmountCents.toAmount(pendingTotalCents);
+    }
+    
+    public Map<String, Integer> getStatusCounts() {
+        return statusCounts;
+    }
+    
+    public void setStatusCounts(Map<String, Integer> statusCounts) {
+        this.statusCounts = statusCounts;
+    }
+    
+    public Map<String, Long> getStatusTotalCents() {
+        return statusTotalCents;
+    }
+    
+    public void setStatusTotalCents(Map<String, Long> statusTotalCents) {
+        this.statusTotalCents = statusTotalCents;
+    }
+    
+    public Map<String, Double> getStatusTotals() {
+        Map<String, Double> statusTotals = new LinkedHashMap<>();
+        statusTotalCents.forEach((status, cents) -> statusTotals.put(status, AmountCents.toAmount(cents)));
+        return statusTotals;
+    }
+    
+    public List<EmployeeExpenseTotal> getEmployeeTotals() {
+        return employeeTotals;
+    }
+    
+    public void setEmployeeTotals(List<EmployeeExpenseTotal> employeeTotals) {
+        this.employeeTotals = employeeTotals;
+    }
+    
+    @Override
+    public String toString() {
+        return "ExpenseSummary{" +
+                "pendingCount=" + pendingCount +
+                ", pendingTotalCents=" + pendingTotalCents +
+                ", statusCounts=" + statusCounts +
+                ", statusTotalCents=" + statusTotalCents +
+                ", employeeTotals=" + employeeTotals +
+                '}';
+    }
+}
@@ -0,0 +1,229 @@
+package com.revature.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Maps expense list rows to ExpenseWithUser or ExpenseRow by column position.
+ * Every list query selects {@link #selectColumns(String, boolean)} in this order, so the
+ * positions are fixed at compile time and no per-row column-name lookup is needed. The
+ * amount column holds whole cents. When approvals.status_code is selected, known statuses
+ * are mapped from the integer code and the status text is only read for unknown values.
+ * <p>
+ * Use one instance per query. Within a query, employees are deduplicated by user_id
+ * (their username and role are read once) and the small status and role domains are
+ * canonicalized, so large results hold one copy of each instead of one per row.
+ */
+final class ExpenseWithUserRowMapper {
+    private static final String SELECT_COLUMNS = """
+        e.id, e.user_id, %s AS amount_cents, e.description, e.date,
+               u.username, u.role,
+               a.id as approval_id, a.status, a.reviewer, a.comment, a.review_date""";
+    
+    static final int ID = 1;
+    static final int USER_ID = 2;
+    static final int AMOUNT_CENTS = 3;
+    static final int DESCRIPTION = 4;
+    static final int DATE = 5;
+    static final int USERNAME = 6;
+    static final int ROLE = 7;
+    static final int APPROVAL_ID = 8;
+    static final int STATUS = 9;
+    static final int REVIEWER = 10;
+    static final int COMMENT = 11;
+    static final int REVIEW_DATE = 12;
+    static final int STATUS_CODE = 13;
+    
+    private static final Map<String, String> KNOWN_VALUES = Map.of(
+        "pending", "pending",
+        "approved", "approved",
+        "denied", "denied",
+        "Employee", "Employee",
+        "Manager", "Manager"
+    );
+    
+    /**
+     * @param amountCentsExpression SQL expression yielding the expense amount in whole cents
+     * @param statusCodes whether approvals.status_code exists and should be selected
+     * @return the select list every expense list query must use
+     */
+    static String selectColumns(String amountCentsExpression, boolean statusCodes) {
+        String columns = SELECT_COLUMNS.formatted(amountCentsExpression);
+        return statusCodes ? columns + ", a.status_code" : columns;
+    }
+    
+    /**
+     * Build a narrow select list holding only the given fields, for {@link #mapProjectedRow}.
+     * @param fields the fields to select, iterated in {@link ExpenseField} order
+     * @param amountCentsExpression SQL expression yielding the expense amount in whole cents
+     * @param statusCodes whether approvals.status_code exists and should be selected after the status
+     * @return the select list
+     */
+    static String projectionColumns(Set<ExpenseField> fields, String amountCentsExpression, boolean statusCodes) {
+        StringJoiner columns = new StringJoiner(", ");
+        for (ExpenseField field : fields) {
+            columns.add(switch (field) {
+                case ID -> "e.id";
+                case USER_ID -> "e.user_id";
+                case AMOUNT -> amountCentsExpression;
+                case DESCRIPTION -> "e.description";
+                case DATE -> "e.date";
+                case USERNAME -> "u.username";
+                case ROLE -> "u.role";
+                case APPROVAL_ID -> "a.id";
+                case STATUS -> statusCodes ? "a.status, a.status_code" : "a.status";
+                case REVIEWER -> "a.reviewer";
+                case COMMENT -> "a.comment";
+                case REVIEW_DATE -> "a.review_date";
+            });
+        }
+        return columns.toString();
+    }
+    
+    private final boolean statusCodes;
+    private final Map<Integer, User> usersById = new HashMap<>();
+    private final Map<String, String> values = new HashMap<>();
+    
+    /**
+     * @param statusCodes whether the query selected approvals.status_code, see {@link #selectColumns(String, boolean)}
+     */
+    ExpenseWithUserRowMapper(boolean statusCodes) {
+        this.statusCodes = statusCodes;
+    }
+    
+    ExpenseWithUser map(ResultSet rs) throws SQLException {
+        int expenseId = rs.getInt(ID);
+        int userId = rs.getInt(USER_ID);
+        
+        // Map expense
+        Expense expense = new Expense();
+        expense.setId(expenseId);
+        expense.setUserId(userId);
+        expense.setAmountCents(rs.getLong(AMOUNT_CENTS));
+        expense.setDescription(rs.getString(DESCRIPTION));
+        expense.setDate(rs.getString(DATE));
+        
+        // Map user once per query
+        User user = usersById.get(userId);
+        if (user == null) {
+            user = new User();
+            user.setId(userId);
+            user.setUsername(rs.getString(USERNAME));
+            user.setRole(canonical(rs.getString(ROLE)));
+            usersById.put(userId, user);
+        }
+        
+        // Map approval; reviewer is NULL until the expense has been reviewed
+        Approval approval = new Approval();
+        approval.setId(rs.getInt(APPROVAL_ID));
+        approval.setExpenseId(expenseId);
+        approval.setStatus(status(rs, STATUS, STATUS_CODE));
+        int reviewer = rs.getInt(REVIEWER);
+        approval.setReviewer(rs.wasNull() ? null : reviewer);
+        approval.setComment(rs.getString(COMMENT));
+        approval.setReviewDate(rs.getString(REVIEW_DATE));
+        
+        return new ExpenseWithUser(expense, user, approval);
+    }
+    
+    ExpenseRow mapRow(ResultSet rs) throws SQLException {
+        int userId = rs.getInt(USER_ID);
+        
+        // Reuse the username and role strings of an employee already seen in this query
+        User user = usersById.get(userId);
+        if (user == null) {
+            user = new User(userId, rs.getString(USERNAME), null, canonical(rs.getString(ROLE)));
+            usersById.put(userId, user);
+        }
+        
+        int reviewer = rs.getInt(REVIEWER);
+        Integer reviewerOrNull = rs.wasNull() ? null : reviewer;
+        return new ExpenseRow(
+            rs.getInt(ID),
+            userId,
+            rs.getLong(AMOUNT_CENTS),
+            rs.getString(DESCRIPTION),
+            rs.getString(DATE),
+            user.getUsername(),
+            user.getRole(),
+            rs.getInt(APPROVAL_ID),
+            status(rs, STATUS, STATUS_CODE),
+            reviewerOrNull,
+            rs.getString(COMMENT),
+            rs.getString(REVIEW_DATE)
+        );
+    }
+    
+    /**
+     * Map a row selected with {@link #projectionColumns}. Fields that were not selected keep
+     * their default value (0 or null).
+     */
+    ExpenseRow mapProjectedRow(ResultSet rs, Set<ExpenseField> fields) throws SQLException {
+        int id = 0;
+        int userId = 0;
+        long amountCents = 0;
+        String description = null;
+        String date = null;
+        String username = null;
+        String role = null;
+        int approvalId = 0;
+        String status = null;
+        Integer reviewer = null;
+        String comment = null;
+        String reviewDate = null;
+        
+        int column = 1;
+        for (ExpenseField field : fields) {
+            switch (field) {
+                case ID -> id = rs.getInt(column++);
+                case USER_ID -> userId = rs.getInt(column++);
+                case AMOUNT -> amountCents = rs.getLong(column++);
+                case DESCRIPTION -> description = rs.getString(column++);
+                case DATE -> date = rs.getString(column++);
+                case USERNAME -> username = canonical(rs.getString(column++));
+                case ROLE -> role = canonical(rs.getString(column++));
+                case APPROVAL_ID -> approvalId = rs.getInt(column++);
+                case STATUS -> {
+                    status = status(rs, column, column + 1);
+                    column += statusCodes ? 2 : 1;
+                }
+                case REVIEWER -> {
+                    int value = rs.getInt(column++);
+                    reviewer = rs.wasNull() ? null : value;
+                }
+                case COMMENT -> comment = rs.getString(column++);
+                case REVIEW_DATE -> reviewDate = rs.getString(column++);
+            }
+        }
+        
+        return new ExpenseRow(id, userId, amountCents, description, date, username, role,
+            approvalId, status, reviewer, comment, reviewDate);
+    }
+    
+    private String status(ResultSet rs, int statusColumn, int statusCodeColumn) throws SQLException {
+        if (statusCodes) {
+            int code = rs.getInt(statusCodeColumn);
+            ApprovalStatus status = rs.wasNull() ? null : ApprovalStatus.fromCode(code);
+            if (status != null) {
+                return status.getValue();
+            }
+        }
+        return canonical(rs.getString(statusColumn));
+    }
+    
+    private String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        String known = KNOWN_VALUES.get(value);
+        if (known != null) {
+            return known;
+        }
+        String existing = values.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
@@ -0,0 +1,91 @@
+package com.revature.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Repository for stored Idempotency-Key responses.
+ * Backs the in-memory replay cache so retries are still recognised after a restart.
+ */
+public class IdempotencyRepository {
+    private final DatabaseConnection databaseConnection;
+
+    public IdempotencyRepository(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+    }
+
+    /**
+     * Find a stored response by key.
+     * @param key the scoped idempotency key
+     * @param notBeforeMillis ignore responses stored before this epoch-millisecond timestamp
+     * @return Optional containing the stored response if found and not expired
+     */
+    public Optional<IdempotentResponse> findByKey(String key, long notBeforeMillis) {
+        String sql = "SELECT status_code, response_body FROM idempotency_keys WHERE idempotency_key = ? AND created_at >= ?";
+
+        try (Connection conn = databaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, key);
+            stmt.setLong(2, notBeforeMillis);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return Optional.of(new IdempotentResponse(rs.getInt("status_code"), rs.getString("response_body")));
+            }
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding idempotent response for key: " + key, e);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Store a response. The first stored response for a key wins; later saves are ignored.
+     * @param key the scoped idempotency key
+     * @param response the response to store
+     * @param createdAtMillis epoch-millisecond timestamp of the original request
+     */
+    public void save(String key, IdempotentResponse response, long createdAtMillis) {
+        String sql = """
+            INSERT OR IGNORE INTO idempotency_keys (idempotency_key, status_code, response_body, created_at)
+            VALUES (?, ?, ?, ?)
+            """;
+
+        try (Connection conn = databaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, key);
+            stmt.setInt(2, response.getStatusCode());
+            stmt.setString(3, response.getBody());
+            stmt.setLong(4, createdAtMillis);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error saving idempotent response for key: " + key, e);
+        }
+    }
+
+    /**
+     * Delete responses stored before the given time.
+     * @param beforeMillis epoch-millisecond cutoff
+     * @return number of deleted responses
+     */
+    public int deleteOlderThan(long beforeMillis) {
+        String sql = "DELETE FROM idempotency_keys WHERE created_at < ?";
+
+        try (Connection conn = databaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, beforeMillis);
+            return stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error deleting expired idempotent responses", e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.revature.repository;
+
+/**
+ * IdempotentResponse model representing the stored outcome of a request made with an Idempotency-Key.
+ * For error outcomes (status 400 and above) the body holds the error message.
+ */
+public class IdempotentResponse {
+    private final int statusCode;
+    private final String body;
+
+    public IdempotentResponse(int statusCode, String body) {
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+
+    // Getters
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public boolean isError() {
+        return statusCode >= 400;
+    }
+
+    @Override
+    public String toString() {
+        return "IdempotentResponse{" +
+                "statusCode=" + statusCode +
+                ", body='" + body + '\'' +
+                '}';
+    }
+}
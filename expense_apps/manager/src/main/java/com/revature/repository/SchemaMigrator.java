@@ -0,0 +1,234 @@
+package com.revature.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies the manager app's schema additions to the shared SQLite database.
+ * The base tables are owned by the employee app; this class only adds what the
+ * manager app needs on top of them. Migrations are numbered by their position in
+ * {@link #MIGRATIONS} and tracked with SQLite's {@code PRAGMA user_version}, so each
+ * one runs exactly once per database file.
+ */
+public class SchemaMigrator {
+    /** Schema version from which the expenses_fts full-text index exists. */
+    public static final int FULL_TEXT_SEARCH_VERSION = 2;
+    /** Schema version from which expenses.amount_cents exists. */
+    public static final int AMOUNT_CENTS_VERSION = 4;
+    /** Schema version from which expenses.date_epoch_day exists. */
+    public static final int DATE_EPOCH_DAY_VERSION = 5;
+    /** Schema version from which approvals.status_code and its per-status partial indexes exist. */
+    public static final int STATUS_CODE_VERSION = 6;
+    /** Schema version from which the change_counter table tracks writes to the expense data. */
+    public static final int CHANGE_TOKEN_VERSION = 7;
+
+    /** Maps approvals.status text to its {@link ApprovalStatus} code; unknown text maps to NULL. */
+    private static final String STATUS_CODE_SQL =
+        "CASE %s WHEN 'pending' THEN 0 WHEN 'approved' THEN 1 WHEN 'denied' THEN 2 END";
+
+    /** Tables whose rows appear in expense responses; any write to them bumps change_counter. */
+    private static final List<String> CHANGE_TRACKED_TABLES = List.of("expenses", "approvals", "users");
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        // 1: replay store for Idempotency-Key handling on approve/deny
+        new Migration(List.of(), List.of(
+            """
+            CREATE TABLE IF NOT EXISTS idempotency_keys (
+                idempotency_key TEXT PRIMARY KEY,
+                status_code INTEGER NOT NULL,
+                response_body TEXT NOT NULL,
+                created_at INTEGER NOT NULL
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at)"
+        )),
+        // 2: trigram full-text shadow index over expense descriptions for category search.
+        // Triggers keep it in sync with writes from either app.
+        new Migration(List.of("expenses"), List.of(
+            """
+            CREATE VIRTUAL TABLE IF NOT EXISTS expenses_fts USING fts5(
+                description, content='expenses', content_rowid='id', tokenize='trigram'
+            )
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS expenses_fts_after_insert AFTER INSERT ON expenses BEGIN
+                INSERT INTO expenses_fts (rowid, description) VALUES (new.id, new.description);
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS expenses_fts_after_delete AFTER DELETE ON expenses BEGIN
+                INSERT INTO expenses_fts (expenses_fts, rowid, description) VALUES ('delete', old.id, old.description);
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS expenses_fts_after_update AFTER UPDATE OF id, description ON expenses BEGIN
+                INSERT INTO expenses_fts (expenses_fts, rowid, description) VALUES ('delete', old.id, old.description);
+                INSERT INTO expenses_fts (rowid, description) VALUES (new.id, new.description);
+            END
+            """,
+            "INSERT INTO expenses_fts (expenses_fts) VALUES ('rebuild')"
+        )),
+        // 3: indexes for the combined expense search filters and the approvals join
+        new Migration(List.of("expenses", "approvals"), List.of(
+            "CREATE INDEX IF NOT EXISTS idx_expenses_user_date ON expenses (user_id, date)",
+            "CREATE INDEX IF NOT EXISTS idx_expenses_date ON expenses (date)",
+            "CREATE INDEX IF NOT EXISTS idx_expenses_amount ON expenses (amount)",
+            "CREATE INDEX IF NOT EXISTS idx_approvals_expense_id ON approvals (expense_id)",
+            "CREATE INDEX IF NOT EXISTS idx_approvals_status ON approvals (status, expense_id)"
+        )),
+        // 4: fixed-point amount in cents next to the employee app's REAL amount, kept in sync by triggers
+        new Migration(List.of("expenses"), List.of(
+            "ALTER TABLE expenses ADD COLUMN amount_cents INTEGER",
+            "UPDATE expenses SET amount_cents = CAST(ROUND(amount * 100) AS INTEGER)",
+            """
+            CREATE TRIGGER IF NOT EXISTS expenses_amount_cents_after_insert AFTER INSERT ON expenses BEGIN
+                UPDATE expenses SET amount_cents = CAST(ROUND(new.amount * 100) AS INTEGER) WHERE id = new.id;
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS expenses_amount_cents_after_update AFTER UPDATE OF amount ON expenses BEGIN
+                UPDATE expenses SET amount_cents = CAST(ROUND(new.amount * 100) AS INTEGER) WHERE id = new.id;
+            END
+            """,
+            "DROP INDEX IF EXISTS idx_expenses_amount",
+            "CREATE INDEX IF NOT EXISTS idx_expenses_amount_cents ON expenses (amount_cents)"
+        )),
+        // 5: integer day number (days since 1970-01-01) next to the employee app's TEXT date,
+        // kept in sync by triggers, so date ranges are integer index range scans
+        new Migration(List.of("expenses"), List.of(
+            "ALTER TABLE expenses ADD COLUMN date_epoch_day INTEGER",
+            "UPDATE expenses SET date_epoch_day = CAST(julianday(date) - 2440587.5 AS INTEGER)",
+            """
+            CREATE TRIGGER IF NOT EXISTS expenses_date_epoch_day_after_insert AFTER INSERT ON expenses BEGIN
+                UPDATE expenses SET date_epoch_day = CAST(julianday(new.date) - 2440587.5 AS INTEGER) WHERE id = new.id;
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS expenses_date_epoch_day_after_update AFTER UPDATE OF date ON expenses BEGIN
+                UPDATE expenses SET date_epoch_day = CAST(julianday(new.date) - 2440587.5 AS INTEGER) WHERE id = new.id;
+            END
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_expenses_date_epoch_day ON expenses (date_epoch_day)"
+        )),
+        // 6: integer status code (see ApprovalStatus) next to the employee app's TEXT status, kept in
+        // sync by triggers, with one partial index per status in place of the (status, expense_id) index
+        new Migration(List.of("approvals"), List.of(
+            "ALTER TABLE approvals ADD COLUMN status_code INTEGER",
+            "UPDATE approvals SET status_code = " + STATUS_CODE_SQL.formatted("status"),
+            """
+            CREATE TRIGGER IF NOT EXISTS approvals_status_code_after_insert AFTER INSERT ON approvals BEGIN
+                UPDATE approvals SET status_code = %s WHERE id = new.id;
+            END
+            """.formatted(STATUS_CODE_SQL.formatted("new.status")),
+            """
+            CREATE TRIGGER IF NOT EXISTS approvals_status_code_after_update AFTER UPDATE OF status ON approvals BEGIN
+                UPDATE approvals SET status_code = %s WHERE id = new.id;
+            END
+            """.formatted(STATUS_CODE_SQL.formatted("new.status")),
+            "DROP INDEX IF EXISTS idx_approvals_status",
+            "CREATE INDEX IF NOT EXISTS idx_approvals_pending ON approvals (expense_id) WHERE status_code = 0",
+            "CREATE INDEX IF NOT EXISTS idx_approvals_approved ON approvals (expense_id) WHERE status_code = 1",
+            "CREATE INDEX IF NOT EXISTS idx_approvals_denied ON approvals (expense_id) WHERE status_code = 2"
+        )),
+        // 7: single-row write counter bumped by triggers on every change to the expense data,
+        // whichever app makes it, so cached responses can tell when they are stale
+        new Migration(CHANGE_TRACKED_TABLES, changeCounterStatements())
+    );
+
+    private final DatabaseConnection databaseConnection;
+
+    private static List<String> changeCounterStatements() {
+        List<String> statements = new ArrayList<>(List.of(
+            """
+            CREATE TABLE IF NOT EXISTS change_counter (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                version INTEGER NOT NULL
+            )
+            """,
+            "INSERT OR IGNORE INTO change_counter (id, version) VALUES (1, 0)"
+        ));
+        for (String table : CHANGE_TRACKED_TABLES) {
+            for (String event : List.of("insert", "update", "delete")) {
+                statements.add("""
+                    CREATE TRIGGER IF NOT EXISTS %1$s_change_counter_after_%2$s AFTER %3$s ON %1$s BEGIN
+                        UPDATE change_counter SET version = version + 1 WHERE id = 1;
+                    END
+                    """.formatted(table, event, event.toUpperCase()));
+            }
+        }
+        return statements;
+    }
+
+    public SchemaMigrator(DatabaseConnection databaseConnection) {
+        this.databaseConnection = databaseConnection;
+    }
+
+    /**
+     * Apply every migration newer than the database's current schema version.
+     * Each migration runs in its own transaction together with the version bump. A migration
+     * whose base tables do not exist yet is left for the next start, along with any after it.
+     * @return the schema version after migrating
+     */
+    public int migrate() {
+        try (Connection conn = databaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            int version = currentVersion(stmt);
+
+            for (int i = version; i < MIGRATIONS.size(); i++) {
+                Migration migration = MIGRATIONS.get(i);
+                if (!tablesExist(conn, migration.requiredTables())) {
+                    // The employee app has not created the base tables yet; retry on next start
+                    System.out.println("Schema migration " + (i + 1) + " deferred: missing tables " + migration.requiredTables());
+                    return i;
+                }
+                conn.setAutoCommit(false);
+                try {
+                    for (String sql : migration.statements()) {
+                        stmt.execute(sql);
+                    }
+                    stmt.execute("PRAGMA user_version = " + (i + 1));
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Schema migration " + (i + 1) + " failed", e);
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+
+            return Math.max(version, MIGRATIONS.size());
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Error migrating database schema", e);
+        }
+    }
+
+    private boolean tablesExist(Connection conn, List<String> tables) throws SQLException {
+        String sql = "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (String table : tables) {
+                stmt.setString(1, table);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private int currentVersion(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private record Migration(List<String> requiredTables, List<String> statements) {}
+}
@@ -0,0 +1,24 @@
+package com.revature.service;
+
+/**
+ * Thrown when an approve/deny request targets an expense that has already been reviewed.
+ * The conditional update did not apply because the approval is no longer pending.
+ */
+public class ApprovalConflictException extends RuntimeException {
+    private final int expenseId;
+    private final String currentStatus;
+
+    public ApprovalConflictException(int expenseId, String currentStatus) {
+        super("Expense " + expenseId + " has already been " + currentStatus);
+        this.expenseId = expenseId;
+        this.currentStatus = currentStatus;
+    }
+
+    public int getExpenseId() {
+        return expenseId;
+    }
+
+    public String getCurrentStatus() {
+        return currentStatus;
+    }
+}
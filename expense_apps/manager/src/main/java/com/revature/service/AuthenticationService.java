@@ -5,6 +5,8 @@ import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.revature.metrics.RequestTiming;
+import com.revature.metrics.TimingPhase;
 import com.revature.repository.User;
 import com.revature.repository.UserRepository;
 import java.time.Instant;
@@ -54,7 +56,6 @@ public class AuthenticationService {
      */
     public Optional<User> validateJwtToken(String jwtToken) {
         if (jwtToken == null || jwtToken.trim().isEmpty()) {
-            System.out.println("jwt null");
             return Optional.empty();
         }
         
@@ -62,7 +63,12 @@ public class AuthenticationService {
             DecodedJWT decodedJWT = jwtVerifier.verify(jwtToken);
             String userIdStr = decodedJWT.getSubject();
             int userId = Integer.parseInt(userIdStr);
-            return userRepository.findById(userId);
+            long timing = RequestTiming.begin();
+            try {
+                return userRepository.findById(userId);
+            } finally {
+                RequestTiming.end(TimingPhase.USER, timing);
+            }
         } catch (JWTVerificationException | NumberFormatException e) {
             return Optional.empty();
         }
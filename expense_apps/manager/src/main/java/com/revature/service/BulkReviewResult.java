@@ -0,0 +1,57 @@
+package com.revature.service;
+
+/**
+ * Result of a single item in a bulk approve/deny request.
+ */
+public class BulkReviewResult {
+    private final int expenseId;
+    private final boolean success;
+    private final String status;
+    private final String message;
+
+    public BulkReviewResult(int expenseId, boolean success, String status, String message) {
+        this.expenseId = expenseId;
+        this.success = success;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BulkReviewResult applied(int expenseId, String status) {
+        return new BulkReviewResult(expenseId, true, status, "Expense " + status + " successfully");
+    }
+
+    public static BulkReviewResult conflict(int expenseId, String currentStatus) {
+        return new BulkReviewResult(expenseId, false, currentStatus, "Expense has already been " + currentStatus);
+    }
+
+    public static BulkReviewResult failed(int expenseId, String message) {
+        return new BulkReviewResult(expenseId, false, null, message);
+    }
+
+    // Getters
+    public int getExpenseId() {
+        return expenseId;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkReviewResult{" +
+                "expenseId=" + expenseId +
+                ", success=" + success +
+                ", status='" + status + '\'' +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,48 @@
+package com.revature.service;
+
+import java.time.LocalDate;
+
+/**
+ * Reporting periods for expense totals. Each period maps an epoch day
+ * (days since 1970-01-01) to the epoch day its period starts on.
+ */
+public enum ExpensePeriod {
+    DAY,
+    /** ISO weeks, starting on Monday. */
+    WEEK,
+    MONTH;
+    
+    /** 1970-01-01 was a Thursday, three days after the Monday that starts its week. */
+    private static final int EPOCH_DAY_OF_WEEK = 3;
+    
+    /**
+     * Get the first day of the period containing the given day.
+     * @param epochDay day as days since 1970-01-01
+     * @return first day of the period, as days since 1970-01-01
+     */
+    public long startOf(long epochDay) {
+        return switch (this) {
+            case DAY -> epochDay;
+            case WEEK -> epochDay - Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK, 7);
+            case MONTH -> {
+                LocalDate date = LocalDate.ofEpochDay(epochDay);
+                yield epochDay - date.getDayOfMonth() + 1;
+            }
+        };
+    }
+    
+    /**
+     * Parse a period name such as "day", "week" or "month", ignoring case.
+     * @param value the period name
+     * @return the matching period
+     * @throws IllegalArgumentException if the name is not a known period
+     */
+    public static ExpensePeriod fromString(String value) {
+        for (ExpensePeriod period : values()) {
+            if (period.name().equalsIgnoreCase(value)) {
+                return period;
+            }
+        }
+        throw new IllegalArgumentException("Unknown period: " + value);
+    }
+}
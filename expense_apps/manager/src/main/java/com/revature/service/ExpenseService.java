@@ -1,25 +1,63 @@
 package com.revature.service;
 
+import com.revature.metrics.RequestTiming;
+import com.revature.metrics.TimingPhase;
+import com.revature.repository.Approval;
+import com.revature.repository.AmountCents;
+import com.revature.repository.ApprovalDecision;
 import com.revature.repository.ApprovalRepository;
+import com.revature.repository.ApprovalStatus;
+import com.revature.repository.ApprovalWriteQueue;
+import com.revature.repository.ExpenseField;
+import com.revature.repository.ExpensePeriodTotal;
+import com.revature.repository.ExpenseProjection;
+import com.revature.repository.ExpenseQuery;
 import com.revature.repository.ExpenseRepository;
+import com.revature.repository.ExpenseRow;
+import com.revature.repository.ExpenseSummary;
 import com.revature.repository.ExpenseWithUser;
 import com.revature.repository.User;
 
 import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Service for expense management business logic.
  * Handles expense approvals, reporting, and related operations.
  */
 public class ExpenseService {
+    private static final long APPROVAL_WRITE_TIMEOUT_SECONDS = 10;
+    private static final long CHANGE_TOKEN_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
     private final ExpenseRepository expenseRepository;
     private final ApprovalRepository approvalRepository;
+    private final ApprovalWriteQueue approvalWriteQueue;
+    private final AtomicReference<CachedChangeToken> changeToken =
+        new AtomicReference<>(CachedChangeToken.expired());
     
     public ExpenseService(ExpenseRepository expenseRepository, ApprovalRepository approvalRepository) {
+        this(expenseRepository, approvalRepository, null);
+    }
+    
+    /**
+     * @param approvalWriteQueue optional group-commit queue for single approve/deny writes;
+     *                           when null, writes go straight to the approval repository
+     */
+    public ExpenseService(ExpenseRepository expenseRepository, ApprovalRepository approvalRepository,
+                          ApprovalWriteQueue approvalWriteQueue) {
         this.expenseRepository = expenseRepository;
         this.approvalRepository = approvalRepository;
+        this.approvalWriteQueue = approvalWriteQueue;
     }
     
     /**
@@ -30,15 +68,47 @@ public class ExpenseService {
         return expenseRepository.findPendingExpensesWithUsers();
     }
     
+    /**
+     * Get aggregate counts and totals for the dashboard header.
+     * @return ExpenseSummary computed by the database
+     */
+    public ExpenseSummary getExpenseSummary() {
+        return expenseRepository.getExpenseSummary();
+    }
+    
+    /**
+     * Get a token that changes whenever expense, approval or user data changes.
+     * The token is read from the database at most once a second, so cached responses can be
+     * served without touching the database; this app's own approval writes refresh it at
+     * once, and writes by the employee app show up within that second.
+     * @return the current change token, or -1 if change tracking is unavailable
+     */
+    public long getChangeToken() {
+        CachedChangeToken cached = changeToken.get();
+        long now = System.nanoTime();
+        if (now - cached.readAtNanos() < CHANGE_TOKEN_MAX_AGE_NANOS) {
+            return cached.token();
+        }
+        long token = expenseRepository.getChangeToken();
+        // Skipped if a write invalidated the token meanwhile; this read may predate that write
+        changeToken.compareAndSet(cached, new CachedChangeToken(token, now));
+        return token;
+    }
+    
+    private void invalidateChangeToken() {
+        changeToken.set(CachedChangeToken.expired());
+    }
+    
     /**
      * Approve an expense.
      * @param expenseId the expense ID to approve
      * @param managerId the manager's user ID
      * @param comment optional comment from manager
-     * @return true if approval was successful
+     * @return true if approval was successful, false if the expense was not found
+     * @throws ApprovalConflictException if the expense has already been reviewed
      */
     public boolean approveExpense(int expenseId, int managerId, String comment) {
-        return approvalRepository.updateApprovalStatus(expenseId, "approved", managerId, comment);
+        return updateApprovalStatus(expenseId, ApprovalStatus.APPROVED.getValue(), managerId, comment);
     }
     
     /**
@@ -46,12 +116,112 @@ public class ExpenseService {
      * @param expenseId the expense ID to deny
      * @param managerId the manager's user ID
      * @param comment optional comment from manager
-     * @return true if denial was successful
+     * @return true if denial was successful, false if the expense was not found
+     * @throws ApprovalConflictException if the expense has already been reviewed
      */
     public boolean denyExpense(int expenseId, int managerId, String comment) {
-        return approvalRepository.updateApprovalStatus(expenseId, "denied", managerId, comment);
+        return updateApprovalStatus(expenseId, ApprovalStatus.DENIED.getValue(), managerId, comment);
     }
     
+    /**
+     * Write a single approval decision, through the group-commit queue when one is configured.
+     * The calling request thread waits until the group containing its write has committed,
+     * but no longer than {@value #APPROVAL_WRITE_TIMEOUT_SECONDS} seconds.
+     * Only pending approvals are updated; when nothing was written the current status is
+     * looked up to tell a missing expense apart from a concurrent review.
+     */
+    private boolean updateApprovalStatus(int expenseId, String status, int managerId, String comment) {
+        boolean updated;
+        if (approvalWriteQueue == null) {
+            try {
+                updated = approvalRepository.updateApprovalStatus(expenseId, status, managerId, comment);
+            } finally {
+                invalidateChangeToken();
+            }
+        } else {
+            try {
+                updated = approvalWriteQueue.submit(expenseId, status, managerId, comment)
+                    .orTimeout(APPROVAL_WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof TimeoutException) {
+                    throw new RuntimeException("Error waiting for approval write of expense " + expenseId, e.getCause());
+                }
+                throw e;
+            } finally {
+                invalidateChangeToken();
+            }
+        }
+        
+        if (!updated) {
+            Optional<Approval> current = approvalRepository.findByExpenseId(expenseId);
+            if (current.isPresent() && !current.get().isPending()) {
+                throw new ApprovalConflictException(expenseId, current.get().getStatus());
+            }
+        }
+        return updated;
+    }
+    
+    /**
+     * Approve or deny many expenses at once.
+     * Valid decisions are applied in a single transaction; invalid decisions are
+     * reported back without touching the database.
+     * @param decisions the decisions to apply (expense ID, "approve"/"deny", optional comment)
+     * @param managerId the manager's user ID, recorded as reviewer on every decision
+     * @return one result per decision, in request order
+     */
+    public List<BulkReviewResult> bulkReviewExpenses(List<ApprovalDecision> decisions, int managerId) {
+        List<BulkReviewResult> results = new ArrayList<>(decisions.size());
+        List<ApprovalDecision> validDecisions = new ArrayList<>(decisions.size());
+        List<Integer> validPositions = new ArrayList<>(decisions.size());
+
+        for (ApprovalDecision decision : decisions) {
+            if (decision.toStatus() == null) {
+                results.add(BulkReviewResult.failed(decision.getExpenseId(),
+                        "Invalid decision '" + decision.getDecision() + "', expected 'approve' or 'deny'"));
+            } else {
+                validPositions.add(results.size());
+                validDecisions.add(new ApprovalDecision(decision.getExpenseId(), decision.getDecision(),
+                        managerId, decision.getComment()));
+                results.add(null);
+            }
+        }
+
+        int[] updatedRows;
+        try {
+            updatedRows = approvalRepository.updateApprovalStatuses(validDecisions);
+        } finally {
+            invalidateChangeToken();
+        }
+
+        // Only decisions that did not apply need a second look: missing or already reviewed
+        List<Integer> notUpdated = new ArrayList<>();
+        for (int i = 0; i < validDecisions.size(); i++) {
+            if (updatedRows[i] == 0) {
+                notUpdated.add(validDecisions.get(i).getExpenseId());
+            }
+        }
+        Map<Integer, String> currentStatuses = approvalRepository.findStatusesByExpenseIds(notUpdated);
+
+        for (int i = 0; i < validDecisions.size(); i++) {
+            ApprovalDecision decision = validDecisions.get(i);
+            BulkReviewResult result;
+            if (updatedRows[i] > 0) {
+                result = BulkReviewResult.applied(decision.getExpenseId(), decision.toStatus());
+            } else if (currentStatuses.containsKey(decision.getExpenseId())) {
+                result = BulkReviewResult.conflict(decision.getExpenseId(), currentStatuses.get(decision.getExpenseId()));
+            } else {
+                result = BulkReviewResult.failed(decision.getExpenseId(), "Expense not found");
+            }
+            results.set(validPositions.get(i), result);
+        }
+
+        return results;
+    }
+
     /**
      * Get expenses for a specific employee.
      * @param employeeId the employee's user ID
@@ -80,6 +250,75 @@ public class ExpenseService {
         return expenseRepository.findExpensesByDateRange(startDate, endDate);
     }
     
+    /**
+     * Get expense counts and totals per day, week or month within a date range.
+     * The database groups by the integer day; days are then folded into their period.
+     * Periods without expenses are omitted.
+     * @param startDate first day (inclusive)
+     * @param endDate last day (inclusive)
+     * @param period the period to group by
+     * @return List of period totals in ascending order
+     */
+    public List<ExpensePeriodTotal> getExpenseTotalsByPeriod(LocalDate startDate, LocalDate endDate, ExpensePeriod period) {
+        List<ExpensePeriodTotal> dailyTotals =
+            expenseRepository.findDailyTotals(startDate.toEpochDay(), endDate.toEpochDay());
+        if (period == ExpensePeriod.DAY) {
+            return dailyTotals;
+        }
+        
+        List<ExpensePeriodTotal> periodTotals = new ArrayList<>();
+        ExpensePeriodTotal current = null;
+        for (ExpensePeriodTotal day : dailyTotals) {
+            long periodStart = period.startOf(day.getStartEpochDay());
+            if (current == null || current.getStartEpochDay() != periodStart) {
+                current = new ExpensePeriodTotal(periodStart, 0, 0);
+                periodTotals.add(current);
+            }
+            current.setExpenseCount(current.getExpenseCount() + day.getExpenseCount());
+            current.setTotalAmountCents(current.getTotalAmountCents() + day.getTotalAmountCents());
+        }
+        return periodTotals;
+    }
+    
+    /**
+     * Search expenses by any combination of filters, with sort and limit.
+     * @param query the search criteria
+     * @return List of matching expenses with user information
+     */
+    public List<ExpenseWithUser> searchExpenses(ExpenseQuery query) {
+        return expenseRepository.searchExpenses(query);
+    }
+    
+    /**
+     * Search expenses like {@link #searchExpenses(ExpenseQuery)}, returning flat immutable rows.
+     * @param query the search criteria
+     * @return List of matching expense rows
+     */
+    public List<ExpenseRow> searchExpenseRows(ExpenseQuery query) {
+        return expenseRepository.searchExpenseRows(query);
+    }
+    
+    /**
+     * Search expenses like {@link #searchExpenseRows(ExpenseQuery)}, returning only the given fields.
+     * @param query the search criteria
+     * @param fields the fields to return; must not be empty
+     * @return projection of the matching expenses
+     */
+    public ExpenseProjection searchExpenseProjection(ExpenseQuery query, Set<ExpenseField> fields) {
+        return expenseRepository.searchExpenseProjection(query, fields);
+    }
+    
+    /**
+     * Hand each expense matching a query to a consumer as it is read, without building a list.
+     * @param query the search criteria
+     * @param fields the fields to return, or null for all of them
+     * @param consumer receives each matching row in order
+     * @return number of rows passed to the consumer
+     */
+    public int streamExpenseRows(ExpenseQuery query, Set<ExpenseField> fields, Consumer<ExpenseRow> consumer) {
+        return expenseRepository.streamExpenseRows(query, fields, consumer);
+    }
+    
     /**
      * Get all expenses.
      * @return List of all expenses with user information
@@ -94,44 +333,90 @@ public class ExpenseService {
      * @return CSV string representation of the expenses
      */
     public String generateCsvReport(List<ExpenseWithUser> expenses) {
-        StringWriter csvWriter = new StringWriter();
-        
-        // CSV Header
-        csvWriter.append("Expense ID,Employee,Amount,Description,Date,Status,Reviewer,Comment,Review Date\n");
-        
-        // CSV Data
-        for (ExpenseWithUser expenseWithUser : expenses) {
-            csvWriter.append(String.valueOf(expenseWithUser.getExpense().getId())).append(",");
-            csvWriter.append(escapeCsvValue(expenseWithUser.getUser().getUsername())).append(",");
-            csvWriter.append(String.valueOf(expenseWithUser.getExpense().getAmount())).append(",");
-            csvWriter.append(escapeCsvValue(expenseWithUser.getExpense().getDescription())).append(",");
-            csvWriter.append(expenseWithUser.getExpense().getDate()).append(",");
-            csvWriter.append(expenseWithUser.getApproval().getStatus()).append(",");
+        long timing = RequestTiming.begin();
+        try {
+            StringWriter csvWriter = new StringWriter();
             
-            // Reviewer (might be null for pending expenses)
-            Integer reviewerId = expenseWithUser.getApproval().getReviewer();
-            if (reviewerId != null) {
-                csvWriter.append(String.valueOf(reviewerId));
-            }
-            csvWriter.append(",");
+            // CSV Header
+            csvWriter.append("Expense ID,Employee,Amount,Description,Date,Status,Reviewer,Comment,Review Date\n");
             
-            // Comment (might be null)
-            String comment = expenseWithUser.getApproval().getComment();
-            if (comment != null) {
-                csvWriter.append(escapeCsvValue(comment));
+            // CSV Data
+            for (ExpenseWithUser expenseWithUser : expenses) {
+                csvWriter.append(String.valueOf(expenseWithUser.getExpense().getId())).append(",");
+                csvWriter.append(escapeCsvValue(expenseWithUser.getUser().getUsername())).append(",");
+                csvWriter.append(AmountCents.format(expenseWithUser.getExpense().getAmountCents())).append(",");
+                csvWriter.append(escapeCsvValue(expenseWithUser.getExpense().getDescription())).append(",");
+                csvWriter.append(expenseWithUser.getExpense().getDate()).append(",");
+                csvWriter.append(expenseWithUser.getApproval().getStatus()).append(",");
+                
+                // Reviewer (might be null for pending expenses)
+                Integer reviewerId = expenseWithUser.getApproval().getReviewer();
+                if (reviewerId != null) {
+                    csvWriter.append(String.valueOf(reviewerId));
+                }
+                csvWriter.append(",");
+                
+                // Comment (might be null)
+                String comment = expenseWithUser.getApproval().getComment();
+                if (comment != null) {
+                    csvWriter.append(escapeCsvValue(comment));
+                }
+                csvWriter.append(",");
+                
+                // Review Date (might be null for pending expenses)
+                String reviewDate = expenseWithUser.getApproval().getReviewDate();
+                if (reviewDate != null) {
+                    csvWriter.append(reviewDate);
+                }
+                
+                csvWriter.append("\n");
             }
-            csvWriter.append(",");
             
-            // Review Date (might be null for pending expenses)
-            String reviewDate = expenseWithUser.getApproval().getReviewDate();
-            if (reviewDate != null) {
-                csvWriter.append(reviewDate);
+            return csvWriter.toString();
+        } finally {
+            RequestTiming.end(TimingPhase.CSV, timing);
+        }
+    }
+    
+    /**
+     * Generate a CSV report of expense rows, identical in format to {@link #generateCsvReport(List)}.
+     * @param rows the expense rows to include in the report
+     * @return CSV string representation of the rows
+     */
+    public String generateCsvReportFromRows(List<ExpenseRow> rows) {
+        long timing = RequestTiming.begin();
+        try {
+            StringWriter csvWriter = new StringWriter();
+            
+            // CSV Header
+            csvWriter.append("Expense ID,Employee,Amount,Description,Date,Status,Reviewer,Comment,Review Date\n");
+            
+            // CSV Data
+            for (ExpenseRow row : rows) {
+                csvWriter.append(String.valueOf(row.id())).append(",");
+                csvWriter.append(escapeCsvValue(row.username())).append(",");
+                csvWriter.append(AmountCents.format(row.amountCents())).append(",");
+                csvWriter.append(escapeCsvValue(row.description())).append(",");
+                csvWriter.append(row.date()).append(",");
+                csvWriter.append(row.status()).append(",");
+                if (row.reviewer() != null) {
+                    csvWriter.append(String.valueOf(row.reviewer()));
+                }
+                csvWriter.append(",");
+                if (row.comment() != null) {
+                    csvWriter.append(escapeCsvValue(row.comment()));
+                }
+                csvWriter.append(",");
+                if (row.reviewDate() != null) {
+                    csvWriter.append(row.reviewDate());
+                }
+                csvWriter.append("\n");
             }
             
-            csvWriter.append("\n");
+            return csvWriter.toString();
+        } finally {
+            RequestTiming.end(TimingPhase.CSV, timing);
         }
-        
-        return csvWriter.toString();
     }
     
     /**
@@ -151,4 +436,13 @@ public class ExpenseService {
         
         return value;
     }
-}
\ No newline at end of file
+    
+    /**
+     * A change token and when it was read; a fresh instance marks the token as stale.
+     */
+    private record CachedChangeToken(long token, long readAtNanos) {
+        static CachedChangeToken expired() {
+            return new CachedChangeToken(-1, System.nanoTime() - CHANGE_TOKEN_MAX_AGE_NANOS);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package Benchmarks;
+
+import com.revature.repository.DatabaseConnection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Temporary SQLite database with the shared schema and a configurable number of
+ * generated expenses, used as the fixture for the JMH benchmarks.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+    private static final String[] DESCRIPTIONS = {
+        "Business lunch", "Travel expense", "Office supplies", "Client meeting",
+        "Conference registration", "Team dinner", "Parking fees", "Taxi to airport"
+    };
+    private static final String[] STATUSES = {"pending", "approved", "denied"};
+    private static final int EMPLOYEES = 50;
+
+    private final Path file;
+    private final DatabaseConnection databaseConnection;
+
+    BenchmarkDatabase(int expenseCount) throws IOException, SQLException {
+        this.file = Files.createTempFile("expense-benchmark", ".db");
+        this.databaseConnection = new DatabaseConnection(file.toString());
+        populate(expenseCount);
+    }
+
+    DatabaseConnection getDatabaseConnection() {
+        return databaseConnection;
+    }
+
+    private void populate(int expenseCount) throws SQLException {
+        try (Connection conn = databaseConnection.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE users (id INTEGER PRIMARY KEY, username TEXT NOT NULL UNIQUE, password TEXT NOT NULL, role TEXT NOT NULL)");
+                stmt.execute("CREATE TABLE expenses (id INTEGER PRIMARY KEY, user_id INTEGER NOT NULL, amount REAL NOT NULL, description TEXT NOT NULL, date TEXT NOT NULL)");
+                stmt.execute("CREATE TABLE approvals (id INTEGER PRIMARY KEY, expense_id INTEGER NOT NULL, status TEXT NOT NULL DEFAULT 'pending', reviewer INTEGER, comment TEXT, review_date TEXT)");
+            }
+            conn.setAutoCommit(false);
+            try (PreparedStatement users = conn.prepareStatement("INSERT INTO users (id, username, password, role) VALUES (?, ?, 'x', ?)");
+                 PreparedStatement expenses = conn.prepareStatement("INSERT INTO expenses (id, user_id, amount, description, date) VALUES (?, ?, ?, ?, ?)");
+                 PreparedStatement approvals = conn.prepareStatement("INSERT INTO approvals (id, expense_id, status, reviewer, comment, review_date) VALUES (?, ?, ?, ?, ?, ?)")) {
+                users.setInt(1, 1);
+                users.setString(2, "manager1");
+                users.setString(3, "Manager");
+                users.addBatch();
+                for (int i = 2; i <= EMPLOYEES + 1; i++) {
+                    users.setInt(1, i);
+                    users.setString(2, "employee" + i);
+                    users.setString(3, "Employee");
+                    users.addBatch();
+                }
+                users.executeBatch();
+
+                for (int i = 1; i <= expenseCount; i++) {
+                    String date = "2024-%02d-%02d".formatted(i % 12 + 1, i % 28 + 1);
+                    String status = STATUSES[i % STATUSES.length];
+                    boolean reviewed = !status.equals("pending");
+
+                    expenses.setInt(1, i);
+                    expenses.setInt(2, i % EMPLOYEES + 2);
+                    expenses.setDouble(3, (i % 50_000) / 100.0 + 1);
+                    expenses.setString(4, DESCRIPTIONS[i % DESCRIPTIONS.length]);
+                    expenses.setString(5, date);
+                    expenses.addBatch();
+
+                    approvals.setInt(1, i);
+                    approvals.setInt(2, i);
+                    approvals.setString(3, status);
+                    approvals.setObject(4, reviewed ? 1 : null);
+                    approvals.setString(5, reviewed ? "Reviewed" : null);
+                    approvals.setString(6, reviewed ? date : null);
+                    approvals.addBatch();
+                }
+                expenses.executeBatch();
+                approvals.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
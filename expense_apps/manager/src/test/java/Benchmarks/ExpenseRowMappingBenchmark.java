@@ -0,0 +1,121 @@
+package Benchmarks;
+
+import com.revature.repository.Approval;
+import com.revature.repository.Expense;
+import com.revature.repository.ExpenseQuery;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.ExpenseWithUser;
+import com.revature.repository.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-table scan comparing the previous label-based row mapping, the positional
+ * row mapper building ExpenseWithUser, and flat ExpenseRow records.
+ * Run with: java -cp target/test-classes:target/classes:&lt;test classpath&gt; Benchmarks.ExpenseRowMappingBenchmark
+ * Rows per second is rows / score; gc.alloc.rate.norm gives bytes allocated per scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseRowMappingBenchmark {
+    private static final String SQL = """
+        SELECT e.id, e.user_id, e.amount, e.description, e.date,
+               u.username, u.role,
+               a.id as approval_id, a.status, a.reviewer, a.comment, a.review_date
+        FROM expenses e
+        JOIN users u ON e.user_id = u.id
+        JOIN approvals a ON e.id = a.expense_id
+        ORDER BY e.date DESC
+        """;
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private ExpenseRepository expenseRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        database = new BenchmarkDatabase(rows);
+        expenseRepository = new ExpenseRepository(database.getDatabaseConnection());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        database.close();
+    }
+
+    @Benchmark
+    public void labelMapping(Blackhole blackhole) throws SQLException {
+        List<ExpenseWithUser> results = new ArrayList<>();
+        try (Connection conn = database.getDatabaseConnection().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                results.add(mapByLabel(rs));
+            }
+        }
+        blackhole.consume(results);
+    }
+
+    @Benchmark
+    public void positionalMapping(Blackhole blackhole) {
+        blackhole.consume(expenseRepository.findAllExpensesWithUsers());
+    }
+
+    @Benchmark
+    public void flatRowMapping(Blackhole blackhole) {
+        blackhole.consume(expenseRepository.searchExpenseRows(new ExpenseQuery()));
+    }
+
+    /** The mapping ExpenseRepository used before the positional row mapper. */
+    private static ExpenseWithUser mapByLabel(ResultSet rs) throws SQLException {
+        Expense expense = new Expense();
+        expense.setId(rs.getInt("id"));
+        expense.setUserId(rs.getInt("user_id"));
+        expense.setAmount(rs.getDouble("amount"));
+        expense.setDescription(rs.getString("description"));
+        expense.setDate(rs.getString("date"));
+
+        User user = new User();
+        user.setId(rs.getInt("user_id"));
+        user.setUsername(rs.getString("username"));
+        user.setRole(rs.getString("role"));
+
+        Approval approval = new Approval();
+        approval.setId(rs.getInt("approval_id"));
+        approval.setExpenseId(rs.getInt("id"));
+        approval.setStatus(rs.getString("status"));
+        approval.setReviewer((Integer) rs.getObject("reviewer"));
+        approval.setComment(rs.getString("comment"));
+        approval.setReviewDate(rs.getString("review_date"));
+
+        return new ExpenseWithUser(expense, user, approval);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ExpenseRowMappingBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
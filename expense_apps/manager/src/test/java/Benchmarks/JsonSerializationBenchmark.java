@@ -0,0 +1,89 @@
+package Benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.api.ApiJsonMapper;
+import com.revature.repository.Approval;
+import com.revature.repository.Expense;
+import com.revature.repository.ExpenseWithUser;
+import com.revature.repository.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a list endpoint envelope ({@code Map.of("success", true, "data", list, "count", n)})
+ * of ExpenseWithUser objects with Javalin's default bean-introspecting ObjectMapper and with
+ * {@link ApiJsonMapper}, both to a String (the ctx.json path) and to UTF-8 bytes.
+ * Run with: java -cp target/test-classes:target/classes:&lt;test classpath&gt; Benchmarks.JsonSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int rows;
+
+    private Map<String, Object> envelope;
+    private ObjectMapper defaultMapper;
+    private ApiJsonMapper apiJsonMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<ExpenseWithUser> expenses = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            int userId = i % 50 + 1;
+            boolean pending = i % 3 == 0;
+            expenses.add(new ExpenseWithUser(
+                new Expense(i, userId, 10 + (i % 5000) / 100.0, "Business expense " + i, "2024-12-" + (10 + i % 20)),
+                new User(userId, "employee" + userId, null, "Employee"),
+                new Approval(i, i, pending ? "pending" : "approved", pending ? null : 3,
+                    pending ? null : "Approved", pending ? null : "2024-12-30 10:00:00")));
+        }
+        envelope = Map.of("success", true, "data", expenses, "count", expenses.size());
+        defaultMapper = new ObjectMapper();
+        apiJsonMapper = new ApiJsonMapper();
+    }
+
+    @Benchmark
+    public String defaultMapperString() throws JsonProcessingException {
+        return defaultMapper.writeValueAsString(envelope);
+    }
+
+    @Benchmark
+    public String apiJsonMapperString() {
+        return apiJsonMapper.toJsonString(envelope, Map.class);
+    }
+
+    @Benchmark
+    public byte[] defaultMapperBytes() throws JsonProcessingException {
+        return defaultMapper.writeValueAsBytes(envelope);
+    }
+
+    @Benchmark
+    public InputStream apiJsonMapperBytes() {
+        return apiJsonMapper.toJsonStream(envelope, Map.class);
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Options options = new OptionsBuilder()
+            .include(JsonSerializationBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
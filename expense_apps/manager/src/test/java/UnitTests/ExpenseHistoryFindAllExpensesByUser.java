@@ -45,6 +45,7 @@ public class ExpenseHistoryFindAllExpensesByUser {
         expenseRepository = new ExpenseRepository(databaseConnection);
         when(databaseConnection.getConnection()).thenReturn(connection);
         lenient().when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        ResultSetLabelBridge.forwardExpenseWithUserColumns(resultSet);
     }
 
     @Test
@@ -48,6 +48,7 @@ public class ExpenseRepositorExpenseByCategory {
 
         // Use lenient for default setup that may not be used in all tests
         lenient().when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        ResultSetLabelBridge.forwardExpenseWithUserColumns(resultSet);
     }
 
     @Test
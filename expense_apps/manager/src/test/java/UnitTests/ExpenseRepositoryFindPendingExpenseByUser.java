@@ -46,6 +46,7 @@ public class ExpenseRepositoryFindPendingExpenseByUser {
         when(databaseConnection.getConnection()).thenReturn(connection);
 
         lenient().when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        ResultSetLabelBridge.forwardExpenseWithUserColumns(resultSet);
     }
 
     @Test
@@ -0,0 +1,51 @@
+package UnitTests;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Lets ResultSet mocks stubbed by column label serve the positional reads of the
+ * expense list row mapper. Position n is forwarded to the label selected n-th in
+ * the list queries (the amount, selected as cents, is forwarded to getDouble("amount"));
+ * wasNull() reports whether the last forwarded read was NULL.
+ * Stubs are lenient because not every test reads a row.
+ */
+final class ResultSetLabelBridge {
+    private static final String[] EXPENSE_WITH_USER_LABELS = {
+        null, "id", "user_id", "amount", "description", "date",
+        "username", "role",
+        "approval_id", "status", "reviewer", "comment", "review_date"
+    };
+    private static final int AMOUNT_CENTS = 3;
+    private static final int REVIEWER = 10;
+
+    private ResultSetLabelBridge() {}
+
+    static void forwardExpenseWithUserColumns(ResultSet rs) throws SQLException {
+        boolean[] lastWasNull = {false};
+
+        lenient().when(rs.getInt(anyInt())).thenAnswer(invocation -> {
+            int column = invocation.getArgument(0);
+            if (column == REVIEWER) {
+                Object reviewer = rs.getObject("reviewer");
+                lastWasNull[0] = reviewer == null;
+                return reviewer == null ? 0 : ((Number) reviewer).intValue();
+            }
+            lastWasNull[0] = false;
+            return rs.getInt(EXPENSE_WITH_USER_LABELS[column]);
+        });
+        lenient().when(rs.getLong(AMOUNT_CENTS)).thenAnswer(invocation -> {
+            lastWasNull[0] = false;
+            return Math.round(rs.getDouble("amount") * 100);
+        });
+        lenient().when(rs.getString(anyInt())).thenAnswer(invocation -> {
+            String value = rs.getString(EXPENSE_WITH_USER_LABELS[(int) invocation.getArgument(0)]);
+            lastWasNull[0] = value == null;
+            return value;
+        });
+        lenient().when(rs.wasNull()).thenAnswer(invocation -> lastWasNull[0]);
+    }
+}
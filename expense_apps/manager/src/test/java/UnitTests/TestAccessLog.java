@@ -0,0 +1,113 @@
+package UnitTests;
+
+import com.revature.api.AccessLog;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Epic("Manager App")
+@Feature("Access Log")
+@Story("Asynchronous Access Log")
+@DisplayName("Access Log Tests")
+public class TestAccessLog {
+
+    @TempDir
+    Path dir;
+
+    @Description("Records are formatted by the writer thread and appended in order")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C71_01")
+    public void testLog_writesRecordsInOrder() throws Exception {
+        Path file = dir.resolve("logs/access.log");
+        AccessLog accessLog = new AccessLog(file, 64, 1024 * 1024, 2, 1);
+
+        Assertions.assertTrue(accessLog.log(0L, "GET", "/api/expenses/pending", "127.0.0.1", 200, 4.5f));
+        Assertions.assertTrue(accessLog.log(1000L, "POST", "/api/expenses/7/approve", "10.0.0.2", 409, 12.25f));
+        accessLog.close();
+
+        List<String> lines = Files.readAllLines(file);
+        Assertions.assertEquals(List.of(
+                "1970-01-01T00:00:00Z 127.0.0.1 GET /api/expenses/pending 200 4.5ms",
+                "1970-01-01T00:00:01Z 10.0.0.2 POST /api/expenses/7/approve 409 12.25ms"), lines);
+        Assertions.assertEquals(2L, accessLog.stats().get("written"));
+    }
+
+    @Description("The file is rotated past its size limit and only the configured number of old files is kept")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C71_02")
+    public void testLog_rotatesFiles() throws Exception {
+        Path file = dir.resolve("access.log");
+        AccessLog accessLog = new AccessLog(file, 16, 200, 2, 1);
+
+        for (int i = 0; i < 50; i++) {
+            while (!accessLog.log(i, "GET", "/api/expenses/" + i, "127.0.0.1", 200, 1f)) {
+                Thread.onSpinWait();
+            }
+            Thread.sleep(1);
+        }
+        accessLog.close();
+
+        Assertions.assertTrue(Files.exists(dir.resolve("access.log.1")));
+        Assertions.assertTrue(Files.exists(dir.resolve("access.log.2")));
+        Assertions.assertFalse(Files.exists(dir.resolve("access.log.3")));
+        List<String> lastLines = Files.readAllLines(file);
+        Assertions.assertTrue(lastLines.get(lastLines.size() - 1).contains("/api/expenses/49 "));
+    }
+
+    @Description("A full buffer drops records instead of blocking, and every record is either written or counted as dropped")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C71_03")
+    public void testLog_concurrentFlood_writtenPlusDroppedMatches() throws Exception {
+        Path file = dir.resolve("access.log");
+        AccessLog accessLog = new AccessLog(file, 8, 1024 * 1024 * 1024, 1, 50);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    if (accessLog.log(i, "GET", "/health", "127.0.0.1", 200, 0.1f)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        accessLog.close();
+
+        long written = (long) accessLog.stats().get("written");
+        long dropped = (long) accessLog.stats().get("dropped");
+        Assertions.assertEquals(20000, written + dropped);
+        Assertions.assertEquals(accepted.get(), written);
+        Assertions.assertTrue(dropped > 0);
+        Assertions.assertEquals(written, Files.readAllLines(file).size());
+    }
+
+    @Description("The buffer capacity must be a power of two, and records after close are dropped")
+    @Severity(SeverityLevel.MINOR)
+    @Test
+    @DisplayName("C71_04")
+    public void testLog_invalidCapacityAndClosed() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AccessLog(dir.resolve("access.log"), 100, 1024, 1, 1));
+
+        AccessLog accessLog = new AccessLog(dir.resolve("access.log"), 4, 1024, 1, 1);
+        accessLog.close();
+        Assertions.assertFalse(accessLog.log(0L, "GET", "/health", "127.0.0.1", 200, 1f));
+        Assertions.assertEquals(1L, accessLog.stats().get("dropped"));
+    }
+}
@@ -0,0 +1,187 @@
+package UnitTests;
+
+import com.revature.api.AdaptiveLimiter;
+import com.revature.api.AdmissionControl;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.HttpResponseException;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Admission Control")
+@Story("Adaptive Concurrency Limits")
+@DisplayName("Admission Control Tests")
+public class TestAdmissionControl {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(10);
+
+    private static Context request(HandlerType method, String path) {
+        Map<String, Object> attributes = new HashMap<>();
+        Context ctx = mock(Context.class);
+        when(ctx.method()).thenReturn(method);
+        when(ctx.path()).thenReturn(path);
+        doAnswer(inv -> attributes.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(ctx).attribute(anyString(), any());
+        when(ctx.attribute(anyString())).thenAnswer(inv -> attributes.get(inv.<String>getArgument(0)));
+        return ctx;
+    }
+
+    private static void waitUntilQueued(AdaptiveLimiter limiter, int queued) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!limiter.stats().get("queued").equals(queued) && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Description("Requests beyond the limit are rejected at once when there is no queue")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C76_01")
+    public void testAcquire_overLimitWithoutQueue_rejected() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 4, 0, 1000, 500);
+
+        Assertions.assertTrue(limiter.acquire());
+        Assertions.assertTrue(limiter.acquire());
+        Assertions.assertFalse(limiter.acquire());
+
+        Map<String, Object> stats = limiter.stats();
+        Assertions.assertEquals(2, stats.get("inFlight"));
+        Assertions.assertEquals(2L, stats.get("admitted"));
+        Assertions.assertEquals(1L, stats.get("rejected"));
+    }
+
+    @Description("A queued request is admitted as soon as a slot is released")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C76_02")
+    public void testAcquire_queuedUntilRelease() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 4, 1, 5000, 500);
+        Assertions.assertTrue(limiter.acquire());
+
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(limiter::acquire);
+        waitUntilQueued(limiter, 1);
+        Assertions.assertFalse(limiter.acquire(), "queue of one is already full");
+
+        limiter.release(FAST);
+        Assertions.assertTrue(queued.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, limiter.stats().get("inFlight"));
+    }
+
+    @Description("A queued request is rejected when its wait runs out")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C76_03")
+    public void testAcquire_queueWaitExpires() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(1, 1, 4, 4, 50, 500);
+        Assertions.assertTrue(limiter.acquire());
+
+        long start = System.nanoTime();
+        Assertions.assertFalse(limiter.acquire());
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assertions.assertEquals(0, limiter.stats().get("queued"));
+    }
+
+    @Description("Slow requests shrink the limit once per target interval; fast requests at the limit grow it back")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C76_04")
+    public void testLimit_aimd() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(8, 2, 10, 0, 0, 1000);
+
+        for (int i = 0; i < 8; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < 8; i++) {
+            limiter.release(SLOW);
+        }
+        Assertions.assertEquals(6, limiter.stats().get("limit"), "one decrease per target interval");
+
+        // Each request that finishes in time while every slot is taken adds 1/limit
+        for (int round = 0; round < 20; round++) {
+            while (limiter.acquire()) {
+                // fill every slot
+            }
+            limiter.release(FAST);
+            int limit = (int) limiter.stats().get("limit");
+            int inFlight = (int) limiter.stats().get("inFlight");
+            for (int i = 0; i < inFlight; i++) {
+                limiter.release(FAST);
+            }
+            Assertions.assertTrue(limit <= 10);
+        }
+        Assertions.assertTrue((int) limiter.stats().get("limit") > 6);
+    }
+
+    @Description("Reports, writes and reads are limited separately and auth routes not at all")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C76_05")
+    @SuppressWarnings("unchecked")
+    public void testAdmit_routeClasses() {
+        AdmissionControl admission = new AdmissionControl(
+                new AdaptiveLimiter(4, 1, 4, 0, 0, 500),
+                new AdaptiveLimiter(4, 1, 4, 0, 0, 500),
+                new AdaptiveLimiter(4, 1, 4, 0, 0, 500), 2);
+
+        admission.admit(request(HandlerType.GET, "/api/reports/expenses/csv"));
+        admission.admit(request(HandlerType.POST, "/api/expenses/5/approve"));
+        admission.admit(request(HandlerType.GET, "/api/expenses/pending"));
+        admission.admit(request(HandlerType.GET, "/api/expenses"));
+        admission.admit(request(HandlerType.GET, "/api/auth/status"));
+
+        Map<String, Object> stats = admission.stats();
+        Assertions.assertEquals(1, ((Map<String, Object>) stats.get("report")).get("inFlight"));
+        Assertions.assertEquals(1, ((Map<String, Object>) stats.get("write")).get("inFlight"));
+        Assertions.assertEquals(2, ((Map<String, Object>) stats.get("read")).get("inFlight"));
+    }
+
+    @Description("A saturated class fails fast with 503 and Retry-After; releasing an admitted request frees its slot once")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C76_06")
+    @SuppressWarnings("unchecked")
+    public void testAdmit_saturated_503WithRetryAfter() {
+        AdmissionControl admission = new AdmissionControl(
+                new AdaptiveLimiter(4, 1, 4, 0, 0, 500),
+                new AdaptiveLimiter(4, 1, 4, 0, 0, 500),
+                new AdaptiveLimiter(1, 1, 1, 0, 0, 500), 2);
+        Context first = request(HandlerType.GET, "/api/reports/expenses/pending/csv");
+        admission.admit(first);
+
+        Context second = request(HandlerType.GET, "/api/reports/expenses/csv");
+        HttpResponseException rejected = Assertions.assertThrows(HttpResponseException.class,
+                () -> admission.admit(second));
+        Assertions.assertEquals(503, rejected.getStatus());
+        verify(second).header("Retry-After", "2");
+
+        admission.release(second);
+        admission.release(first);
+        admission.release(first);
+        Map<String, Object> report = (Map<String, Object>) admission.stats().get("report");
+        Assertions.assertEquals(0, report.get("inFlight"));
+        Assertions.assertEquals(1L, report.get("rejected"));
+    }
+
+    @Description("The wait queue is capped at a small constant, since each waiting request holds a server thread")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C76_07")
+    public void testConstructor_queueCapped() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveLimiter(4, 1, 8, AdaptiveLimiter.MAX_QUEUED + 1, 100, 500));
+        new AdaptiveLimiter(4, 1, 8, AdaptiveLimiter.MAX_QUEUED, 100, 500);
+    }
+}
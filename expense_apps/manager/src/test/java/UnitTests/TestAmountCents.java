@@ -0,0 +1,78 @@
+package UnitTests;
+
+import com.revature.repository.AmountCents;
+import com.revature.repository.Approval;
+import com.revature.repository.Expense;
+import com.revature.repository.ExpenseRow;
+import com.revature.repository.ExpenseWithUser;
+import com.revature.repository.User;
+import com.revature.service.ExpenseService;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+@Epic("Manager App")
+@Feature("Expense Repository")
+@Story("Fixed-Point Amounts")
+@DisplayName("Amount Cents Tests")
+public class TestAmountCents {
+
+    @Description("Cents format exactly like String.valueOf(double) for the same amount")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C63_01")
+    public void testFormat_matchesDoubleToString() {
+        double[] amounts = {0.0, 0.01, 0.1, 1.0, 12.34, 75.5, 150.0, 99.99, 1234.05, 9_999_999.99, -42.5};
+        for (double amount : amounts) {
+            long cents = AmountCents.fromAmount(amount);
+            Allure.step("Format " + amount, () ->
+                    Assertions.assertEquals(String.valueOf(amount), AmountCents.format(cents)));
+        }
+    }
+
+    @Description("Large amounts are printed in plain notation")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C63_02")
+    public void testFormat_largeAmount_plainNotation() {
+        Assertions.assertEquals("12345678.9", AmountCents.format(1_234_567_890L));
+    }
+
+    @Description("Binary floating point amounts round to the nearest cent")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C63_03")
+    public void testFromAmount_roundsToNearestCent() {
+        Assertions.assertEquals(30L, AmountCents.fromAmount(0.1 + 0.2));
+        Assertions.assertEquals(1015L, AmountCents.fromAmount(10.15));
+        Assertions.assertEquals(10.15, AmountCents.toAmount(1015L));
+    }
+
+    @Description("The legacy CSV report formats amounts from cents, the same as the row-based report")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C63_04")
+    public void testCsvReport_legacyAndRowReportsAgree() {
+        Expense expense = new Expense();
+        expense.setId(1);
+        expense.setUserId(2);
+        expense.setAmountCents(1_234_567_890L);
+        expense.setDescription("Conference");
+        expense.setDate("2024-12-01");
+        User user = new User(2, "employee1", null, "Employee");
+        Approval approval = new Approval();
+        approval.setStatus("pending");
+        ExpenseRow row = new ExpenseRow(1, 2, 1_234_567_890L, "Conference", "2024-12-01",
+                "employee1", "Employee", 0, "pending", null, null, null);
+
+        ExpenseService service = new ExpenseService(null, null);
+        String legacy = service.generateCsvReport(List.of(new ExpenseWithUser(expense, user, approval)));
+
+        Assertions.assertTrue(legacy.contains(",12345678.9,"), legacy);
+        Assertions.assertEquals(service.generateCsvReportFromRows(List.of(row)), legacy);
+        Assertions.assertEquals(12345678.9, expense.getAmount());
+    }
+}
@@ -0,0 +1,82 @@
+package UnitTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.api.ApiJsonMapper;
+import com.revature.repository.Approval;
+import com.revature.repository.ApprovalDecision;
+import com.revature.repository.Expense;
+import com.revature.repository.ExpenseWithUser;
+import com.revature.repository.User;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Epic("Manager App")
+@Feature("JSON Mapping")
+@Story("Pre-built Serializers")
+@DisplayName("API JSON Mapper Tests")
+public class TestApiJsonMapper {
+
+    private final ApiJsonMapper apiJsonMapper = new ApiJsonMapper();
+    private final ObjectMapper beanMapper = new ObjectMapper();
+
+    private static List<ExpenseWithUser> expenses() {
+        return List.of(
+                new ExpenseWithUser(
+                        new Expense(1, 2, 150.0, "Business \"lunch\" – café", "2024-12-01"),
+                        new User(2, "employee1", null, "Employee"),
+                        new Approval(1, 1, "pending", null, null, null)),
+                new ExpenseWithUser(
+                        new Expense(3, 4, 75.25, "Taxi", "2024-12-10"),
+                        new User(4, "manager1", null, "Manager"),
+                        new Approval(3, 3, "denied", 4, "Exceeds budget limit", "2024-12-11")),
+                new ExpenseWithUser(new Expense(5, 2, 1.0, null, null), null, null));
+    }
+
+    @Description("Hand-written serializers produce exactly the bean-introspected JSON")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C68_01")
+    public void testToJsonString_matchesBeanSerialization() throws Exception {
+        Map<String, Object> envelope = Map.of("success", true, "data", expenses(), "count", 3, "message", "ok");
+
+        Assertions.assertEquals(beanMapper.writeValueAsString(envelope), apiJsonMapper.toJsonString(envelope, Map.class));
+        Assertions.assertEquals(beanMapper.writeValueAsString(expenses().get(1).getUser()),
+                apiJsonMapper.toJsonString(expenses().get(1).getUser(), User.class));
+    }
+
+    @Description("Byte and stream output are the UTF-8 encoding of the string output")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C68_02")
+    public void testToJsonStream_utf8Bytes() throws Exception {
+        Map<String, Object> envelope = Map.of("data", expenses());
+        byte[] expected = apiJsonMapper.toJsonString(envelope, Map.class).getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertArrayEquals(expected, apiJsonMapper.toJsonStream(envelope, Map.class).readAllBytes());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        apiJsonMapper.writeToOutputStream(Stream.of(expenses().get(0)), out);
+        Assertions.assertEquals(beanMapper.writeValueAsString(List.of(expenses().get(0))), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Description("Request bodies still deserialize through the shared mapper")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C68_03")
+    public void testFromJsonString_readsRequestBodies() {
+        ApprovalDecision[] decisions = apiJsonMapper.fromJsonString(
+                "[{\"expenseId\":4,\"decision\":\"deny\",\"comment\":\"no\"}]", ApprovalDecision[].class);
+
+        Assertions.assertEquals(1, decisions.length);
+        Assertions.assertEquals("denied", decisions[0].toStatus());
+        Assertions.assertEquals("x", apiJsonMapper.toJsonString("x", String.class));
+    }
+}
@@ -0,0 +1,119 @@
+package UnitTests;
+
+import com.revature.repository.ApprovalDecision;
+import com.revature.repository.ApprovalRepository;
+import com.revature.repository.DatabaseConnection;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Approval Repository")
+@Story("Bulk Update Approval Status")
+@DisplayName("Approval Repository Bulk Update Approval Status Tests")
+public class TestApprovalRepositoryUpdateApprovalStatuses {
+
+    private DatabaseConnection dbConn;
+    private ApprovalRepository repo;
+    private Connection conn;
+    private PreparedStatement pstmt;
+
+    @BeforeEach
+    public void setUp() {
+        dbConn = mock(DatabaseConnection.class);
+        repo = new ApprovalRepository(dbConn);
+        conn = mock(Connection.class);
+        pstmt = mock(PreparedStatement.class);
+        try {
+            when(dbConn.getConnection()).thenReturn(conn);
+            when(conn.prepareStatement(anyString())).thenReturn(pstmt);
+        } catch (SQLException e) {
+            fail("Failed stubbing during setUp()");
+        }
+    }
+
+    @Description("All decisions are sent as one batch and committed once")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C52_01")
+    public void testUpdateApprovalStatuses_batchCommittedOnce() throws SQLException {
+        List<ApprovalDecision> decisions = List.of(
+                new ApprovalDecision(1, "approve", 3, "ok"),
+                new ApprovalDecision(2, "deny", 3, null),
+                new ApprovalDecision(99, "approve", 3, null));
+
+        Allure.step("Stub executeBatch to report the last expense missing",
+                () -> when(pstmt.executeBatch()).thenReturn(new int[]{1, 1, 0}));
+
+        Allure.step("Call updateApprovalStatuses and assert update counts", () -> {
+            int[] result = repo.updateApprovalStatuses(decisions);
+            Assertions.assertArrayEquals(new int[]{1, 1, 0}, result);
+        });
+
+        Allure.step("Verify a single transaction with one batch", () -> {
+            verify(dbConn, times(1)).getConnection();
+            verify(conn).setAutoCommit(false);
+            verify(pstmt, times(3)).addBatch();
+            verify(pstmt, times(2)).setString(1, "approved");
+            verify(pstmt).setString(1, "denied");
+            verify(pstmt, times(1)).executeBatch();
+            verify(conn, times(1)).commit();
+            verify(conn, never()).rollback();
+        });
+    }
+
+    @Description("A failed batch is rolled back and surfaced as RuntimeException")
+    @Severity(SeverityLevel.BLOCKER)
+    @Test
+    @DisplayName("C52_02")
+    public void testUpdateApprovalStatuses_SQLException_rollsBack() throws SQLException {
+        Allure.step("Stub executeBatch to throw SQLException",
+                () -> when(pstmt.executeBatch()).thenThrow(SQLException.class));
+
+        Allure.step("Assert that RuntimeException is thrown", () ->
+                Assertions.assertThrows(RuntimeException.class,
+                        () -> repo.updateApprovalStatuses(List.of(new ApprovalDecision(1, "approve", 3, null)))));
+
+        Allure.step("Verify the transaction was rolled back", () -> {
+            verify(conn).rollback();
+            verify(conn, never()).commit();
+        });
+    }
+
+    @Description("An empty list never opens a connection")
+    @Severity(SeverityLevel.MINOR)
+    @Test
+    @DisplayName("C52_03")
+    public void testUpdateApprovalStatuses_emptyList_noConnection() throws SQLException {
+        Assertions.assertEquals(0, repo.updateApprovalStatuses(List.of()).length);
+        verify(dbConn, never()).getConnection();
+    }
+
+    @Description("A failed rollback is attached to the batch failure instead of replacing it")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C52_04")
+    public void testUpdateApprovalStatuses_rollbackFails_batchFailureKept() throws SQLException {
+        SQLException batchFailure = new SQLException("database is locked");
+        SQLException rollbackFailure = new SQLException("cannot rollback - no transaction is active");
+        when(pstmt.executeBatch()).thenThrow(batchFailure);
+        doThrow(rollbackFailure).when(conn).rollback();
+
+        RuntimeException e = Assertions.assertThrows(RuntimeException.class,
+                () -> repo.updateApprovalStatuses(List.of(new ApprovalDecision(1, "approve", 3, null))));
+
+        Assertions.assertSame(batchFailure, e.getCause());
+        Assertions.assertArrayEquals(new Throwable[]{rollbackFailure}, batchFailure.getSuppressed());
+    }
+}
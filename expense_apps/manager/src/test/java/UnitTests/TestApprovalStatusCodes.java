@@ -0,0 +1,130 @@
+package UnitTests;
+
+import com.revature.repository.Approval;
+import com.revature.repository.ApprovalRepository;
+import com.revature.repository.ApprovalStatus;
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.ExpenseQuery;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.ExpenseRow;
+import com.revature.repository.SchemaMigrator;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Repository")
+@Story("Approval Status Codes")
+@DisplayName("Approval Status Code Tests")
+public class TestApprovalStatusCodes {
+
+    private DatabaseConnection dbConn;
+    private Connection conn;
+    private PreparedStatement stmt;
+    private ResultSet rs;
+
+    @BeforeEach
+    public void setUp() {
+        dbConn = mock(DatabaseConnection.class);
+        conn = mock(Connection.class);
+        stmt = mock(PreparedStatement.class);
+        rs = mock(ResultSet.class);
+        try {
+            when(dbConn.getConnection()).thenReturn(conn);
+            when(conn.prepareStatement(anyString())).thenReturn(stmt);
+            when(stmt.executeQuery()).thenReturn(rs);
+        } catch (SQLException e) {
+            fail("Failed stubbing during setUp()");
+        }
+    }
+
+    @Description("Statuses round-trip through their storage code and text")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C65_01")
+    public void testApprovalStatus_roundTrip() {
+        for (ApprovalStatus status : ApprovalStatus.values()) {
+            Assertions.assertSame(status, ApprovalStatus.fromCode(status.getCode()));
+            Assertions.assertSame(status, ApprovalStatus.fromValue(status.getValue()));
+        }
+        Assertions.assertNull(ApprovalStatus.fromCode(7));
+        Assertions.assertNull(ApprovalStatus.fromValue("escalated"));
+        Assertions.assertEquals(ApprovalStatus.DENIED, new Approval(1, 1, "denied", 3, null, null).getApprovalStatus());
+    }
+
+    @Description("Status filters use a literal code so the per-status partial index applies")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C65_02")
+    public void testStatusFilters_useLiteralStatusCode() throws SQLException {
+        ExpenseRepository repo = new ExpenseRepository(dbConn, SchemaMigrator.STATUS_CODE_VERSION);
+        ExpenseQuery query = new ExpenseQuery();
+        query.setStatus("approved");
+
+        repo.findPendingExpensesWithUsers();
+        repo.searchExpenseRows(query);
+
+        verify(conn).prepareStatement(contains("a.status_code = 0"));
+        verify(conn).prepareStatement(contains("a.status_code = 1"));
+        verify(stmt, never()).setString(anyInt(), anyString());
+    }
+
+    @Description("Rows take their status from the integer code without reading the status text")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C65_03")
+    public void testRowMapping_readsStatusCode() throws SQLException {
+        ExpenseRepository repo = new ExpenseRepository(dbConn, SchemaMigrator.STATUS_CODE_VERSION);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt(13)).thenReturn(ApprovalStatus.DENIED.getCode());
+
+        List<ExpenseRow> rows = repo.searchExpenseRows(new ExpenseQuery());
+
+        Assertions.assertEquals("denied", rows.get(0).status());
+        verify(rs, never()).getString(9);
+    }
+
+    @Description("Unknown status text without a code is still read as text")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C65_04")
+    public void testRowMapping_nullStatusCode_readsText() throws SQLException {
+        ExpenseRepository repo = new ExpenseRepository(dbConn, SchemaMigrator.STATUS_CODE_VERSION);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt(13)).thenReturn(0);
+        when(rs.wasNull()).thenReturn(true);
+        when(rs.getString(9)).thenReturn("escalated");
+
+        List<ExpenseRow> rows = repo.searchExpenseRows(new ExpenseQuery());
+
+        Assertions.assertEquals("escalated", rows.get(0).status());
+    }
+
+    @Description("The pending guard on approve/deny compares the status code")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C65_05")
+    public void testUpdateApprovalStatus_guardsOnStatusCode() throws SQLException {
+        ApprovalRepository approvalRepository = new ApprovalRepository(dbConn, SchemaMigrator.STATUS_CODE_VERSION);
+        when(stmt.executeUpdate()).thenReturn(1);
+
+        Assertions.assertTrue(approvalRepository.updateApprovalStatus(1, "approved", 3, null));
+
+        verify(conn).prepareStatement(contains("status_code = 0"));
+        verify(stmt).setString(1, "approved");
+        verify(stmt, never()).setString(eq(6), anyString());
+    }
+}
@@ -0,0 +1,178 @@
+package UnitTests;
+
+import com.revature.repository.ApprovalDecision;
+import com.revature.repository.ApprovalRepository;
+import com.revature.repository.ApprovalWriteQueue;
+import com.revature.repository.DatabaseConnection;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Approval Repository")
+@Story("Group Commit Approval Writes")
+@DisplayName("Approval Write Queue Tests")
+public class TestApprovalWriteQueue {
+
+    private ApprovalRepository repo;
+    private DatabaseConnection dbConn;
+    private Connection conn;
+    private ApprovalWriteQueue writeQueue;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        repo = mock(ApprovalRepository.class);
+        dbConn = mock(DatabaseConnection.class);
+        conn = mock(Connection.class);
+        when(dbConn.getConnection()).thenReturn(conn);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (writeQueue != null) {
+            writeQueue.close();
+        }
+    }
+
+    @Description("Writes arriving within the group window are committed together on one connection")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C51_01")
+    public void testSubmit_concurrentWrites_committedAsOneGroup() throws Exception {
+        when(repo.updateApprovalStatuses(any(Connection.class), anyList())).thenAnswer(invocation -> {
+            List<ApprovalDecision> decisions = invocation.getArgument(1);
+            int[] counts = new int[decisions.size()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = decisions.get(i).getExpenseId() == 404 ? 0 : 1;
+            }
+            return counts;
+        });
+        writeQueue = new ApprovalWriteQueue(repo, dbConn, 16, 200);
+
+        CompletableFuture<Boolean> first = writeQueue.submit(1, "approved", 3, null);
+        CompletableFuture<Boolean> second = writeQueue.submit(2, "denied", 4, "no receipt");
+        CompletableFuture<Boolean> missing = writeQueue.submit(404, "approved", 3, null);
+
+        Allure.step("Each caller sees its own result", () -> {
+            Assertions.assertTrue(first.get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(second.get(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(missing.get(5, TimeUnit.SECONDS));
+        });
+
+        Allure.step("Verify one group commit on one writer connection", () -> {
+            verify(repo, times(1)).updateApprovalStatuses(same(conn), argThat(list -> list.size() == 3));
+            verify(dbConn, times(1)).getConnection();
+        });
+    }
+
+    @Description("Groups never exceed the configured maximum size")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C51_02")
+    public void testSubmit_groupSizeIsBounded() throws Exception {
+        when(repo.updateApprovalStatuses(any(Connection.class), anyList()))
+                .thenAnswer(invocation -> new int[((List<?>) invocation.getArgument(1)).size()]);
+        writeQueue = new ApprovalWriteQueue(repo, dbConn, 2, 200);
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[5];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = writeQueue.submit(i + 1, "approved", 3, null);
+        }
+        CompletableFuture.allOf(futures).get(5, TimeUnit.SECONDS);
+
+        verify(repo, never()).updateApprovalStatuses(any(Connection.class), argThat(list -> list.size() > 2));
+        verify(repo, atLeast(3)).updateApprovalStatuses(any(Connection.class), anyList());
+    }
+
+    @Description("A failed group fails every caller in it and the writer connection is replaced")
+    @Severity(SeverityLevel.BLOCKER)
+    @Test
+    @DisplayName("C51_03")
+    public void testSubmit_failedGroup_completesExceptionally() throws Exception {
+        when(repo.updateApprovalStatuses(any(Connection.class), anyList()))
+                .thenThrow(new SQLException("database is locked"))
+                .thenReturn(new int[]{1});
+        writeQueue = new ApprovalWriteQueue(repo, dbConn, 16, 0);
+
+        CompletableFuture<Boolean> failed = writeQueue.submit(1, "approved", 3, null);
+        Assertions.assertThrows(CompletionException.class, failed::join);
+        verify(conn, timeout(5000)).close();
+
+        Assertions.assertTrue(writeQueue.submit(1, "approved", 3, null).get(5, TimeUnit.SECONDS));
+        verify(dbConn, times(2)).getConnection();
+    }
+
+    @Description("Closing the queue rejects new writes")
+    @Severity(SeverityLevel.MINOR)
+    @Test
+    @DisplayName("C51_04")
+    public void testClose_rejectsNewWrites() {
+        writeQueue = new ApprovalWriteQueue(repo, dbConn, 16, 0);
+        writeQueue.close();
+
+        Assertions.assertThrows(CompletionException.class,
+                () -> writeQueue.submit(1, "approved", 3, null).join());
+        Assertions.assertEquals(0, writeQueue.getQueueDepth());
+    }
+
+    @Description("Writes submitted while the queue is closing are either committed or rejected, never left waiting")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C51_05")
+    public void testClose_concurrentSubmits_allComplete() throws Exception {
+        when(repo.updateApprovalStatuses(any(Connection.class), anyList()))
+                .thenAnswer(invocation -> new int[((List<?>) invocation.getArgument(1)).size()]);
+
+        for (int round = 0; round < 50; round++) {
+            ApprovalWriteQueue closing = new ApprovalWriteQueue(repo, dbConn, 4, 0);
+            List<CompletableFuture<Boolean>> results = new CopyOnWriteArrayList<>();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService submitters = Executors.newFixedThreadPool(4);
+            for (int t = 0; t < 4; t++) {
+                submitters.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 25; i++) {
+                        results.add(closing.submit(i + 1, "approved", 3, null));
+                    }
+                });
+            }
+
+            start.countDown();
+            closing.close();
+            submitters.shutdown();
+            Assertions.assertTrue(submitters.awaitTermination(5, TimeUnit.SECONDS));
+
+            for (CompletableFuture<Boolean> result : results) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    Assertions.assertInstanceOf(IllegalStateException.class, e.getCause());
+                }
+            }
+            Assertions.assertEquals(0, closing.getQueueDepth());
+        }
+    }
+}
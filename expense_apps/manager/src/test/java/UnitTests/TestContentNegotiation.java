@@ -0,0 +1,175 @@
+package UnitTests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.revature.api.ExpenseController;
+import com.revature.repository.Approval;
+import com.revature.repository.Expense;
+import com.revature.repository.ExpenseQuery;
+import com.revature.repository.ExpenseRow;
+import com.revature.repository.ExpenseWithUser;
+import com.revature.repository.User;
+import com.revature.service.ExpenseService;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.validation.Validator;
+import io.qameta.allure.*;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Controller")
+@Story("Binary Content Negotiation")
+@DisplayName("Content Negotiation Tests")
+public class TestContentNegotiation {
+
+    private ExpenseService service;
+    private ExpenseController controller;
+    private Context ctx;
+
+    @BeforeEach
+    public void setUp() {
+        service = mock(ExpenseService.class);
+        controller = new ExpenseController(service);
+        ctx = mock(Context.class);
+        when(service.getAllExpenses()).thenReturn(List.of(new ExpenseWithUser(
+                new Expense(1, 2, 150.0, "Business lunch", "2024-12-01"),
+                new User(2, "employee1", null, "Employee"),
+                new Approval(1, 1, "pending", null, null, null))));
+    }
+
+    private byte[] capturedResult() {
+        ArgumentCaptor<byte[]> result = ArgumentCaptor.forClass(byte[].class);
+        verify(ctx).result(result.capture());
+        return result.getValue();
+    }
+
+    @Description("Accept: application/cbor returns the JSON document encoded as CBOR")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C69_01")
+    public void testGetAllExpenses_acceptCbor_writesCbor() throws Exception {
+        when(ctx.header(Header.ACCEPT)).thenReturn("application/cbor");
+
+        controller.getAllExpenses(ctx);
+
+        JsonNode cbor = new CBORMapper().readTree(capturedResult());
+        JsonNode json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(Map.of(
+                "success", true, "data", service.getAllExpenses(), "count", 1)));
+        Assertions.assertEquals(json, cbor);
+        verify(ctx).contentType("application/cbor");
+        verify(ctx).header(Header.VARY, Header.ACCEPT);
+        verify(ctx, never()).json(any());
+    }
+
+    @Description("Accept: application/x-jackson-smile on the per-employee endpoint returns Smile")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C69_02")
+    @SuppressWarnings("unchecked")
+    public void testGetExpensesByEmployee_acceptSmile_writesSmile() throws Exception {
+        Validator<Integer> validator = mock(Validator.class);
+        when(validator.get()).thenReturn(2);
+        when(ctx.pathParamAsClass("employeeId", Integer.class)).thenReturn(validator);
+        when(ctx.header(Header.ACCEPT)).thenReturn("application/x-jackson-smile");
+        List<ExpenseWithUser> expenses = service.getAllExpenses();
+        when(service.getExpensesByEmployee(2)).thenReturn(expenses);
+
+        controller.getExpensesByEmployee(ctx);
+
+        JsonNode smile = new SmileMapper().readTree(capturedResult());
+        Assertions.assertEquals(2, smile.get("employeeId").asInt());
+        Assertions.assertEquals("employee1", smile.get("data").get(0).get("user").get("username").asText());
+        verify(ctx).contentType("application/x-jackson-smile");
+    }
+
+    @Description("Browsers, missing Accept headers and wildcards keep getting JSON")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C69_03")
+    public void testGetAllExpenses_browserAccept_staysJson() {
+        when(ctx.header(Header.ACCEPT)).thenReturn("text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+        controller.getAllExpenses(ctx);
+
+        when(ctx.header(Header.ACCEPT)).thenReturn(null);
+        controller.getAllExpenses(ctx);
+
+        verify(ctx, times(2)).json(anyMap());
+        verify(ctx, never()).result(any(byte[].class));
+    }
+
+    @Description("q-values decide between JSON and a binary format, with JSON winning ties")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C69_04")
+    public void testGetAllExpenses_qualityValues_pickHighest() {
+        when(ctx.header(Header.ACCEPT)).thenReturn("application/cbor;q=0.5, application/json");
+        controller.getAllExpenses(ctx);
+        verify(ctx).json(anyMap());
+
+        when(ctx.header(Header.ACCEPT)).thenReturn("application/cbor, application/json");
+        controller.getAllExpenses(ctx);
+        verify(ctx, times(2)).json(anyMap());
+
+        when(ctx.header(Header.ACCEPT)).thenReturn("application/json;q=0.2, application/x-jackson-smile;q=0.9");
+        controller.getAllExpenses(ctx);
+        verify(ctx).contentType("application/x-jackson-smile");
+        verify(ctx).result(any(byte[].class));
+    }
+
+    @Description("stream=true honours the negotiated format")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C69_05")
+    @SuppressWarnings("unchecked")
+    public void testGetAllExpenses_streamWithCbor_streamsCbor() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(ctx.outputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        });
+        when(ctx.queryParam("stream")).thenReturn("true");
+        when(ctx.header(Header.ACCEPT)).thenReturn("application/cbor");
+        when(service.streamExpenseRows(any(ExpenseQuery.class), isNull(), any())).thenAnswer(invocation -> {
+            Consumer<ExpenseRow> consumer = invocation.getArgument(2);
+            consumer.accept(new ExpenseRow(7, 5, 8000, "Parking fees", "2024-12-20", "testuser", "Employee",
+                    7, "approved", 4, "ok", "2024-12-21"));
+            return 1;
+        });
+
+        controller.getAllExpenses(ctx);
+
+        JsonNode cbor = new CBORMapper().readTree(body.toByteArray());
+        Assertions.assertEquals(7, cbor.get("data").get(0).get("expense").get("id").asInt());
+        Assertions.assertEquals(1, cbor.get("count").asInt());
+        verify(ctx).contentType("application/cbor");
+    }
+}
@@ -0,0 +1,183 @@
+package UnitTests;
+
+import com.revature.api.ProfileController;
+import com.revature.metrics.ExecutionProfiler;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.ConflictResponse;
+import io.javalin.http.Context;
+import io.qameta.allure.*;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Request Metrics")
+@Story("CPU Profiling")
+@DisplayName("Execution Profiler Tests")
+public class TestExecutionProfiler {
+
+    private static volatile boolean stopSpinning;
+    private static volatile long sink;
+
+    // Calls nothing inside the loop, so every sample of this thread has it as the leaf frame
+    private static void spinForProfile() {
+        long x = 1;
+        while (!stopSpinning) {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+        }
+        sink = x;
+    }
+
+    private static Thread startSpinning() {
+        stopSpinning = false;
+        Thread thread = new Thread(TestExecutionProfiler::spinForProfile, "profile-test-spinner");
+        thread.start();
+        return thread;
+    }
+
+    private static void stopSpinning(Thread spinner) throws InterruptedException {
+        stopSpinning = true;
+        spinner.join();
+    }
+
+    @Description("A busy method shows up in the folded stacks, rooted at its thread's entry point")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C74_01")
+    public void testProfile_busyMethodInFoldedStacks() throws Exception {
+        Thread spinner = startSpinning();
+        ExecutionProfiler.FoldedStacks stacks;
+        try {
+            stacks = new ExecutionProfiler(Duration.ofMillis(10), 1000).profile(Duration.ofSeconds(1)).orElseThrow();
+        } finally {
+            stopSpinning(spinner);
+        }
+
+        StringWriter folded = new StringWriter();
+        stacks.writeTo(folded);
+
+        Assertions.assertTrue(stacks.getSamples() > 0);
+        Assertions.assertTrue(folded.toString().lines().anyMatch(line ->
+                line.startsWith("java.lang.Thread.run")
+                        && line.contains(";UnitTests.TestExecutionProfiler.spinForProfile")), folded.toString());
+    }
+
+    @Description("A second profile is refused while one is running, and allowed again afterwards")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C74_02")
+    public void testProfile_oneAtATime() throws Exception {
+        ExecutionProfiler profiler = new ExecutionProfiler(Duration.ofMillis(10), 1000);
+        CompletableFuture<Optional<ExecutionProfiler.FoldedStacks>> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return profiler.profile(Duration.ofSeconds(1));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!profiler.isRunning() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        Assertions.assertTrue(profiler.profile(Duration.ofSeconds(1)).isEmpty());
+        Assertions.assertTrue(first.get(10, TimeUnit.SECONDS).isPresent());
+        Assertions.assertFalse(profiler.isRunning());
+    }
+
+    @Description("Distinct stacks beyond the limit are counted together instead of kept")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C74_03")
+    public void testProfile_stackLimit() throws Exception {
+        Thread spinner = startSpinning();
+        ExecutionProfiler.FoldedStacks stacks;
+        try {
+            stacks = new ExecutionProfiler(Duration.ofMillis(10), 1).profile(Duration.ofSeconds(1)).orElseThrow();
+        } finally {
+            stopSpinning(spinner);
+        }
+
+        Assertions.assertTrue(stacks.getStackCount() <= 2);
+    }
+
+    @Description("The endpoint rejects durations outside 1-60 seconds")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C74_04")
+    public void testProfileEndpoint_invalidSeconds() throws Exception {
+        ExecutionProfiler profiler = mock(ExecutionProfiler.class);
+        ProfileController controller = new ProfileController(profiler);
+
+        for (String seconds : new String[]{"0", "61", "abc"}) {
+            Context ctx = mock(Context.class);
+            when(ctx.queryParam("seconds")).thenReturn(seconds);
+            Assertions.assertThrows(BadRequestResponse.class, () -> controller.profile(ctx));
+        }
+        verify(profiler, never()).profile(any());
+    }
+
+    @Description("The endpoint answers 409 while another profile is running")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C74_05")
+    public void testProfileEndpoint_busy() throws Exception {
+        ExecutionProfiler profiler = mock(ExecutionProfiler.class);
+        when(profiler.profile(Duration.ofSeconds(10))).thenReturn(Optional.empty());
+        Context ctx = mock(Context.class);
+
+        Assertions.assertThrows(ConflictResponse.class, () -> new ProfileController(profiler).profile(ctx));
+    }
+
+    @Description("The endpoint streams the folded stacks as plain text with the sample count")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C74_06")
+    public void testProfileEndpoint_streamsFoldedStacks() throws Exception {
+        ExecutionProfiler.FoldedStacks stacks = new ExecutionProfiler(Duration.ofMillis(10), 1000)
+                .profile(Duration.ofMillis(200)).orElseThrow();
+        ExecutionProfiler profiler = mock(ExecutionProfiler.class);
+        when(profiler.profile(Duration.ofSeconds(2))).thenReturn(Optional.of(stacks));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        Context ctx = mock(Context.class);
+        when(ctx.queryParam("seconds")).thenReturn("2");
+        when(ctx.outputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+
+        new ProfileController(profiler).profile(ctx);
+
+        StringWriter expected = new StringWriter();
+        stacks.writeTo(expected);
+        verify(ctx).contentType("text/plain; charset=utf-8");
+        verify(ctx).header("X-Profile-Samples", Long.toString(stacks.getSamples()));
+        Assertions.assertEquals(expected.toString(), body.toString(StandardCharsets.UTF_8));
+    }
+}
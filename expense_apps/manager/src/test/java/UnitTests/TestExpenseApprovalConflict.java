@@ -0,0 +1,113 @@
+package UnitTests;
+
+import com.revature.api.ExpenseController;
+import com.revature.repository.Approval;
+import com.revature.repository.ApprovalDecision;
+import com.revature.repository.ApprovalRepository;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.User;
+import com.revature.service.ApprovalConflictException;
+import com.revature.service.BulkReviewResult;
+import com.revature.service.ExpenseService;
+import io.javalin.http.ConflictResponse;
+import io.javalin.http.Context;
+import io.javalin.validation.Validator;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Service")
+@Story("Conflicting Expense Reviews")
+@DisplayName("Expense Approval Conflict Tests")
+public class TestExpenseApprovalConflict {
+
+    private ApprovalRepository approvalDAO;
+    private ExpenseService service;
+
+    @BeforeEach
+    public void setUp() {
+        approvalDAO = mock(ApprovalRepository.class);
+        service = new ExpenseService(mock(ExpenseRepository.class), approvalDAO);
+    }
+
+    @Description("Approving an expense another manager already denied raises a conflict")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C78_01")
+    public void testApproveExpense_alreadyReviewed_throwsConflict() {
+        when(approvalDAO.updateApprovalStatus(1, "approved", 3, null)).thenReturn(false);
+        when(approvalDAO.findByExpenseId(1)).thenReturn(Optional.of(new Approval(1, 1, "denied", 4, null, "2024-12-06")));
+
+        ApprovalConflictException ex = Assertions.assertThrows(ApprovalConflictException.class,
+                () -> service.approveExpense(1, 3, null));
+        Assertions.assertEquals("denied", ex.getCurrentStatus());
+    }
+
+    @Description("A missing expense is still reported as not found, not as a conflict")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C78_02")
+    public void testDenyExpense_missing_returnsFalse() {
+        when(approvalDAO.updateApprovalStatus(99, "denied", 3, null)).thenReturn(false);
+        when(approvalDAO.findByExpenseId(99)).thenReturn(Optional.empty());
+
+        Assertions.assertFalse(service.denyExpense(99, 3, null));
+    }
+
+    @Description("A successful conditional update never reads the approval back")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C78_03")
+    public void testApproveExpense_pending_noExtraRead() {
+        when(approvalDAO.updateApprovalStatus(1, "approved", 3, null)).thenReturn(true);
+
+        Assertions.assertTrue(service.approveExpense(1, 3, null));
+        verify(approvalDAO, never()).findByExpenseId(anyInt());
+    }
+
+    @Description("Bulk decisions on already reviewed expenses are reported as conflicts")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C78_04")
+    public void testBulkReview_alreadyReviewed_reportsConflict() {
+        when(approvalDAO.updateApprovalStatuses(anyList())).thenReturn(new int[]{0, 0});
+        when(approvalDAO.findStatusesByExpenseIds(List.of(2, 404))).thenReturn(Map.of(2, "approved"));
+
+        List<BulkReviewResult> results = service.bulkReviewExpenses(List.of(
+                new ApprovalDecision(2, "deny", null),
+                new ApprovalDecision(404, "deny", null)), 3);
+
+        Assertions.assertFalse(results.get(0).isSuccess());
+        Assertions.assertEquals("approved", results.get(0).getStatus());
+        Assertions.assertFalse(results.get(1).isSuccess());
+        Assertions.assertNull(results.get(1).getStatus());
+    }
+
+    @Description("The controller maps a review conflict to 409")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C78_05")
+    @SuppressWarnings("unchecked")
+    public void testApproveExpenseController_conflict_returns409() {
+        ExpenseService mockService = mock(ExpenseService.class);
+        ExpenseController controller = new ExpenseController(mockService);
+        Context ctx = mock(Context.class);
+        Validator<Integer> validator = mock(Validator.class);
+        when(validator.get()).thenReturn(1);
+        when(ctx.pathParamAsClass("expenseId", Integer.class)).thenReturn(validator);
+        when(ctx.attribute("manager")).thenReturn(new User(3, "manager1", null, "Manager"));
+        when(mockService.approveExpense(1, 3, null)).thenThrow(new ApprovalConflictException(1, "denied"));
+
+        Assertions.assertThrows(ConflictResponse.class, () -> controller.approveExpense(ctx));
+    }
+}
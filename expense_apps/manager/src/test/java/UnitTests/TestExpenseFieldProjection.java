@@ -0,0 +1,115 @@
+package UnitTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.api.ExpenseController;
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.ExpenseField;
+import com.revature.repository.ExpenseProjection;
+import com.revature.repository.ExpenseQuery;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.ExpenseRow;
+import com.revature.service.ExpenseService;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.Context;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Repository")
+@Story("Sparse Fieldsets")
+@DisplayName("Expense Field Projection Tests")
+public class TestExpenseFieldProjection {
+
+    @Description("Only the requested columns are selected and read, in field order")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C66_01")
+    public void testSearchExpenseProjection_selectsOnlyRequestedColumns() throws SQLException {
+        DatabaseConnection dbConn = mock(DatabaseConnection.class);
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(dbConn.getConnection()).thenReturn(conn);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt(1)).thenReturn(7);
+        when(rs.getLong(2)).thenReturn(8000L);
+        when(rs.getString(3)).thenReturn("employee1");
+        ExpenseRepository repo = new ExpenseRepository(dbConn);
+
+        ExpenseProjection projection = repo.searchExpenseProjection(new ExpenseQuery(),
+                Set.of(ExpenseField.USERNAME, ExpenseField.ID, ExpenseField.AMOUNT));
+
+        verify(conn).prepareStatement(startsWith("SELECT e.id, CAST(ROUND(e.amount * 100) AS INTEGER), u.username\n"));
+        ExpenseRow row = projection.rows().get(0);
+        Assertions.assertEquals(7, row.id());
+        Assertions.assertEquals(8000L, row.amountCents());
+        Assertions.assertEquals("employee1", row.username());
+        Assertions.assertNull(row.description());
+        verify(rs, never()).getString(4);
+    }
+
+    @Description("A projection serializes to flat objects holding only the requested fields")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C66_02")
+    public void testProjectionJson_flatRequestedFieldsOnly() throws Exception {
+        ExpenseRow row = new ExpenseRow(7, 5, 8000, null, "2024-12-20", "testuser", null, 0, "pending", null, null, null);
+        ExpenseProjection projection = new ExpenseProjection(
+                EnumSet.of(ExpenseField.ID, ExpenseField.AMOUNT, ExpenseField.DATE, ExpenseField.USERNAME,
+                        ExpenseField.STATUS, ExpenseField.REVIEWER),
+                List.of(row));
+
+        String json = new ObjectMapper().writeValueAsString(projection);
+
+        Assertions.assertEquals(
+                "[{\"id\":7,\"amount\":80.0,\"date\":\"2024-12-20\",\"username\":\"testuser\",\"status\":\"pending\",\"reviewer\":null}]",
+                json);
+    }
+
+    @Description("Unknown field names are rejected with 400")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C66_03")
+    public void testGetAllExpenses_unknownField_badRequest() {
+        ExpenseService service = mock(ExpenseService.class);
+        ExpenseController controller = new ExpenseController(service);
+        Context ctx = mock(Context.class);
+        when(ctx.queryParam("fields")).thenReturn("id,password");
+
+        Assertions.assertThrows(BadRequestResponse.class, () -> controller.getAllExpenses(ctx));
+        verify(service, never()).searchExpenseProjection(any(), any());
+    }
+
+    @Description("Without fields the legacy nested list is returned")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C66_04")
+    public void testGetAllExpenses_noFields_usesLegacyList() {
+        ExpenseService service = mock(ExpenseService.class);
+        ExpenseController controller = new ExpenseController(service);
+        Context ctx = mock(Context.class);
+        when(service.getAllExpenses()).thenReturn(List.of());
+
+        controller.getAllExpenses(ctx);
+
+        verify(service).getAllExpenses();
+        verify(service, never()).searchExpenseProjection(any(), any());
+    }
+}
@@ -0,0 +1,125 @@
+package UnitTests;
+
+import com.revature.api.ExpenseController;
+import com.revature.api.IdempotencyStore;
+import com.revature.repository.IdempotencyRepository;
+import com.revature.repository.IdempotentResponse;
+import com.revature.repository.User;
+import com.revature.service.ExpenseService;
+import io.javalin.http.ConflictResponse;
+import io.javalin.http.Context;
+import io.javalin.http.HttpResponseException;
+import io.javalin.validation.Validator;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Controller")
+@Story("Idempotent Expense Reviews")
+@DisplayName("Expense Idempotency Tests")
+public class TestExpenseIdempotency {
+
+    private static final String SCOPED_KEY = "3:approve:1:retry-1";
+
+    private IdempotencyRepository idempotencyDAO;
+    private IdempotencyStore store;
+    private ExpenseService service;
+    private ExpenseController controller;
+    private Context ctx;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        idempotencyDAO = mock(IdempotencyRepository.class);
+        when(idempotencyDAO.findByKey(anyString(), anyLong())).thenReturn(Optional.empty());
+        store = new IdempotencyStore(idempotencyDAO, 100, 24);
+        service = mock(ExpenseService.class);
+        controller = new ExpenseController(service, store);
+
+        ctx = mock(Context.class);
+        Validator<Integer> validator = mock(Validator.class);
+        when(validator.get()).thenReturn(1);
+        when(ctx.pathParamAsClass("expenseId", Integer.class)).thenReturn(validator);
+        when(ctx.pathParam("expenseId")).thenReturn("1");
+        when(ctx.attribute("manager")).thenReturn(new User(3, "manager1", null, "Manager"));
+        when(ctx.header("Idempotency-Key")).thenReturn("retry-1");
+        when(ctx.statusCode()).thenReturn(200);
+        when(ctx.result()).thenReturn("{\"success\":true}");
+    }
+
+    @Description("The first request with a key runs the approval and stores its response")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C56_01")
+    public void testApproveExpense_firstRequest_storesResponse() {
+        when(service.approveExpense(1, 3, null)).thenReturn(true);
+
+        Allure.step("Approve with an Idempotency-Key", () -> controller.approveExpense(ctx));
+
+        verify(service).approveExpense(1, 3, null);
+        verify(idempotencyDAO).save(eq(SCOPED_KEY), argThat(r -> r.getStatusCode() == 200), anyLong());
+    }
+
+    @Description("A retry with the same key replays the stored response without approving again")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C56_02")
+    public void testApproveExpense_retry_replaysResponse() {
+        when(service.approveExpense(1, 3, null)).thenReturn(true);
+        controller.approveExpense(ctx);
+
+        Allure.step("Retry with the same Idempotency-Key", () -> controller.approveExpense(ctx));
+
+        verify(service, times(1)).approveExpense(1, 3, null);
+        verify(ctx).header("Idempotent-Replayed", "true");
+        verify(ctx).result("{\"success\":true}");
+    }
+
+    @Description("A stored client error is replayed as the same error")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C56_03")
+    public void testApproveExpense_storedConflict_replaysError() {
+        when(idempotencyDAO.findByKey(eq(SCOPED_KEY), anyLong()))
+                .thenReturn(Optional.of(new IdempotentResponse(409, "Expense 1 has already been denied")));
+
+        HttpResponseException ex = Assertions.assertThrows(HttpResponseException.class,
+                () -> controller.approveExpense(ctx));
+
+        Assertions.assertEquals(409, ex.getStatus());
+        verify(service, never()).approveExpense(anyInt(), anyInt(), any());
+    }
+
+    @Description("A concurrent request with a key that is still in progress is rejected")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C56_04")
+    public void testApproveExpense_inProgress_throwsConflict() {
+        store.tryBegin(SCOPED_KEY);
+
+        Assertions.assertThrows(ConflictResponse.class, () -> controller.approveExpense(ctx));
+        verify(service, never()).approveExpense(anyInt(), anyInt(), any());
+    }
+
+    @Description("Requests without the header are not recorded")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C56_05")
+    public void testDenyExpense_noHeader_notStored() {
+        when(ctx.header("Idempotency-Key")).thenReturn(null);
+        when(service.denyExpense(1, 3, null)).thenReturn(true);
+
+        controller.denyExpense(ctx);
+
+        verify(service).denyExpense(1, 3, null);
+        verifyNoInteractions(idempotencyDAO);
+    }
+}
@@ -0,0 +1,160 @@
+package UnitTests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.api.ExpenseController;
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.ExpenseField;
+import com.revature.repository.ExpenseQuery;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.ExpenseRow;
+import com.revature.service.ExpenseService;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.Context;
+import io.qameta.allure.*;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Controller")
+@Story("Streaming Expense Lists")
+@DisplayName("Expense JSON Streaming Tests")
+public class TestExpenseJsonStreaming {
+
+    private ExpenseService service;
+    private ExpenseController controller;
+    private Context ctx;
+    private ByteArrayOutputStream body;
+
+    @BeforeEach
+    public void setUp() {
+        service = mock(ExpenseService.class);
+        controller = new ExpenseController(service);
+        ctx = mock(Context.class);
+        body = new ByteArrayOutputStream();
+        when(ctx.outputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        });
+        when(ctx.queryParam("stream")).thenReturn("true");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRows(Set<ExpenseField> fields, ExpenseRow... rows) {
+        when(service.streamExpenseRows(any(ExpenseQuery.class), fields == null ? isNull() : eq(fields), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<ExpenseRow> consumer = invocation.getArgument(2);
+                    for (ExpenseRow row : rows) {
+                        consumer.accept(row);
+                    }
+                    return rows.length;
+                });
+    }
+
+    private static ExpenseRow row(int id) {
+        return new ExpenseRow(id, 5, 8000, "Parking fees", "2024-12-20", "testuser", "Employee",
+                id, "approved", 4, "ok", "2024-12-21");
+    }
+
+    @Description("Streamed rows use the same envelope and row shape as the buffered list, with count last")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C67_01")
+    public void testGetAllExpenses_stream_writesEnvelopeWithTrailingCount() throws Exception {
+        stubRows(null, row(7), row(6));
+
+        controller.getAllExpenses(ctx);
+
+        JsonNode json = new ObjectMapper().readTree(body.toByteArray());
+        Assertions.assertTrue(json.get("success").asBoolean());
+        Assertions.assertEquals(2, json.get("data").size());
+        Assertions.assertEquals(7, json.get("data").get(0).get("expense").get("id").asInt());
+        Assertions.assertEquals("testuser", json.get("data").get(0).get("user").get("username").asText());
+        Assertions.assertEquals(2, json.get("count").asInt());
+        Iterator<String> names = json.fieldNames();
+        List<String> order = new ArrayList<>();
+        names.forEachRemaining(order::add);
+        Assertions.assertEquals(List.of("success", "data", "count"), order);
+        verify(service, never()).getAllExpenses();
+    }
+
+    @Description("Streaming combines with fields= to write flat projected rows")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C67_02")
+    public void testSearchExpenses_streamWithFields_writesFlatRows() throws Exception {
+        when(ctx.queryParam("fields")).thenReturn("id,status");
+        stubRows(Set.of(ExpenseField.ID, ExpenseField.STATUS), row(3));
+
+        controller.searchExpenses(ctx);
+
+        Assertions.assertEquals("{\"success\":true,\"data\":[{\"id\":3,\"status\":\"approved\"}],\"count\":1}",
+                body.toString());
+    }
+
+    @Description("An invalid stream value is rejected before anything is written")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C67_03")
+    public void testGetAllExpenses_invalidStreamValue_badRequest() {
+        when(ctx.queryParam("stream")).thenReturn("yes");
+
+        Assertions.assertThrows(BadRequestResponse.class, () -> controller.getAllExpenses(ctx));
+        Assertions.assertEquals(0, body.size());
+    }
+
+    @Description("The repository hands rows to the consumer straight from the cursor and counts them")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C67_04")
+    public void testStreamExpenseRows_passesEachRowToConsumer() throws SQLException {
+        DatabaseConnection dbConn = mock(DatabaseConnection.class);
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(dbConn.getConnection()).thenReturn(conn);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, true, false);
+        when(rs.getInt(1)).thenReturn(1, 2, 3);
+        List<Integer> seen = new ArrayList<>();
+
+        int count = new ExpenseRepository(dbConn).streamExpenseRows(new ExpenseQuery(), Set.of(ExpenseField.ID),
+                row -> seen.add(row.id()));
+
+        Assertions.assertEquals(3, count);
+        Assertions.assertEquals(List.of(1, 2, 3), seen);
+    }
+}
@@ -0,0 +1,87 @@
+package UnitTests;
+
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.SchemaMigrator;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Repository")
+@Story("Full-Text Category Search")
+@DisplayName("Expense Repository Full-Text Category Tests")
+public class TestExpenseRepositoryFullTextCategory {
+
+    private DatabaseConnection dbConn;
+    private Connection conn;
+    private PreparedStatement pstmt;
+
+    @BeforeEach
+    public void setUp() {
+        dbConn = mock(DatabaseConnection.class);
+        conn = mock(Connection.class);
+        pstmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        try {
+            when(dbConn.getConnection()).thenReturn(conn);
+            when(conn.prepareStatement(anyString())).thenReturn(pstmt);
+            when(pstmt.executeQuery()).thenReturn(rs);
+            when(rs.next()).thenReturn(false);
+        } catch (SQLException e) {
+            fail("Failed stubbing during setUp()");
+        }
+    }
+
+    @Description("With the index enabled, category search goes through expenses_fts")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C58_01")
+    public void testFindExpensesByCategory_indexEnabled_usesFts() throws SQLException {
+        ExpenseRepository repo = new ExpenseRepository(dbConn, SchemaMigrator.FULL_TEXT_SEARCH_VERSION);
+
+        Allure.step("Search for a category", () -> repo.findExpensesByCategory("travel"));
+
+        verify(conn).prepareStatement(argThat(sql ->
+                sql.contains("FROM expenses_fts WHERE description LIKE ?") &&
+                        !sql.contains("e.description LIKE ?")));
+        verify(pstmt).setString(1, "%travel%");
+    }
+
+    @Description("Terms shorter than a trigram fall back to LIKE on expenses")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C58_02")
+    public void testFindExpensesByCategory_shortTerm_fallsBackToLike() throws SQLException {
+        ExpenseRepository repo = new ExpenseRepository(dbConn, SchemaMigrator.FULL_TEXT_SEARCH_VERSION);
+
+        repo.findExpensesByCategory("ab");
+
+        verify(conn).prepareStatement(argThat(sql ->
+                sql.contains("WHERE e.description LIKE ?") && !sql.contains("expenses_fts")));
+        verify(pstmt).setString(1, "%ab%");
+    }
+
+    @Description("Without the index, category search keeps using LIKE")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C58_03")
+    public void testFindExpensesByCategory_indexDisabled_usesLike() throws SQLException {
+        ExpenseRepository repo = new ExpenseRepository(dbConn);
+
+        repo.findExpensesByCategory("travel");
+
+        verify(conn).prepareStatement(argThat(sql -> !sql.contains("expenses_fts")));
+    }
+}
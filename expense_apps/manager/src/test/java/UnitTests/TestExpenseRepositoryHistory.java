@@ -43,6 +43,7 @@ public class TestExpenseRepositoryHistory {
         conn = mock(Connection.class);
         pstmt = mock(PreparedStatement.class);
         rs = mock(ResultSet.class);
+        ResultSetLabelBridge.forwardExpenseWithUserColumns(rs);
         when(dbConn.getConnection()).thenReturn(conn);
     }
 
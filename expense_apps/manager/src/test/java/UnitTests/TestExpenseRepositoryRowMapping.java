@@ -0,0 +1,99 @@
+package UnitTests;
+
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.ExpenseWithUser;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Repository")
+@Story("Positional Row Mapping")
+@DisplayName("Expense Repository Row Mapping Tests")
+public class TestExpenseRepositoryRowMapping {
+
+    private ExpenseRepository repo;
+    private ResultSet rs;
+
+    @BeforeEach
+    public void setUp() {
+        DatabaseConnection dbConn = mock(DatabaseConnection.class);
+        Connection conn = mock(Connection.class);
+        PreparedStatement pstmt = mock(PreparedStatement.class);
+        rs = mock(ResultSet.class);
+        repo = new ExpenseRepository(dbConn);
+        try {
+            when(dbConn.getConnection()).thenReturn(conn);
+            when(conn.prepareStatement(anyString())).thenReturn(pstmt);
+            when(pstmt.executeQuery()).thenReturn(rs);
+        } catch (SQLException e) {
+            fail("Failed stubbing during setUp()");
+        }
+    }
+
+    private void stubRow(int reviewer, boolean reviewerIsNull) throws SQLException {
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt(1)).thenReturn(7);
+        when(rs.getInt(2)).thenReturn(2);
+        when(rs.getLong(3)).thenReturn(4250L);
+        when(rs.getString(4)).thenReturn("Taxi");
+        when(rs.getString(5)).thenReturn("2024-12-05");
+        when(rs.getString(6)).thenReturn("employee2");
+        when(rs.getString(7)).thenReturn("Employee");
+        when(rs.getInt(8)).thenReturn(70);
+        when(rs.getString(9)).thenReturn(reviewerIsNull ? "pending" : "approved");
+        when(rs.getInt(10)).thenReturn(reviewer);
+        when(rs.wasNull()).thenReturn(reviewerIsNull);
+    }
+
+    @Description("All twelve columns are read by position, never by label")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C60_01")
+    public void testFindAllExpensesWithUsers_readsByPosition() throws SQLException {
+        Allure.step("Stub a reviewed row by column position", () -> stubRow(3, false));
+
+        List<ExpenseWithUser> results = repo.findAllExpensesWithUsers();
+
+        Allure.step("Verify the mapped row", () -> {
+            Assertions.assertEquals(1, results.size());
+            ExpenseWithUser row = results.get(0);
+            Assertions.assertEquals(7, row.getExpense().getId());
+            Assertions.assertEquals(7, row.getApproval().getExpenseId());
+            Assertions.assertEquals(2, row.getUser().getId());
+            Assertions.assertEquals(42.5, row.getExpense().getAmount());
+            Assertions.assertEquals("employee2", row.getUser().getUsername());
+            Assertions.assertEquals(70, row.getApproval().getId());
+            Assertions.assertEquals(3, row.getApproval().getReviewer());
+            verify(rs, never()).getInt(anyString());
+            verify(rs, never()).getString(anyString());
+            verify(rs, never()).getObject(anyString());
+        });
+    }
+
+    @Description("A NULL reviewer is detected with wasNull and mapped to null")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C60_02")
+    public void testFindPendingExpensesWithUsers_nullReviewer() throws SQLException {
+        stubRow(0, true);
+
+        List<ExpenseWithUser> results = repo.findPendingExpensesWithUsers();
+
+        Assertions.assertNull(results.get(0).getApproval().getReviewer());
+        Assertions.assertEquals("pending", results.get(0).getApproval().getStatus());
+    }
+}
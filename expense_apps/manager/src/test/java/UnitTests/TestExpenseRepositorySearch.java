@@ -0,0 +1,128 @@
+package UnitTests;
+
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.ExpenseQuery;
+import com.revature.repository.ExpenseRepository;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Repository")
+@Story("Combined Expense Search")
+@DisplayName("Expense Repository Search Tests")
+public class TestExpenseRepositorySearch {
+
+    private DatabaseConnection dbConn;
+    private ExpenseRepository repo;
+    private Connection conn;
+    private PreparedStatement pstmt;
+
+    @BeforeEach
+    public void setUp() {
+        dbConn = mock(DatabaseConnection.class);
+        repo = new ExpenseRepository(dbConn);
+        conn = mock(Connection.class);
+        pstmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        try {
+            when(dbConn.getConnection()).thenReturn(conn);
+            when(conn.prepareStatement(anyString())).thenReturn(pstmt);
+            when(pstmt.executeQuery()).thenReturn(rs);
+            when(rs.next()).thenReturn(false);
+        } catch (SQLException e) {
+            fail("Failed stubbing during setUp()");
+        }
+    }
+
+    @Description("Only the criteria that are set become predicates, bound in order")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C59_01")
+    public void testSearchExpenses_combinedCriteria() throws SQLException {
+        ExpenseQuery query = new ExpenseQuery();
+        query.setEmployeeId(1);
+        query.setStatus("pending");
+        query.setMinAmount(50.0);
+        query.setCategory("travel");
+        query.setSort("amount");
+        query.setDescending(false);
+        query.setLimit(10);
+
+        Allure.step("Run the search", () -> repo.searchExpenses(query));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(conn).prepareStatement(sql.capture());
+        Allure.step("Verify the compiled SQL and parameter order", () -> {
+            Assertions.assertTrue(sql.getValue().contains(
+                    "WHERE e.user_id = ? AND a.status = ? AND CAST(ROUND(e.amount * 100) AS INTEGER) >= ? AND e.description LIKE ?"));
+            Assertions.assertFalse(sql.getValue().contains("e.date >= ?"));
+            Assertions.assertTrue(sql.getValue().contains("ORDER BY amount_cents ASC, e.id ASC"));
+            Assertions.assertTrue(sql.getValue().contains("LIMIT ?"));
+            verify(pstmt).setInt(1, 1);
+            verify(pstmt).setString(2, "pending");
+            verify(pstmt).setLong(3, 5000L);
+            verify(pstmt).setString(4, "%travel%");
+            verify(pstmt).setInt(5, 10);
+        });
+    }
+
+    @Description("An empty query returns everything newest first without a WHERE clause")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C59_02")
+    public void testSearchExpenses_noCriteria() throws SQLException {
+        List<?> results = repo.searchExpenses(new ExpenseQuery());
+
+        Assertions.assertTrue(results.isEmpty());
+        verify(conn).prepareStatement(argThat(sql ->
+                !sql.contains("WHERE") && sql.contains("ORDER BY e.date DESC") && !sql.contains("LIMIT")));
+    }
+
+    @Description("Queries of the same shape reuse the same compiled SQL string")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C59_03")
+    public void testSearchExpenses_sameShape_reusesSql() throws SQLException {
+        ExpenseQuery first = new ExpenseQuery();
+        first.setStartDate("2024-01-01");
+        first.setEndDate("2024-06-30");
+        ExpenseQuery second = new ExpenseQuery();
+        second.setStartDate("2024-07-01");
+        second.setEndDate("2024-12-31");
+
+        repo.searchExpenses(first);
+        repo.searchExpenses(second);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(conn, times(2)).prepareStatement(sql.capture());
+        Assertions.assertSame(sql.getAllValues().get(0), sql.getAllValues().get(1));
+        verify(pstmt).setString(1, "2024-07-01");
+        verify(pstmt).setString(2, "2024-12-31");
+    }
+
+    @Description("SQLException is wrapped as RuntimeException")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C59_04")
+    public void testSearchExpenses_SQLException() throws SQLException {
+        when(pstmt.executeQuery()).thenThrow(new SQLException("boom"));
+
+        RuntimeException ex = Assertions.assertThrows(RuntimeException.class,
+                () -> repo.searchExpenses(new ExpenseQuery()));
+        Assertions.assertTrue(ex.getMessage().contains("Error searching expenses"));
+    }
+}
@@ -0,0 +1,116 @@
+package UnitTests;
+
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.ExpenseSummary;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Repository")
+@Story("Dashboard Summary")
+@DisplayName("Expense Repository Summary Tests")
+public class TestExpenseRepositorySummary {
+
+    private DatabaseConnection dbConn;
+    private ExpenseRepository repo;
+    private Connection conn;
+    private PreparedStatement statusStmt;
+    private PreparedStatement employeeStmt;
+    private ResultSet statusRs;
+    private ResultSet employeeRs;
+
+    @BeforeEach
+    public void setUp() {
+        dbConn = mock(DatabaseConnection.class);
+        repo = new ExpenseRepository(dbConn);
+        conn = mock(Connection.class);
+        statusStmt = mock(PreparedStatement.class);
+        employeeStmt = mock(PreparedStatement.class);
+        statusRs = mock(ResultSet.class);
+        employeeRs = mock(ResultSet.class);
+        try {
+            when(dbConn.getConnection()).thenReturn(conn);
+            when(conn.prepareStatement(contains("GROUP BY a.status"))).thenReturn(statusStmt);
+            when(conn.prepareStatement(contains("GROUP BY u.id"))).thenReturn(employeeStmt);
+            when(statusStmt.executeQuery()).thenReturn(statusRs);
+            when(employeeStmt.executeQuery()).thenReturn(employeeRs);
+        } catch (SQLException e) {
+            fail("Failed stubbing during setUp()");
+        }
+    }
+
+    @Description("Summary is assembled from the aggregate rows without loading any expense")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C57_01")
+    public void testGetExpenseSummary_aggregates() throws SQLException {
+        Allure.step("Stub one row per status and one per employee", () -> {
+            when(statusRs.next()).thenReturn(true, true, false);
+            when(statusRs.getString("status")).thenReturn("approved", "pending");
+            when(statusRs.getInt("expense_count")).thenReturn(2, 3);
+            when(statusRs.getLong("total_cents")).thenReturn(8000L, 15050L);
+
+            when(employeeRs.next()).thenReturn(true, false);
+            when(employeeRs.getInt("user_id")).thenReturn(1);
+            when(employeeRs.getString("username")).thenReturn("employee1");
+            when(employeeRs.getInt("expense_count")).thenReturn(5);
+            when(employeeRs.getLong("total_cents")).thenReturn(23050L);
+            when(employeeRs.getLong("pending_cents")).thenReturn(15050L);
+        });
+
+        ExpenseSummary summary = repo.getExpenseSummary();
+
+        Allure.step("Verify pending figures, status maps and employee totals", () -> {
+            Assertions.assertEquals(3, summary.getPendingCount());
+            Assertions.assertEquals(15050L, summary.getPendingTotalCents());
+            Assertions.assertEquals(150.5, summary.getPendingTotal());
+            Assertions.assertEquals(2, summary.getStatusCounts().get("approved"));
+            Assertions.assertEquals(80.0, summary.getStatusTotals().get("approved"));
+            Assertions.assertEquals(1, summary.getEmployeeTotals().size());
+            Assertions.assertEquals("employee1", summary.getEmployeeTotals().get(0).getUsername());
+            Assertions.assertEquals(150.5, summary.getEmployeeTotals().get(0).getPendingAmount());
+            verify(dbConn, times(1)).getConnection();
+        });
+    }
+
+    @Description("No pending rows yields a zero pending count")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C57_02")
+    public void testGetExpenseSummary_empty() throws SQLException {
+        when(statusRs.next()).thenReturn(false);
+        when(employeeRs.next()).thenReturn(false);
+
+        ExpenseSummary summary = repo.getExpenseSummary();
+
+        Assertions.assertEquals(0, summary.getPendingCount());
+        Assertions.assertEquals(0.0, summary.getPendingTotal());
+        Assertions.assertTrue(summary.getStatusCounts().isEmpty());
+        Assertions.assertTrue(summary.getEmployeeTotals().isEmpty());
+    }
+
+    @Description("SQLException is wrapped as RuntimeException")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C57_03")
+    public void testGetExpenseSummary_SQLException() throws SQLException {
+        when(conn.prepareStatement(anyString())).thenThrow(new SQLException("boom"));
+
+        RuntimeException ex = Assertions.assertThrows(RuntimeException.class, () -> repo.getExpenseSummary());
+        Assertions.assertTrue(ex.getMessage().contains("expense summary"));
+    }
+}
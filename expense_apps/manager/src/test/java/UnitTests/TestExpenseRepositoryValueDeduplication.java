@@ -0,0 +1,92 @@
+package UnitTests;
+
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.ExpenseQuery;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.ExpenseRow;
+import com.revature.repository.ExpenseWithUser;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Repository")
+@Story("Repeated Value Deduplication")
+@DisplayName("Expense Repository Value Deduplication Tests")
+public class TestExpenseRepositoryValueDeduplication {
+
+    private ExpenseRepository repo;
+    private ResultSet rs;
+
+    @BeforeEach
+    public void setUp() {
+        DatabaseConnection dbConn = mock(DatabaseConnection.class);
+        Connection conn = mock(Connection.class);
+        PreparedStatement pstmt = mock(PreparedStatement.class);
+        rs = mock(ResultSet.class);
+        repo = new ExpenseRepository(dbConn);
+        try {
+            when(dbConn.getConnection()).thenReturn(conn);
+            when(conn.prepareStatement(anyString())).thenReturn(pstmt);
+            when(pstmt.executeQuery()).thenReturn(rs);
+        } catch (SQLException e) {
+            fail("Failed stubbing during setUp()");
+        }
+    }
+
+    @Step("Stub three rows: two for employee 2 and one for employee 5, all pending")
+    private void stubRows() throws SQLException {
+        when(rs.next()).thenReturn(true, true, true, false);
+        when(rs.getInt(1)).thenReturn(1, 2, 3);
+        when(rs.getInt(2)).thenReturn(2, 2, 5);
+        when(rs.getString(6)).thenReturn(new String("employee2"), new String("testuser"));
+        when(rs.getString(7)).thenReturn(new String("Employee"), new String("Employee"));
+        when(rs.getString(9)).thenAnswer(invocation -> new String("pending"));
+        when(rs.wasNull()).thenReturn(true);
+    }
+
+    @Description("Rows of the same employee share one User and its username is read once")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C62_01")
+    public void testFindAllExpensesWithUsers_sharesUsersAndStatuses() throws SQLException {
+        stubRows();
+
+        List<ExpenseWithUser> results = repo.findAllExpensesWithUsers();
+
+        Allure.step("Verify deduplicated users and statuses", () -> {
+            Assertions.assertSame(results.get(0).getUser(), results.get(1).getUser());
+            Assertions.assertEquals("testuser", results.get(2).getUser().getUsername());
+            Assertions.assertSame(results.get(0).getApproval().getStatus(), results.get(2).getApproval().getStatus());
+            Assertions.assertSame(results.get(0).getUser().getRole(), results.get(2).getUser().getRole());
+            verify(rs, times(2)).getString(6);
+        });
+    }
+
+    @Description("Flat rows reuse the same username, role and status strings")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C62_02")
+    public void testSearchExpenseRows_sharesStrings() throws SQLException {
+        stubRows();
+
+        List<ExpenseRow> rows = repo.searchExpenseRows(new ExpenseQuery());
+
+        Assertions.assertSame(rows.get(0).username(), rows.get(1).username());
+        Assertions.assertSame(rows.get(0).role(), rows.get(2).role());
+        Assertions.assertSame(rows.get(1).status(), rows.get(2).status());
+        Assertions.assertNull(rows.get(0).reviewer());
+    }
+}
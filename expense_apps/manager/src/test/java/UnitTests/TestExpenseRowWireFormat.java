@@ -0,0 +1,66 @@
+package UnitTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.repository.Approval;
+import com.revature.repository.Expense;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.ExpenseRow;
+import com.revature.repository.ExpenseWithUser;
+import com.revature.repository.ApprovalRepository;
+import com.revature.repository.User;
+import com.revature.service.ExpenseService;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+
+@Epic("Manager App")
+@Feature("Expense Service")
+@Story("Flat Expense Rows")
+@DisplayName("Expense Row Wire Format Tests")
+public class TestExpenseRowWireFormat {
+
+    private static final ExpenseRow PENDING_ROW = new ExpenseRow(
+            1, 2, 15000, "Business lunch", "2024-12-01", "employee1", "Employee",
+            11, "pending", null, null, null);
+    private static final ExpenseRow REVIEWED_ROW = new ExpenseRow(
+            2, 3, 7550, "Taxi, airport", "2024-12-02", "employee2", "Employee",
+            12, "approved", 4, "Looks \"fine\"", "2024-12-03");
+
+    private static ExpenseWithUser nested(ExpenseRow row) {
+        return new ExpenseWithUser(
+                new Expense(row.id(), row.userId(), row.amount(), row.description(), row.date()),
+                new User(row.userId(), row.username(), null, row.role()),
+                new Approval(row.approvalId(), row.id(), row.status(), row.reviewer(), row.comment(), row.reviewDate()));
+    }
+
+    @Description("An ExpenseRow serializes to exactly the JSON of the equivalent ExpenseWithUser")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C61_01")
+    public void testJson_matchesExpenseWithUser() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        for (ExpenseRow row : List.of(PENDING_ROW, REVIEWED_ROW)) {
+            Allure.step("Compare JSON for expense " + row.id(), () ->
+                    Assertions.assertEquals(mapper.writeValueAsString(nested(row)), mapper.writeValueAsString(row)));
+        }
+    }
+
+    @Description("The CSV report from rows is byte-identical to the report from ExpenseWithUser")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C61_02")
+    public void testCsv_matchesExpenseWithUser() {
+        ExpenseService service = new ExpenseService(mock(ExpenseRepository.class), mock(ApprovalRepository.class));
+
+        String fromRows = service.generateCsvReportFromRows(List.of(PENDING_ROW, REVIEWED_ROW));
+        String fromNested = service.generateCsvReport(List.of(nested(PENDING_ROW), nested(REVIEWED_ROW)));
+
+        Assertions.assertEquals(fromNested, fromRows);
+    }
+}
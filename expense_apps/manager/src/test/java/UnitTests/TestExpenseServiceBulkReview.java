@@ -0,0 +1,71 @@
+package UnitTests;
+
+import com.revature.repository.ApprovalDecision;
+import com.revature.repository.ApprovalRepository;
+import com.revature.repository.ExpenseRepository;
+import com.revature.service.BulkReviewResult;
+import com.revature.service.ExpenseService;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Service")
+@Story("Bulk Expense Review")
+@DisplayName("ExpenseService Bulk Review Tests")
+public class TestExpenseServiceBulkReview {
+
+    private ApprovalRepository approvalDAO;
+    private ExpenseService service;
+    private final int managerId = 3;
+
+    @BeforeEach
+    public void setUp() {
+        approvalDAO = mock(ApprovalRepository.class);
+        service = new ExpenseService(mock(ExpenseRepository.class), approvalDAO);
+    }
+
+    @Description("Per-item results follow request order, invalid decisions never reach the database")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C53_01")
+    public void testBulkReview_mixedDecisions_perItemResults() {
+        List<ApprovalDecision> decisions = List.of(
+                new ApprovalDecision(1, "approve", "ok"),
+                new ApprovalDecision(2, "maybe", null),
+                new ApprovalDecision(3, "denied", "no receipt"),
+                new ApprovalDecision(404, "deny", null));
+
+        Allure.step("Stub repository batch update", () ->
+                when(approvalDAO.updateApprovalStatuses(anyList())).thenReturn(new int[]{1, 1, 0}));
+
+        List<BulkReviewResult> results = service.bulkReviewExpenses(decisions, managerId);
+
+        Allure.step("Assert per-item results", () -> {
+            Assertions.assertEquals(4, results.size());
+            Assertions.assertTrue(results.get(0).isSuccess());
+            Assertions.assertEquals("approved", results.get(0).getStatus());
+            Assertions.assertFalse(results.get(1).isSuccess());
+            Assertions.assertEquals(2, results.get(1).getExpenseId());
+            Assertions.assertTrue(results.get(2).isSuccess());
+            Assertions.assertEquals("denied", results.get(2).getStatus());
+            Assertions.assertFalse(results.get(3).isSuccess());
+            Assertions.assertEquals(404, results.get(3).getExpenseId());
+        });
+
+        Allure.step("Verify only valid decisions were sent, stamped with the reviewer", () -> {
+            verify(approvalDAO, times(1)).updateApprovalStatuses(argThat(list ->
+                    list.size() == 3 && list.stream().allMatch(d -> d.getReviewerId() == managerId)));
+            verify(approvalDAO, never()).updateApprovalStatus(anyInt(), anyString(), anyInt(), any());
+            Assertions.assertTrue(decisions.stream().allMatch(d -> d.getReviewerId() == 0),
+                    "the request's decisions are not modified");
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package UnitTests;
+
+import com.revature.repository.ApprovalRepository;
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.ExpensePeriodTotal;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.SchemaMigrator;
+import com.revature.service.ExpensePeriod;
+import com.revature.service.ExpenseService;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Service")
+@Story("Expense Totals By Period")
+@DisplayName("Expense Totals By Period Tests")
+public class TestExpenseTotalsByPeriod {
+
+    private static long day(String date) {
+        return LocalDate.parse(date).toEpochDay();
+    }
+
+    @Description("Weeks start on Monday and months on the first, including before 1970")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C64_01")
+    public void testStartOf_weekAndMonth() {
+        Assertions.assertEquals(day("2024-12-02"), ExpensePeriod.WEEK.startOf(day("2024-12-08")));
+        Assertions.assertEquals(day("2024-12-02"), ExpensePeriod.WEEK.startOf(day("2024-12-02")));
+        Assertions.assertEquals(day("1969-12-29"), ExpensePeriod.WEEK.startOf(day("1970-01-01")));
+        Assertions.assertEquals(day("2024-02-01"), ExpensePeriod.MONTH.startOf(day("2024-02-29")));
+        Assertions.assertEquals(day("1969-12-01"), ExpensePeriod.MONTH.startOf(day("1969-12-31")));
+        Assertions.assertEquals(day("2024-12-05"), ExpensePeriod.DAY.startOf(day("2024-12-05")));
+    }
+
+    @Description("Daily totals from the database are folded into weekly totals")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C64_02")
+    public void testGetExpenseTotalsByPeriod_week_foldsDays() {
+        ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+        ExpenseService service = new ExpenseService(expenseRepository, mock(ApprovalRepository.class));
+        LocalDate start = LocalDate.parse("2024-12-01");
+        LocalDate end = LocalDate.parse("2024-12-31");
+        when(expenseRepository.findDailyTotals(start.toEpochDay(), end.toEpochDay())).thenReturn(List.of(
+                new ExpensePeriodTotal(day("2024-12-01"), 1, 1000),
+                new ExpensePeriodTotal(day("2024-12-02"), 2, 2550),
+                new ExpensePeriodTotal(day("2024-12-08"), 1, 450),
+                new ExpensePeriodTotal(day("2024-12-09"), 3, 300)));
+
+        List<ExpensePeriodTotal> totals = service.getExpenseTotalsByPeriod(start, end, ExpensePeriod.WEEK);
+
+        Assertions.assertEquals(3, totals.size());
+        Assertions.assertEquals("2024-11-25", totals.get(0).getStartDate());
+        Assertions.assertEquals(1, totals.get(0).getExpenseCount());
+        Assertions.assertEquals("2024-12-02", totals.get(1).getStartDate());
+        Assertions.assertEquals(3, totals.get(1).getExpenseCount());
+        Assertions.assertEquals(3000L, totals.get(1).getTotalAmountCents());
+        Assertions.assertEquals(30.0, totals.get(1).getTotalAmount());
+        Assertions.assertEquals("2024-12-09", totals.get(2).getStartDate());
+    }
+
+    @Description("With the epoch-day column, date ranges bind integer days instead of strings")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C64_03")
+    public void testFindExpensesByDateRange_bindsEpochDays() throws SQLException {
+        DatabaseConnection dbConn = mock(DatabaseConnection.class);
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(dbConn.getConnection()).thenReturn(conn);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        ExpenseRepository repo = new ExpenseRepository(dbConn, SchemaMigrator.DATE_EPOCH_DAY_VERSION);
+
+        repo.findExpensesByDateRange("2024-12-01", "2024-12-31");
+
+        verify(conn).prepareStatement(contains("e.date_epoch_day >= ?"));
+        verify(stmt).setLong(1, day("2024-12-01"));
+        verify(stmt).setLong(2, day("2024-12-31"));
+        verify(stmt, never()).setString(anyInt(), anyString());
+    }
+
+    @Description("Before the epoch-day migration, date ranges still compare the TEXT date")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C64_04")
+    public void testFindExpensesByDateRange_oldSchema_bindsStrings() throws SQLException {
+        DatabaseConnection dbConn = mock(DatabaseConnection.class);
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(dbConn.getConnection()).thenReturn(conn);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        ExpenseRepository repo = new ExpenseRepository(dbConn);
+
+        repo.findExpensesByDateRange("2024-12-01", "2024-12-31");
+
+        verify(stmt).setString(1, "2024-12-01");
+        verify(stmt).setString(2, "2024-12-31");
+    }
+}
@@ -0,0 +1,160 @@
+package UnitTests;
+
+import com.revature.api.ServerTiming;
+import com.revature.metrics.ReportGenerationEvent;
+import com.revature.metrics.RouteTimingStats;
+import com.revature.repository.ApprovalDecision;
+import com.revature.repository.ApprovalRepository;
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.ExpenseRepository;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.qameta.allure.*;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Request Metrics")
+@Story("Flight Recorder Events")
+@DisplayName("Flight Recorder Event Tests")
+public class TestFlightRecorderEvents {
+
+    private Recording recording;
+
+    @BeforeEach
+    public void setUp() {
+        recording = new Recording();
+        for (String name : List.of("HttpRequest", "RepositoryQuery", "ApprovalWrite", "ReportGeneration")) {
+            recording.enable("com.revature." + name).withoutThreshold();
+        }
+        recording.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recording.close();
+    }
+
+    private List<RecordedEvent> recordedEvents(String name) throws Exception {
+        recording.stop();
+        Path file = Files.createTempFile("events", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("com.revature." + name))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Description("Each repository list query is recorded with its name and row count")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C73_01")
+    public void testRepositoryQuery_recordsNameAndRows() throws Exception {
+        DatabaseConnection dbConn = mock(DatabaseConnection.class);
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(dbConn.getConnection()).thenReturn(conn);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, true, false);
+
+        new ExpenseRepository(dbConn).findPendingExpensesWithUsers();
+
+        List<RecordedEvent> events = recordedEvents("RepositoryQuery");
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals("findPendingExpensesWithUsers", events.get(0).getString("query"));
+        Assertions.assertEquals(3, events.get(0).getInt("rows"));
+    }
+
+    @Description("A bulk approval write is recorded with the number of decisions and rows actually updated")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C73_02")
+    public void testApprovalWrite_recordsDecisionsAndUpdates() throws Exception {
+        DatabaseConnection dbConn = mock(DatabaseConnection.class);
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        when(dbConn.getConnection()).thenReturn(conn);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeBatch()).thenReturn(new int[]{1, 0, 1});
+
+        new ApprovalRepository(dbConn).updateApprovalStatuses(List.of(
+                new ApprovalDecision(1, "approve", 3, null),
+                new ApprovalDecision(2, "deny", 3, null),
+                new ApprovalDecision(4, "approve", 3, null)));
+
+        List<RecordedEvent> events = recordedEvents("ApprovalWrite");
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(3, events.get(0).getInt("decisions"));
+        Assertions.assertEquals(2, events.get(0).getInt("updated"));
+    }
+
+    @Description("A report is recorded with its type, row count and UTF-8 size")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C73_03")
+    public void testReportGeneration_recordsTypeRowsAndBytes() throws Exception {
+        ReportGenerationEvent event = ReportGenerationEvent.start("category");
+        event.finish(2, "Café,€12\n😀\n");
+
+        List<RecordedEvent> events = recordedEvents("ReportGeneration");
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals("category", events.get(0).getString("reportType"));
+        Assertions.assertEquals(2, events.get(0).getInt("rows"));
+        Assertions.assertEquals("Café,€12\n😀\n".getBytes("UTF-8").length,
+                events.get(0).getLong("bytes"));
+    }
+
+    @Description("An API request is recorded with its method, route pattern, status and body size")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C73_04")
+    public void testHttpRequest_recordsRouteStatusAndBytes() throws Exception {
+        Map<String, Object> attributes = new HashMap<>();
+        Context ctx = mock(Context.class);
+        doAnswer(inv -> attributes.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(ctx).attribute(anyString(), any());
+        when(ctx.attribute(anyString())).thenAnswer(inv -> attributes.get(inv.<String>getArgument(0)));
+        when(ctx.res()).thenReturn(mock(HttpServletResponse.class));
+        when(ctx.method()).thenReturn(HandlerType.GET);
+        when(ctx.endpointHandlerPath()).thenReturn("/api/expenses/pending");
+        when(ctx.statusCode()).thenReturn(200);
+        when(ctx.resultInputStream()).thenReturn(new ByteArrayInputStream(new byte[1234]));
+
+        ServerTiming serverTiming = new ServerTiming(new RouteTimingStats());
+        serverTiming.start(ctx);
+        serverTiming.finish(ctx);
+
+        List<RecordedEvent> events = recordedEvents("HttpRequest");
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals("GET", events.get(0).getString("method"));
+        Assertions.assertEquals("/api/expenses/pending", events.get(0).getString("route"));
+        Assertions.assertEquals(200, events.get(0).getInt("status"));
+        Assertions.assertEquals(1234, events.get(0).getLong("bytes"));
+    }
+}
@@ -0,0 +1,212 @@
+package UnitTests;
+
+import com.revature.api.HealthController;
+import com.revature.api.ResponseCache;
+import com.revature.api.ServerTiming;
+import com.revature.metrics.LatencyWindow;
+import com.revature.metrics.RouteTimingStats;
+import com.revature.repository.ApprovalWriteQueue;
+import com.revature.repository.DatabaseConnection;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.qameta.allure.*;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Health Checks")
+@Story("Liveness and Readiness")
+@DisplayName("Health Check Tests")
+public class TestHealthChecks {
+
+    private DatabaseConnection dbConn;
+    private QueuedThreadPool threadPool;
+    private ApprovalWriteQueue writeQueue;
+    private LatencyWindow latency;
+    private HealthController controller;
+    private Context ctx;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        dbConn = mock(DatabaseConnection.class);
+        when(dbConn.probe(anyInt())).thenReturn(TimeUnit.MILLISECONDS.toNanos(3));
+        threadPool = mock(QueuedThreadPool.class);
+        when(threadPool.getBusyThreads()).thenReturn(10);
+        when(threadPool.getMaxThreads()).thenReturn(250);
+        writeQueue = mock(ApprovalWriteQueue.class);
+        latency = new LatencyWindow(1024, 60_000);
+        controller = new HealthController(dbConn, threadPool, writeQueue, new ResponseCache(1024), latency);
+        ctx = mock(Context.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readyBody() {
+        controller.ready(ctx);
+        ArgumentCaptor<Object> body = ArgumentCaptor.forClass(Object.class);
+        verify(ctx).json(body.capture());
+        return (Map<String, Object>) body.getValue();
+    }
+
+    @Description("Nearest-rank percentiles over the recorded durations")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C75_01")
+    public void testLatencyWindow_percentiles() {
+        Assertions.assertEquals(-1, latency.percentileNanos(0.99));
+        for (int i = 1; i <= 200; i++) {
+            latency.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(198), latency.percentileNanos(0.99));
+        Map<String, Object> stats = latency.stats();
+        Assertions.assertEquals(200, stats.get("count"));
+        Assertions.assertEquals(100.0, stats.get("p50Ms"));
+        Assertions.assertEquals(200.0, stats.get("maxMs"));
+    }
+
+    @Description("Only the most recent requests are kept, and only within the time window")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C75_02")
+    public void testLatencyWindow_boundedByCapacityAndTime() throws InterruptedException {
+        LatencyWindow small = new LatencyWindow(4, 50);
+        for (int i = 1; i <= 6; i++) {
+            small.record(i);
+        }
+        Assertions.assertEquals(4, small.stats().get("count"));
+        Assertions.assertEquals(6, small.percentileNanos(1.0));
+        Assertions.assertEquals(3, small.percentileNanos(0.0));
+
+        Thread.sleep(100);
+        Assertions.assertEquals(0, small.stats().get("count"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LatencyWindow(3, 1000));
+    }
+
+    @Description("Readiness is 200 with the probe latency and load figures when everything is within limits")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C75_03")
+    @SuppressWarnings("unchecked")
+    public void testReady_healthy() {
+        latency.record(TimeUnit.MILLISECONDS.toNanos(20));
+
+        Map<String, Object> body = readyBody();
+
+        verify(ctx, never()).status(anyInt());
+        Assertions.assertEquals("ready", body.get("status"));
+        Assertions.assertEquals(List.of(), body.get("reasons"));
+        Map<String, Object> checks = (Map<String, Object>) body.get("checks");
+        Assertions.assertEquals(Map.of("status", "up", "latencyMs", 3.0), checks.get("database"));
+        Assertions.assertEquals(10, ((Map<String, Object>) checks.get("threadPool")).get("busy"));
+        Assertions.assertEquals(Map.of("depth", 0), checks.get("approvalWriteQueue"));
+        Assertions.assertEquals(20.0, ((Map<String, Object>) checks.get("requests")).get("p99Ms"));
+        Assertions.assertTrue(((Map<String, Object>) checks.get("responseCache")).containsKey("hitRatio"));
+    }
+
+    @Description("A failed database probe makes the app unavailable")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C75_04")
+    public void testReady_databaseDown() throws SQLException {
+        when(dbConn.probe(anyInt())).thenThrow(new SQLException("database is locked"));
+
+        Map<String, Object> body = readyBody();
+
+        verify(ctx).status(503);
+        verify(ctx).header("Retry-After", "5");
+        Assertions.assertEquals("unavailable", body.get("status"));
+        Assertions.assertEquals(List.of("database unavailable"), body.get("reasons"));
+    }
+
+    @Description("Saturated request threads, a deep write queue or a slow p99 each mark the app overloaded")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C75_05")
+    public void testReady_overloaded() {
+        when(threadPool.getBusyThreads()).thenReturn(240);
+        when(writeQueue.getQueueDepth()).thenReturn(5000);
+        for (int i = 0; i < 100; i++) {
+            latency.record(TimeUnit.SECONDS.toNanos(3));
+        }
+
+        Map<String, Object> body = readyBody();
+
+        verify(ctx).status(503);
+        verify(ctx).header(eq("Retry-After"), anyString());
+        Assertions.assertEquals("overloaded", body.get("status"));
+        Assertions.assertEquals(List.of(
+                "request threads 240/250 busy",
+                "approval write queue depth 5000",
+                "recent p99 latency 3000 ms"), body.get("reasons"));
+    }
+
+    @Description("Liveness answers without touching the database")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C75_06")
+    public void testLive_noDatabaseAccess() throws SQLException {
+        controller.live(ctx);
+
+        verify(ctx).json(Map.of("status", "alive"));
+        verify(dbConn, never()).probe(anyInt());
+    }
+
+    @Description("A few slow requests do not mark the app overloaded until there are enough samples for a p99")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C75_07")
+    public void testReady_fewSlowRequests_stillReady() {
+        for (int i = 0; i < 98; i++) {
+            latency.record(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        latency.record(TimeUnit.SECONDS.toNanos(6));
+
+        Assertions.assertEquals("ready", readyBody().get("status"));
+        verify(ctx, never()).status(anyInt());
+    }
+
+    @Description("Reports and streamed responses are left out of the latency window read by readiness")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C75_08")
+    public void testServerTiming_reportsAndStreamsNotInLatencyWindow() {
+        ServerTiming serverTiming = new ServerTiming(new RouteTimingStats(), latency);
+        Context report = timedRequest("/api/reports/expenses/csv", false);
+        Context streamed = timedRequest("/api/expenses", true);
+        Context list = timedRequest("/api/expenses", false);
+
+        for (Context request : List.of(report, streamed, list)) {
+            serverTiming.start(request);
+            serverTiming.finish(request);
+        }
+
+        Assertions.assertEquals(1, latency.stats().get("count"));
+    }
+
+    private static Context timedRequest(String path, boolean committed) {
+        Context request = mock(Context.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.isCommitted()).thenReturn(committed);
+        when(request.res()).thenReturn(response);
+        when(request.method()).thenReturn(HandlerType.GET);
+        when(request.path()).thenReturn(path);
+        when(request.endpointHandlerPath()).thenReturn(path);
+        when(request.statusCode()).thenReturn(200);
+        return request;
+    }
+}
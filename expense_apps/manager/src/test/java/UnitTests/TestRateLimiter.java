@@ -0,0 +1,226 @@
+package UnitTests;
+
+import com.revature.api.AdmissionControl.RouteClass;
+import com.revature.api.RateLimiter;
+import com.revature.api.ServerTiming;
+import com.revature.metrics.RouteTimingStats;
+import com.revature.repository.User;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.HttpResponseException;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Rate Limiting")
+@Story("Per-Manager and Per-IP Token Buckets")
+@DisplayName("Rate Limiter Tests")
+public class TestRateLimiter {
+
+    private static final String REPORT_PATH = "/api/reports/expenses/csv";
+
+    private static Context request(HandlerType method, String path, String ip, Integer managerId) {
+        Map<String, Object> attributes = new HashMap<>();
+        if (managerId != null) {
+            attributes.put("manager", new User(managerId, "manager" + managerId, "password123", "Manager"));
+        }
+        Context ctx = mock(Context.class);
+        when(ctx.method()).thenReturn(method);
+        when(ctx.path()).thenReturn(path);
+        when(ctx.ip()).thenReturn(ip);
+        doAnswer(inv -> attributes.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(ctx).attribute(anyString(), any());
+        when(ctx.attribute(anyString())).thenAnswer(inv -> attributes.get(inv.<String>getArgument(0)));
+        return ctx;
+    }
+
+    // Both before-handlers, as registered around authentication
+    private static void check(RateLimiter rateLimiter, Context ctx) {
+        rateLimiter.checkClient(ctx);
+        rateLimiter.checkManager(ctx);
+    }
+
+    private static Context report(String ip, Integer managerId) {
+        return request(HandlerType.GET, REPORT_PATH, ip, managerId);
+    }
+
+    private static RateLimiter limiter(RateLimiter.Limit manager, RateLimiter.Limit ip) {
+        return new RateLimiter(
+                Map.of(RouteClass.REPORT, manager, RouteClass.READ, new RateLimiter.Limit(100, 100)),
+                Map.of(RouteClass.REPORT, ip, RouteClass.READ, new RateLimiter.Limit(100, 100)));
+    }
+
+    @Description("A manager gets a full burst, then 429 with Retry-After and rate limit headers")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C77_01")
+    public void testCheck_burstThenLimited() {
+        RateLimiter rateLimiter = limiter(new RateLimiter.Limit(3, 0.5), new RateLimiter.Limit(100, 100));
+
+        for (int i = 0; i < 3; i++) {
+            Context ctx = report("10.0.0.1", 1);
+            check(rateLimiter, ctx);
+            verify(ctx).header("RateLimit-Limit", "3");
+            verify(ctx).header("RateLimit-Remaining", Integer.toString(2 - i));
+        }
+
+        Context limited = report("10.0.0.1", 1);
+        HttpResponseException e = Assertions.assertThrows(HttpResponseException.class, () -> check(rateLimiter, limited));
+        Assertions.assertEquals(429, e.getStatus());
+        Assertions.assertEquals("manager", e.getDetails().get("scope"));
+        verify(limited).header("RateLimit-Remaining", "0");
+        verify(limited).header("Retry-After", "2");
+        verify(limited).header("RateLimit-Reset", "6");
+    }
+
+    @Description("Each manager has their own bucket, while an IP's bucket is shared by every manager behind it")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C77_02")
+    public void testCheck_managerAndIpScopes() {
+        RateLimiter rateLimiter = limiter(new RateLimiter.Limit(2, 0.1), new RateLimiter.Limit(3, 0.1));
+
+        check(rateLimiter, report("10.0.0.1", 1));
+        check(rateLimiter, report("10.0.0.1", 1));
+        HttpResponseException managerLimited = Assertions.assertThrows(HttpResponseException.class,
+                () -> check(rateLimiter, report("10.0.0.1", 1)));
+        Assertions.assertEquals("manager", managerLimited.getDetails().get("scope"));
+
+        // Manager 2 takes the IP's last token, leaving none for manager 3 behind the same address
+        check(rateLimiter, report("10.0.0.1", 2));
+        HttpResponseException ipLimited = Assertions.assertThrows(HttpResponseException.class,
+                () -> check(rateLimiter, report("10.0.0.1", 3)));
+        Assertions.assertEquals("ip", ipLimited.getDetails().get("scope"));
+
+        // Manager 3's token was given back when the IP rejected the request
+        check(rateLimiter, report("10.0.0.2", 3));
+        check(rateLimiter, report("10.0.0.2", 3));
+    }
+
+    @Description("Tokens refill at the configured rate")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C77_03")
+    public void testCheck_refill() throws InterruptedException {
+        RateLimiter rateLimiter = limiter(new RateLimiter.Limit(1, 20), new RateLimiter.Limit(100, 100));
+
+        check(rateLimiter, report("10.0.0.1", 1));
+        Assertions.assertThrows(HttpResponseException.class, () -> check(rateLimiter, report("10.0.0.1", 1)));
+
+        Thread.sleep(80);
+        check(rateLimiter, report("10.0.0.1", 1));
+    }
+
+    @Description("Route classes are limited separately; classes without a configured limit are not limited")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C77_04")
+    public void testCheck_routeClasses() {
+        RateLimiter rateLimiter = limiter(new RateLimiter.Limit(1, 0.1), new RateLimiter.Limit(100, 100));
+
+        check(rateLimiter, report("10.0.0.1", 1));
+        check(rateLimiter, request(HandlerType.GET, "/api/expenses/pending", "10.0.0.1", 1));
+        for (int i = 0; i < 5; i++) {
+            check(rateLimiter, request(HandlerType.POST, "/api/expenses/7/approve", "10.0.0.1", 1));
+        }
+        Context auth = request(HandlerType.GET, "/api/auth/status", "10.0.0.1", null);
+        check(rateLimiter, auth);
+
+        verify(auth, never()).header(anyString(), anyString());
+        Assertions.assertThrows(HttpResponseException.class, () -> check(rateLimiter, report("10.0.0.1", 1)));
+    }
+
+    @Description("Buckets that have refilled completely are dropped")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C77_05")
+    public void testExpireIdle_dropsFullBuckets() throws InterruptedException {
+        RateLimiter rateLimiter = limiter(new RateLimiter.Limit(5, 1000), new RateLimiter.Limit(5, 0.01));
+        check(rateLimiter, report("10.0.0.1", 1));
+        check(rateLimiter, report("10.0.0.2", 2));
+        Assertions.assertEquals(4, rateLimiter.stats().get("buckets"));
+
+        Thread.sleep(20);
+
+        // The manager buckets refill within milliseconds; the IP buckets take minutes
+        Assertions.assertEquals(2, rateLimiter.expireIdle());
+        Assertions.assertEquals(2, rateLimiter.stats().get("buckets"));
+    }
+
+    @Description("Allowed and limited counts are exported in the Prometheus format on /metrics")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C77_06")
+    @SuppressWarnings("unchecked")
+    public void testMetrics_countsOnMetricsEndpoint() {
+        RateLimiter rateLimiter = limiter(new RateLimiter.Limit(1, 0.1), new RateLimiter.Limit(100, 100));
+        check(rateLimiter, report("10.0.0.1", 1));
+        Assertions.assertThrows(HttpResponseException.class, () -> check(rateLimiter, report("10.0.0.1", 1)));
+
+        ServerTiming serverTiming = new ServerTiming(new RouteTimingStats());
+        serverTiming.addMetricsSection(rateLimiter::toPrometheusText);
+        Context ctx = mock(Context.class);
+        serverTiming.metrics(ctx);
+
+        ArgumentCaptor<String> text = ArgumentCaptor.forClass(String.class);
+        verify(ctx).result(text.capture());
+        Assertions.assertTrue(text.getValue().contains(
+                "rate_limit_requests_total{route_class=\"report\",scope=\"manager\",outcome=\"limited\"} 1\n"), text.getValue());
+        Assertions.assertTrue(text.getValue().contains(
+                "rate_limit_requests_total{route_class=\"report\",scope=\"ip\",outcome=\"allowed\"} 1\n"));
+        Assertions.assertEquals(Map.of("allowed", 1L, "limited", 1L),
+                (Map<String, Object>) rateLimiter.stats().get("manager.report"));
+    }
+
+    @Description("A manager over their own limit takes no tokens from the IP bucket shared with other managers")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C77_07")
+    public void testCheck_limitedManagerDoesNotDrainIp() {
+        RateLimiter rateLimiter = limiter(new RateLimiter.Limit(2, 0.1), new RateLimiter.Limit(4, 0.1));
+
+        for (int i = 0; i < 20; i++) {
+            try {
+                check(rateLimiter, report("10.0.0.1", 1));
+            } catch (HttpResponseException e) {
+                Assertions.assertEquals("manager", e.getDetails().get("scope"));
+            }
+        }
+
+        check(rateLimiter, report("10.0.0.1", 2));
+        check(rateLimiter, report("10.0.0.1", 2));
+    }
+
+    @Description("Auth routes and requests without a valid manager are charged to the IP bucket before authentication")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C77_08")
+    public void testCheckClient_unauthenticatedLimitedPerIp() {
+        RateLimiter rateLimiter = new RateLimiter(
+                Map.of(RouteClass.REPORT, new RateLimiter.Limit(100, 100)),
+                Map.of(RouteClass.AUTH, new RateLimiter.Limit(2, 0.1), RouteClass.REPORT, new RateLimiter.Limit(1, 0.1)));
+
+        rateLimiter.checkClient(request(HandlerType.POST, "/api/auth/login", "10.0.0.1", null));
+        rateLimiter.checkClient(request(HandlerType.POST, "/api/auth/login", "10.0.0.1", null));
+        HttpResponseException login = Assertions.assertThrows(HttpResponseException.class,
+                () -> rateLimiter.checkClient(request(HandlerType.POST, "/api/auth/login", "10.0.0.1", null)));
+        Assertions.assertEquals("ip", login.getDetails().get("scope"));
+        Assertions.assertEquals("auth", login.getDetails().get("routeClass"));
+
+        // A report request with a bad token is charged before authentication rejects it
+        rateLimiter.checkClient(report("10.0.0.1", null));
+        Assertions.assertThrows(HttpResponseException.class, () -> rateLimiter.checkClient(report("10.0.0.1", 1)));
+
+        rateLimiter.checkClient(request(HandlerType.POST, "/api/auth/login", "10.0.0.2", null));
+    }
+}
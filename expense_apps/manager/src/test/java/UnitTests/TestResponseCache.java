@@ -0,0 +1,213 @@
+package UnitTests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.api.ExpenseController;
+import com.revature.api.ResponseCache;
+import com.revature.repository.Approval;
+import com.revature.repository.ApprovalRepository;
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.Expense;
+import com.revature.repository.ExpenseRepository;
+import com.revature.repository.ExpenseWithUser;
+import com.revature.repository.SchemaMigrator;
+import com.revature.repository.User;
+import com.revature.service.ExpenseService;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Expense Controller")
+@Story("Response Byte Cache")
+@DisplayName("Response Cache Tests")
+public class TestResponseCache {
+
+    private ExpenseService service;
+    private ResponseCache cache;
+    private ExpenseController controller;
+
+    @BeforeEach
+    public void setUp() {
+        service = mock(ExpenseService.class);
+        cache = new ResponseCache(1024 * 1024);
+        controller = new ExpenseController(service, null, cache);
+        when(service.getPendingExpenses()).thenReturn(List.of(new ExpenseWithUser(
+                new Expense(1, 2, 150.0, "Business lunch", "2024-12-01"),
+                new User(2, "employee1", null, "Employee"),
+                new Approval(1, 1, "pending", null, null, null))));
+    }
+
+    private Context pendingRequest() {
+        Context ctx = mock(Context.class);
+        when(ctx.path()).thenReturn("/api/expenses/pending");
+        return ctx;
+    }
+
+    private static byte[] result(Context ctx) {
+        ArgumentCaptor<byte[]> result = ArgumentCaptor.forClass(byte[].class);
+        verify(ctx).result(result.capture());
+        return result.getValue();
+    }
+
+    @Description("A repeated request with an unchanged change token is served from the cache without querying")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C70_01")
+    public void testGetPendingExpenses_unchangedToken_servedFromCache() throws Exception {
+        when(service.getChangeToken()).thenReturn(5L);
+        Context first = pendingRequest();
+        Context second = pendingRequest();
+
+        controller.getPendingExpenses(first);
+        controller.getPendingExpenses(second);
+
+        verify(service, times(1)).getPendingExpenses();
+        Assertions.assertArrayEquals(result(first), result(second));
+        Assertions.assertEquals(1, new ObjectMapper().readTree(result(second)).get("count").asInt());
+        verify(first).header("X-Cache", "MISS");
+        verify(second).header("X-Cache", "HIT");
+        verify(second).contentType("application/json");
+        verify(second, never()).json(any());
+    }
+
+    @Description("A new change token makes the cached body stale and the list is queried again")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C70_02")
+    public void testGetPendingExpenses_changedToken_requeries() {
+        when(service.getChangeToken()).thenReturn(5L, 6L);
+
+        controller.getPendingExpenses(pendingRequest());
+        controller.getPendingExpenses(pendingRequest());
+
+        verify(service, times(2)).getPendingExpenses();
+        Assertions.assertEquals(1, cache.stats().get("entries"));
+        Assertions.assertEquals(0L, cache.stats().get("hits"));
+        Assertions.assertEquals(2L, cache.stats().get("misses"));
+    }
+
+    @Description("Without a cache or without change tracking, responses go through ctx.json as before")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C70_03")
+    public void testGetPendingExpenses_noChangeTracking_bypassesCache() {
+        when(service.getChangeToken()).thenReturn(-1L);
+        Context ctx = pendingRequest();
+        controller.getPendingExpenses(ctx);
+
+        Context uncached = pendingRequest();
+        new ExpenseController(service).getPendingExpenses(uncached);
+
+        verify(ctx).json(anyMap());
+        verify(uncached).json(anyMap());
+        verify(service, times(1)).getChangeToken();
+        Assertions.assertEquals(0, cache.stats().get("entries"));
+    }
+
+    @Description("Large bodies are stored gzipped too and served compressed to clients that accept gzip")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C70_04")
+    public void testStore_largeBody_gzippedForAcceptingClients() throws Exception {
+        byte[] large = "{\"data\":\"".concat("x".repeat(5000)).concat("\"}").getBytes();
+        byte[] small = "{}".getBytes();
+
+        ResponseCache.Body body = cache.store("large", 1, "application/json", large);
+        Assertions.assertNull(cache.store("small", 1, "application/json", small).getGzipBytes());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.getGzipBytes()))) {
+            Assertions.assertArrayEquals(large, in.readAllBytes());
+        }
+
+        when(service.getChangeToken()).thenReturn(1L);
+        ExpenseWithUser expense = service.getPendingExpenses().get(0);
+        when(service.getPendingExpenses()).thenReturn(Collections.nCopies(100, expense));
+        controller.getPendingExpenses(pendingRequest());
+        Context ctx = pendingRequest();
+        when(ctx.header(Header.ACCEPT_ENCODING)).thenReturn("gzip, deflate, br");
+        controller.getPendingExpenses(ctx);
+
+        verify(ctx).header(Header.CONTENT_ENCODING, "gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result(ctx)))) {
+            Assertions.assertEquals(100, new ObjectMapper().readTree(in.readAllBytes()).get("count").asInt());
+        }
+    }
+
+    @Description("Total cached bytes stay within the limit by evicting least recently used entries")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C70_05")
+    public void testStore_overLimit_evictsLeastRecentlyUsed() {
+        ResponseCache small = new ResponseCache(4000);
+        small.store("a", 1, "application/json", new byte[1000]);
+        small.store("b", 1, "application/json", new byte[1000]);
+        small.store("c", 1, "application/json", new byte[1000]);
+        Assertions.assertNotNull(small.find("a", 1));
+        small.store("d", 1, "application/json", new byte[1000]);
+        small.store("e", 1, "application/json", new byte[500]);
+        small.store("huge", 1, "application/json", new byte[1400]);
+
+        Assertions.assertNotNull(small.find("a", 1));
+        Assertions.assertNull(small.find("b", 1));
+        Assertions.assertNull(small.find("huge", 1));
+        Assertions.assertEquals(3500L, small.stats().get("sizeBytes"));
+        Assertions.assertEquals(1L, small.stats().get("evictions"));
+    }
+
+    @Description("The change token is read from change_counter only on schemas that have it")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C70_06")
+    public void testGetChangeToken_readFromChangeCounter() throws Exception {
+        DatabaseConnection dbConn = mock(DatabaseConnection.class);
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(dbConn.getConnection()).thenReturn(conn);
+        when(conn.prepareStatement("SELECT version FROM change_counter WHERE id = 1")).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getLong("version")).thenReturn(42L);
+
+        Assertions.assertEquals(42L, new ExpenseRepository(dbConn, SchemaMigrator.CHANGE_TOKEN_VERSION).getChangeToken());
+        Assertions.assertEquals(-1L, new ExpenseRepository(dbConn, SchemaMigrator.STATUS_CODE_VERSION).getChangeToken());
+        verify(dbConn, times(1)).getConnection();
+    }
+
+    @Description("The change token is read from the database at most once a second, and again right after an approval")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C70_07")
+    public void testGetChangeToken_cachedUntilWrite() {
+        ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+        ApprovalRepository approvalRepository = mock(ApprovalRepository.class);
+        when(expenseRepository.getChangeToken()).thenReturn(5L, 6L);
+        when(approvalRepository.updateApprovalStatus(1, "approved", 3, null)).thenReturn(true);
+        ExpenseService expenseService = new ExpenseService(expenseRepository, approvalRepository);
+
+        Assertions.assertEquals(5L, expenseService.getChangeToken());
+        Assertions.assertEquals(5L, expenseService.getChangeToken());
+        verify(expenseRepository, times(1)).getChangeToken();
+
+        expenseService.approveExpense(1, 3, null);
+        Assertions.assertEquals(6L, expenseService.getChangeToken());
+        verify(expenseRepository, times(2)).getChangeToken();
+    }
+}
@@ -0,0 +1,186 @@
+package UnitTests;
+
+import com.revature.api.ServerTiming;
+import com.revature.metrics.RequestTiming;
+import com.revature.metrics.RouteTimingStats;
+import com.revature.metrics.TimingPhase;
+import com.revature.repository.DatabaseConnection;
+import com.revature.repository.ExpenseRepository;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.qameta.allure.*;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@Epic("Manager App")
+@Feature("Request Metrics")
+@Story("Server-Timing Phases")
+@DisplayName("Server Timing Tests")
+public class TestServerTiming {
+
+    @AfterEach
+    public void tearDown() {
+        RequestTiming.stop();
+    }
+
+    private static void spin(long millis) {
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Description("A nested phase's time is counted for the inner phase only")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C72_01")
+    public void testNestedPhases_innerTimeExcludedFromOuter() {
+        RequestTiming timing = RequestTiming.start();
+
+        long db = RequestTiming.begin();
+        long map = RequestTiming.begin();
+        spin(20);
+        RequestTiming.end(TimingPhase.MAP, map);
+        RequestTiming.end(TimingPhase.DB, db);
+
+        Assertions.assertTrue(timing.getPhaseNanos(TimingPhase.MAP) >= TimeUnit.MILLISECONDS.toNanos(20));
+        Assertions.assertTrue(timing.getPhaseNanos(TimingPhase.DB) < timing.getPhaseNanos(TimingPhase.MAP));
+        Assertions.assertEquals(0, timing.getPhaseNanos(TimingPhase.CSV));
+    }
+
+    @Description("Outside a timed request, phase markers do nothing")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C72_02")
+    public void testBegin_withoutRequest_isNoOp() {
+        RequestTiming.stop();
+
+        long begin = RequestTiming.begin();
+        RequestTiming.end(TimingPhase.DB, begin);
+
+        Assertions.assertEquals(0, begin);
+        Assertions.assertNull(RequestTiming.stop());
+    }
+
+    @Description("The header lists only phases that took time, then the total, in milliseconds")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C72_03")
+    public void testToServerTiming_format() {
+        RequestTiming timing = RequestTiming.start();
+        long csv = RequestTiming.begin();
+        spin(2);
+        RequestTiming.end(TimingPhase.CSV, csv);
+
+        String header = timing.toServerTiming(12_345_678);
+
+        Assertions.assertTrue(header.matches("csv;desc=\"CSV formatting\";dur=\\d+\\.\\d{3}, total;desc=\"Total\";dur=12\\.345"),
+                header);
+    }
+
+    @Description("Repository queries record both query and row mapping time for the current request")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C72_04")
+    public void testRepositoryQuery_recordsDbAndMapPhases() throws Exception {
+        DatabaseConnection dbConn = mock(DatabaseConnection.class);
+        Connection conn = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(dbConn.getConnection()).thenReturn(conn);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, false);
+
+        RequestTiming timing = RequestTiming.start();
+        Assertions.assertEquals(2, new ExpenseRepository(dbConn).findPendingExpensesWithUsers().size());
+
+        Assertions.assertTrue(timing.getPhaseNanos(TimingPhase.DB) > 0);
+        Assertions.assertTrue(timing.getPhaseNanos(TimingPhase.MAP) > 0);
+    }
+
+    @Description("Finishing a request sets Server-Timing and adds it to the per-route metrics")
+    @Severity(SeverityLevel.CRITICAL)
+    @Test
+    @DisplayName("C72_05")
+    public void testFinish_setsHeaderAndRecordsRoute() {
+        RouteTimingStats stats = new RouteTimingStats();
+        ServerTiming serverTiming = new ServerTiming(stats);
+        Context ctx = mock(Context.class);
+        when(ctx.res()).thenReturn(mock(HttpServletResponse.class));
+        when(ctx.method()).thenReturn(HandlerType.GET);
+        when(ctx.endpointHandlerPath()).thenReturn("/api/expenses/employee/{employeeId}");
+        when(ctx.statusCode()).thenReturn(200);
+
+        serverTiming.start(ctx);
+        long db = RequestTiming.begin();
+        RequestTiming.end(TimingPhase.DB, db);
+        serverTiming.finish(ctx);
+        serverTiming.start(ctx);
+        serverTiming.finish(ctx);
+
+        ArgumentCaptor<String> header = ArgumentCaptor.forClass(String.class);
+        verify(ctx, times(2)).header(eq("Server-Timing"), header.capture());
+        Assertions.assertTrue(header.getAllValues().get(0).startsWith("db;desc=\"Repository query\";dur="));
+        Assertions.assertTrue(header.getAllValues().get(1).startsWith("total;desc=\"Total\";dur="));
+        String text = stats.toPrometheusText();
+        Assertions.assertTrue(text.contains(
+                "http_server_requests_total{method=\"GET\",route=\"/api/expenses/employee/{employeeId}\"} 2\n"), text);
+        Assertions.assertTrue(text.contains(
+                "http_server_phase_seconds_total{method=\"GET\",route=\"/api/expenses/employee/{employeeId}\",phase=\"db\"} "));
+        Assertions.assertNull(RequestTiming.stop());
+    }
+
+    @Description("Requests that matched no route share one label instead of Javalin's message")
+    @Severity(SeverityLevel.MINOR)
+    @Test
+    @DisplayName("C72_06")
+    public void testFinish_unmatchedRoute_sharedLabel() {
+        RouteTimingStats stats = new RouteTimingStats();
+        ServerTiming serverTiming = new ServerTiming(stats);
+        Context ctx = mock(Context.class);
+        when(ctx.res()).thenReturn(mock(HttpServletResponse.class));
+        when(ctx.method()).thenReturn(HandlerType.GET);
+        when(ctx.endpointHandlerPath()).thenReturn("No handler matched request path/method (404/405)");
+        when(ctx.statusCode()).thenReturn(404);
+
+        serverTiming.start(ctx);
+        serverTiming.finish(ctx);
+
+        Assertions.assertTrue(stats.toPrometheusText().contains("route=\"unmatched\"} 1\n"));
+    }
+
+    @Description("Time added in one go counts for its phase and is left out of the enclosing phase")
+    @Severity(SeverityLevel.NORMAL)
+    @Test
+    @DisplayName("C72_07")
+    public void testAdd_countsAsNestedPhase() {
+        RequestTiming timing = RequestTiming.start();
+
+        long db = RequestTiming.begin();
+        long mapping = System.nanoTime();
+        spin(20);
+        RequestTiming.add(TimingPhase.MAP, System.nanoTime() - mapping);
+        RequestTiming.end(TimingPhase.DB, db);
+
+        Assertions.assertTrue(timing.getPhaseNanos(TimingPhase.MAP) >= TimeUnit.MILLISECONDS.toNanos(20));
+        Assertions.assertTrue(timing.getPhaseNanos(TimingPhase.DB) < timing.getPhaseNanos(TimingPhase.MAP));
+
+        RequestTiming.stop();
+        RequestTiming.add(TimingPhase.MAP, 1_000);
+        Assertions.assertNull(RequestTiming.stop());
+    }
+}